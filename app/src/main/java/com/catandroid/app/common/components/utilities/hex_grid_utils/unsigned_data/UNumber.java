@@ -1,57 +0,0 @@
-/*
- * Original work Copyright (c) 2011-2016, Data Geekery GmbH (http://www.datageekery.com)
- * Modified work Copyright (C) 2017, Logan Martel, Frederick Parsons
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *     http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-/*
- * hexagonal-experiments-in-android
- * Copyright (C) 2017, Logan Martel, Frederick Parsons
- * 
- * This program is free software: you can redistribute it and/or modify
- * it under the terms of the GNU General Public License as published by
- * the Free Software Foundation, either version 3 of the License, or
- * (at your option) any later version.
- * 
- * This program is distributed in the hope that it will be useful,
- * but WITHOUT ANY WARRANTY; without even the implied warranty of
- * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
- * GNU General Public License for more details.
- * 
- * You should have received a copy of the GNU General Public License
- * along with this program. If not, see <http://www.gnu.org/licenses/>.
- */
-package com.catandroid.app.common.components.utilities.hex_grid_utils.unsigned_data;
-
-import java.math.BigInteger;
-
-/**
- * A base type for unsigned numbers.
- *
- * @author Lukas Eder
- */
-public abstract class UNumber extends Number {
-
-    /**
-     * Generated UID
-     */
-    private static final long serialVersionUID = -7666221938815339843L;
-
-    /**
-     * Get this number as a {@link BigInteger}. This is a convenience method for
-     * calling <code>new BigInteger(toRString())</code>
-     */
-    public BigInteger toBigInteger() {
-        return new BigInteger(toString());
-    }
-}
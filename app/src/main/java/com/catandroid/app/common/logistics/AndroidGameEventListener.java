@@ -0,0 +1,64 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.logistics;
+
+import android.content.Context;
+
+import com.catandroid.app.CatAndroidApp;
+import com.catandroid.app.common.components.GameEventListener;
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.players.Player;
+import com.catandroid.app.common.ui.fragments.ActiveGameFragment;
+
+/**
+ * Connects the rules engine to the app: turn changes are forwarded to the
+ * multiplayer listener and actions are described using string resources
+ */
+public class AndroidGameEventListener implements GameEventListener {
+
+	private ActiveGameFragment.Listener listener;
+
+	public AndroidGameEventListener(ActiveGameFragment.Listener listener) {
+		this.listener = listener;
+	}
+
+	@Override
+	public void endTurn(String nextParticipantId, boolean isWinner) {
+		if (listener != null) {
+			listener.endTurn(nextParticipantId, isWinner);
+		}
+	}
+
+	@Override
+	public String describeAction(Player.ActionType action, Object argument) {
+		Context context = CatAndroidApp.getInstance().getContext();
+		String text = context.getString(GameStrings.getActionResource(action));
+		if (argument == null) {
+			return text;
+		}
+
+		String additional;
+		if (argument instanceof Resource.ResourceType) {
+			additional = context.getString(GameStrings.toRString((Resource.ResourceType) argument));
+		} else {
+			additional = argument.toString();
+		}
+
+		return String.format(text, additional);
+	}
+}
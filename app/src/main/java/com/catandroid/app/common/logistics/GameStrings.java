@@ -0,0 +1,169 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.logistics;
+
+import com.catandroid.app.R;
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.board_pieces.ProgressCard;
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.players.Player;
+
+/**
+ * Maps rules engine enums onto Android string resources
+ */
+public class GameStrings {
+
+	/**
+	 * Get the string resource for a resource type
+	 *
+	 * @param resourceType
+	 *            the resource type
+	 * @return the string resource
+	 */
+	public static int toRString(Resource.ResourceType resourceType) {
+		switch (resourceType) {
+			case LUMBER:
+				return R.string.lumber;
+			case WOOL:
+				return R.string.wool;
+			case GRAIN:
+				return R.string.grain;
+			case BRICK:
+				return R.string.brick;
+			case ORE:
+				return R.string.ore;
+			case GOLD:
+				return R.string.gold;
+			default:
+				return R.string.empty_string;
+		}
+	}
+
+	/**
+	 * Get the string resource for a color
+	 *
+	 * @param color
+	 *            the color
+	 * @return the string resource
+	 */
+	public static int getColorStringResource(Player.Color color) {
+		switch (color) {
+			case RED:
+				return R.string.red;
+			case BLUE:
+				return R.string.blue;
+			case GREEN:
+				return R.string.green;
+			case YELLOW:
+				return R.string.yellow;
+			default:
+				return R.string.empty_string;
+		}
+	}
+
+	/**
+	 * Get the string resource for a card type
+	 *
+	 * @param card
+	 *            the card type
+	 * @return the string resource
+	 */
+	public static int getCardStringResource(ProgressCard.ProgressCardType card) {
+		switch (card) {
+			//TODO: implement progress cards
+			default:
+				return R.string.empty_string;
+		}
+	}
+
+	/**
+	 * Get an instruction string for a game phase
+	 *
+	 * @param phase
+	 *            the game phase
+	 * @return the instruction string resource or 0
+	 */
+	public static int getPhaseResource(Board.Phase phase) {
+		switch (phase) {
+			case SETUP_SETTLEMENT:
+				return R.string.phase_first_settlement;
+			case SETUP_FIRST_R:
+				return R.string.phase_first_road;
+			case SETUP_CITY:
+				return R.string.phase_first_city;
+			case SETUP_SECOND_R:
+				return R.string.phase_second_road;
+			case PRODUCTION:
+				return R.string.phase_your_turn;
+			case BUILD:
+				return R.string.phase_build;
+			case PROGRESS_CARD_1:
+				// TODO: progress card step 1
+				return 0;
+			case PROGRESS_CARD_2:
+				// TODO: progress card step 2
+				return 0;
+			case ROBBER:
+				return R.string.phase_move_robber;
+			case DONE:
+				return R.string.phase_game_over;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Get the turn log string for a player action
+	 *
+	 * @param action
+	 *            the action type
+	 * @return the string resource, possibly containing a %s placeholder
+	 */
+	public static int getActionResource(Player.ActionType action) {
+		switch (action) {
+			case ROLL:
+				return R.string.player_roll;
+			case ENDED_TURN:
+				return R.string.player_ended_turn;
+			case ROAD:
+				return R.string.player_road;
+			case LONGEST_ROAD:
+				return R.string.player_longest_road;
+			case SETTLEMENT:
+				return R.string.player_settlement;
+			case CITY:
+				return R.string.player_city;
+			case RECEIVED_X_RESOURCES:
+				return R.string.player_received_x_resources;
+			case RECEIVED_RESOURCE:
+				return R.string.player_received_resource;
+			case STOLE_FROM:
+				return R.string.player_stole_from;
+			case DISCARDED:
+				return R.string.player_discarded;
+			case TRADED_AWAY:
+				return R.string.player_traded_away;
+			case TRADED_WITH:
+				return R.string.player_traded_with;
+			case TRADED_FOR:
+				return R.string.player_traded_for;
+			default:
+				return R.string.empty_string;
+		}
+	}
+}
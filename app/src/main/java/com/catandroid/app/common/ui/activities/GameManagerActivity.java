@@ -34,6 +34,7 @@ import android.widget.Spinner;
 import android.widget.Toast;
 import android.content.pm.ActivityInfo;
 
+import com.catandroid.app.common.logistics.AndroidGameEventListener;
 import com.catandroid.app.CatAndroidApp;
 import com.catandroid.app.common.components.BoardGeometry;
 import com.catandroid.app.common.logistics.AppSettings;
@@ -642,7 +643,7 @@ public class GameManagerActivity extends FragmentActivity implements GoogleApiCl
 		//add the list of playerIds for the game and the number of players based on view
 
 		Board board = new Board(gameParticipantIds, names, types, maxPoints, boardGeometry,
-				autoDiscard, activeGameFragment);
+				autoDiscard, new AndroidGameEventListener(this));
 		activeGameFragment.setBoard(board);
 
 		Gson gson = new Gson();
@@ -747,7 +748,7 @@ public class GameManagerActivity extends FragmentActivity implements GoogleApiCl
 				catandroidTurn.currentBoard = board;
 				activeGameFragment.setBoard(board);
 				board.reinitBoardOnDependents();
-				board.setActiveGameFragment(activeGameFragment);
+				board.setGameEventListener(new AndroidGameEventListener(this));
 				currentMatchId = match.getMatchId();
 				setGameplayUI();
 				break;
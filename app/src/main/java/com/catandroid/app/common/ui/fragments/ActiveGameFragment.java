@@ -17,6 +17,8 @@
  */
 package com.catandroid.app.common.ui.fragments;
 
+import com.catandroid.app.common.logistics.GameStrings;
+import com.catandroid.app.common.logistics.AndroidGameEventListener;
 import com.catandroid.app.common.components.board_pieces.Resource;
 import com.catandroid.app.common.ui.fragments.interaction_fragments.DiscardResourcesFragment;
 import com.catandroid.app.R;;
@@ -409,8 +411,8 @@ public class ActiveGameFragment extends Fragment {
 				// enter build phase
 				board.nextPhase();
 
-				int roll1 = (int) (Math.random() * 6) + 1;
-				int roll2 = (int) (Math.random() * 6) + 1;
+				int roll1 = board.getRandom().nextInt(6) + 1;
+				int roll2 = board.getRandom().nextInt(6) + 1;
 				int roll = roll1 + roll2;
 				board.getCurrentPlayer().roll(roll);
 				mListener.endTurn(board.getCurrentPlayer().getGooglePlayParticipantId(), false);
@@ -557,7 +559,7 @@ public class ActiveGameFragment extends Fragment {
 	public void updateBoardState(){
 		board.reinitBoardOnDependents();
 		view.setBoard(board);
-		board.setActiveGameFragment(this);
+		board.setGameEventListener(new AndroidGameEventListener(mListener));
 		showState(true);
 	}
 
@@ -620,7 +622,7 @@ public class ActiveGameFragment extends Fragment {
 		actionBar.setBackgroundDrawable(new ColorDrawable(color));
 
 		//Add check if its actually our turn and
-		int resourceId = board.getPhaseResource();
+		int resourceId = GameStrings.getPhaseResource(board.getPhase());
 		if (resourceId != 0)
 			if(board.itsMyTurn(myParticipantId)) {
 				getActivity().setTitle(player.getName() + ": " + getActivity().getString(resourceId));
@@ -729,7 +731,7 @@ public class ActiveGameFragment extends Fragment {
 			Player player = board.getPlayer(i % board.getNumPlayers());
 			String name = player.getName()
 					+ " ("
-					+ getActivity().getString(Player
+					+ getActivity().getString(GameStrings
 							.getColorStringResource(player.getColor())) + ")";
 			String log = player.getActionLog();
 
@@ -738,7 +740,7 @@ public class ActiveGameFragment extends Fragment {
 				message += "\n";
 			}
 
-			if (log == null || log == "")
+			if (log == null || log.length() == 0)
 			{
 				message += name + " " + getString(R.string.game_did_nothing_str)
 						+ "\n";
@@ -855,7 +857,7 @@ public class ActiveGameFragment extends Fragment {
 				if (resourceType != null)
 				{
 					toast(getString(R.string.game_stole_str) + " "
-							+ getActivity().getString(Resource.toRString(resourceType))
+							+ getActivity().getString(GameStrings.toRString(resourceType))
 							+ " " + getString(R.string.game_from_str) + " "
 							+ player.getName());
 				}
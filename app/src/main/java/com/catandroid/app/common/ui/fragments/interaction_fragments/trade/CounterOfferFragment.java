@@ -26,6 +26,7 @@ import android.view.View.OnClickListener;
 import android.widget.Button;
 import android.widget.TextView;
 
+import com.catandroid.app.common.logistics.GameStrings;
 import com.catandroid.app.common.components.Board;
 import com.catandroid.app.R;
 import com.catandroid.app.CatAndroidApp;
@@ -71,7 +72,7 @@ public class CounterOfferFragment extends Activity {
 
 		TextView wants = (TextView) findViewById(R.id.trade_player_wants);
 		wants.setText(String.format(getString(R.string.trade_player_wants),
-				getString(Resource.toRString(resourceType))));
+				getString(GameStrings.toRString(resourceType))));
 
 		TextView playerOffer = (TextView) findViewById(R.id.trade_player_offer);
 		playerOffer.setText(String.format(
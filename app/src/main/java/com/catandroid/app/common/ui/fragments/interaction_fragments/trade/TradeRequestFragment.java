@@ -33,7 +33,10 @@ import android.widget.TextView;
 import android.widget.Toast;
 import android.widget.AdapterView.OnItemSelectedListener;
 
+import com.catandroid.app.common.logistics.GameStrings;
 import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BuildSites;
+import com.catandroid.app.common.components.TradeSolver;
 import com.catandroid.app.R;
 import com.catandroid.app.common.components.board_pieces.Resource;
 import com.catandroid.app.common.players.Player;
@@ -65,9 +68,23 @@ public class TradeRequestFragment extends Fragment {
 	private static final int[] RES_STRING = { R.string.lumber, R.string.wool,
 			R.string.grain, R.string.brick, R.string.ore };
 
+	private static final int AFFORD_ROAD = 0;
+	private static final int AFFORD_SETTLEMENT = 1;
+	private static final int AFFORD_CITY = 2;
+
+	private static final int[] AFFORD = { R.id.trade_afford_road,
+			R.id.trade_afford_settlement, R.id.trade_afford_city };
+
+	private static final int[] AFFORD_STRING = { R.string.trade_afford_road,
+			R.string.trade_afford_settlement, R.string.trade_afford_city };
+
+	private static final int[][] AFFORD_COST = { Player.ROAD_COST,
+			Player.SETTLEMENT_COST, Player.CITY_COST };
+
 	private Player player;
 	private int selected;
 	private Board board;
+	private final TradeSolver tradeSolver = new TradeSolver();
 
 	public void setBoard(Board board) {
 		this.board = board;
@@ -101,7 +118,7 @@ public class TradeRequestFragment extends Fragment {
 
 		for (int i = 0; i < RESOURCES.length; i++) {
 			String res = String.format(getString(R.string.trade_for_resource),
-					getString(Resource.toRString(Resource.RESOURCE_TYPES[i])));
+					getString(GameStrings.toRString(Resource.RESOURCE_TYPES[i])));
 			choices.add(res);
 
 			int count = player.getResources(Resource.RESOURCE_TYPES[i]);
@@ -253,7 +270,7 @@ public class TradeRequestFragment extends Fragment {
 
 				if (player.trade(resourceType, offer)) {
 					toast(getString(R.string.trade_for_prior) + " "
-							+ getString(Resource.toRString(resourceType)));
+							+ getString(GameStrings.toRString(resourceType)));
 					//finish();
 					getActivity().getSupportFragmentManager().popBackStack();
 				} else {
@@ -261,9 +278,53 @@ public class TradeRequestFragment extends Fragment {
 				}
 			}
 		});
+
+		// one tap makes the cheapest bank trades for a piece only its cost holds back
+		for (int i = 0; i < AFFORD.length; i++) {
+			final int piece = i;
+			final int[] cost = AFFORD_COST[i];
+			final int name = AFFORD_STRING[i];
+
+			Button afford = (Button) tradeView.findViewById(AFFORD[i]);
+			afford.setEnabled(canPlace(piece) && tradeSolver.solve(player, cost) > 0);
+			afford.setOnClickListener(new OnClickListener() {
+				@Override
+				public void onClick(View v) {
+					if (canPlace(piece) && tradeSolver.solve(player, cost) > 0
+							&& tradeSolver.apply(player)) {
+						toast(String.format(getString(R.string.trade_afford_done),
+								tradeSolver.getCardsGiven(), getString(name)));
+						getActivity().getSupportFragmentManager().popBackStack();
+					} else {
+						toast(getString(R.string.trade_invalid));
+					}
+				}
+			});
+		}
 	return tradeView;
 	}
 
+	private boolean canPlace(int piece) {
+		if (!board.isBuild())
+			return false;
+
+		BuildSites sites = board.getBuildSites();
+		int playerNumber = player.getPlayerNumber();
+		switch (piece) {
+			case AFFORD_ROAD:
+				return player.getNumRoads() < Player.MAX_ROADS
+						&& sites.nextRoad(playerNumber, 0) >= 0;
+			case AFFORD_SETTLEMENT:
+				return player.getNumSettlements() < Player.MAX_SETTLEMENTS
+						&& sites.nextSettlement(playerNumber, 0) >= 0;
+			case AFFORD_CITY:
+				return player.getNumCities() < Player.MAX_CITIES
+						&& sites.nextCity(playerNumber, 0) >= 0;
+			default:
+				return false;
+		}
+	}
+
 	private void checkAmounts(View tradeView) {
 		Resource.ResourceType resourceType = Resource.RESOURCE_TYPES[selected];
 		int types = 0;
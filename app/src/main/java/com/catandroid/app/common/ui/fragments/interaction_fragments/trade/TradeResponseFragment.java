@@ -27,6 +27,7 @@ import android.view.WindowManager;
 import android.widget.Button;
 import android.widget.TextView;
 
+import com.catandroid.app.common.logistics.GameStrings;
 import com.catandroid.app.common.components.Board;
 import com.catandroid.app.R;
 import com.catandroid.app.CatAndroidApp;
@@ -93,7 +94,7 @@ public class TradeResponseFragment extends Activity {
 
 		TextView wants = (TextView) findViewById(R.id.trade_player_wants);
 		wants.setText(String.format(getString(R.string.trade_player_wants),
-				getString(Resource.toRString(resourceType))));
+				getString(GameStrings.toRString(resourceType))));
 
 		TextView playerOffer = (TextView) findViewById(R.id.trade_player_offer);
 		playerOffer.setText(String.format(
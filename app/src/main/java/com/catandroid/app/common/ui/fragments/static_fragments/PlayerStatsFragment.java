@@ -17,6 +17,7 @@
  */
 package com.catandroid.app.common.ui.fragments.static_fragments;
 
+import com.catandroid.app.common.logistics.GameStrings;
 import com.catandroid.app.common.components.Board;
 import com.catandroid.app.common.components.board_pieces.Resource;
 import com.catandroid.app.common.ui.graphics_controllers.TextureManager;
@@ -133,7 +134,7 @@ public class PlayerStatsFragment extends Fragment {
 
 			for (int j = 0; j < Resource.RESOURCE_TYPES.length; j++) {
 				if (player.hasHarbor(Resource.RESOURCE_TYPES[j])) {
-					message += getString(Resource
+					message += getString(GameStrings
 							.toRString(Resource.RESOURCE_TYPES[j]))
 							+ " " + getString(R.string.status_harbor) + "\n";
 					hasHarbor = true;
@@ -143,12 +144,13 @@ public class PlayerStatsFragment extends Fragment {
 			if (hasHarbor)
 				message += "\n";
 
+			// the turn log is only rendered here, when it is displayed
 			String turn = player.getActionLog();
-			if (player == board.getCurrentPlayer() && turn != "")
+			if (player == board.getCurrentPlayer() && turn.length() > 0)
 			{
 				message += getString(R.string.status_this_turn) + ":\n" + turn;
 			}
-			else if (turn != "")
+			else if (turn.length() > 0)
 			{
 				message += getString(R.string.status_last_turn) + ":\n" + turn;
 			}
@@ -0,0 +1,268 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+/**
+ * The placement rules evaluated on bitboards
+ *
+ * Buildings are kept as bits over vertex ids and roads as bits over edge
+ * ids, one set of boards per player plus one for all players. Every vertex
+ * has exactly three neighbor and edge slots; missing ones point at a spare
+ * id whose bit is never set, so the distance rule, road connectivity and
+ * road placement checks are a fixed handful of shifts, ANDs and ORs with no
+ * loops or object lookups.
+ *
+ * The boards are updated as pieces are built or restored (see
+ * Board.updatePieces). With Board.RuleEngine.CHECKED, every check is also
+ * answered by the object model and a disagreement throws.
+ */
+public final class BitboardRules {
+
+	private final int vertexCount, edgeCount;
+	private final Edge[] edges;
+	private final Vertex[] vertices;
+
+	// three slots per vertex, padded with vertexCount / edgeCount
+	private final int[] vertexNeighbors, vertexEdges;
+	private final int[] edgeEnds;
+	private final long[] land;
+
+	private final long[] occupied;
+	private final long[] roaded;
+	private final long[][] buildings, settlements, roads;
+
+	/**
+	 * Build the bitboards for a board's layout and pieces
+	 *
+	 * @param board
+	 *            the board
+	 */
+	BitboardRules(Board board) {
+		BoardTopology topology = board.getTopology();
+		edges = board.getEdges();
+		vertices = board.getVertices();
+		vertexCount = vertices.length;
+		edgeCount = edges.length;
+
+		vertexNeighbors = new int[3 * vertexCount];
+		vertexEdges = new int[3 * vertexCount];
+		land = new long[words(vertexCount)];
+		Hexagon[] hexagons = board.getHexagons();
+		for (int v = 0; v < vertexCount; v++) {
+			int slot = 3 * v;
+			for (int k = topology.vertexEdgeStart(v); k < topology.vertexEdgeEnd(v); k++) {
+				int edge = topology.vertexEdge(k);
+				vertexEdges[slot] = edge;
+				vertexNeighbors[slot] = topology.otherVertex(edge, v);
+				slot++;
+			}
+			for (; slot < 3 * v + 3; slot++) {
+				vertexEdges[slot] = edgeCount;
+				vertexNeighbors[slot] = vertexCount;
+			}
+
+			for (int k = topology.vertexHexStart(v); k < topology.vertexHexEnd(v); k++) {
+				if (hexagons[topology.vertexHex(k)].getTerrainType() != Hexagon.TerrainType.SEA) {
+					set(land, v, true);
+				}
+			}
+		}
+
+		edgeEnds = new int[2 * edgeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			edgeEnds[2 * e] = topology.edgeVertex(e, 0);
+			edgeEnds[2 * e + 1] = topology.edgeVertex(e, 1);
+		}
+
+		int numPlayers = board.getNumPlayers();
+		occupied = new long[words(vertexCount)];
+		roaded = new long[words(edgeCount)];
+		buildings = new long[numPlayers][words(vertexCount)];
+		settlements = new long[numPlayers][words(vertexCount)];
+		roads = new long[numPlayers][words(edgeCount)];
+
+		for (int v = 0; v < vertexCount; v++) {
+			update(vertices[v]);
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			update(edges[e]);
+		}
+	}
+
+	// one spare bit for the padding id
+	private static int words(int bits) {
+		return (bits >>> 6) + 1;
+	}
+
+	private static long bit(long[] board, int index) {
+		return board[index >>> 6] >>> index & 1L;
+	}
+
+	private static void set(long[] board, int index, boolean value) {
+		if (value) {
+			board[index >>> 6] |= 1L << index;
+		} else {
+			board[index >>> 6] &= ~(1L << index);
+		}
+	}
+
+	/**
+	 * Copy the road on an edge into the bitboards
+	 *
+	 * @param edge
+	 *            the edge that changed
+	 */
+	void update(Edge edge) {
+		int id = edge.getId();
+		int owner = edge.getOwnerPlayerNumber();
+		set(roaded, id, owner >= 0);
+		for (int p = 0; p < roads.length; p++) {
+			set(roads[p], id, p == owner);
+		}
+	}
+
+	/**
+	 * Copy the building on a vertex into the bitboards
+	 *
+	 * @param vertex
+	 *            the vertex that changed
+	 */
+	void update(Vertex vertex) {
+		int id = vertex.getId();
+		Player owner = vertex.getOwner();
+		int ownerNumber = owner != null ? owner.getPlayerNumber() : -1;
+		set(occupied, id, vertex.hasBuilding());
+		for (int p = 0; p < buildings.length; p++) {
+			set(buildings[p], id, p == ownerNumber);
+			set(settlements[p], id, p == ownerNumber
+					&& vertex.getBuilding() == Vertex.SETTLEMENT);
+		}
+	}
+
+	/**
+	 * Check the distance rule and that a vertex touches land
+	 *
+	 * @param vertexId
+	 *            the vertex id
+	 * @return true if no neighbor has a building and the vertex is on land
+	 */
+	public boolean couldBuild(int vertexId) {
+		int slot = 3 * vertexId;
+		long near = bit(occupied, vertexNeighbors[slot])
+				| bit(occupied, vertexNeighbors[slot + 1])
+				| bit(occupied, vertexNeighbors[slot + 2]);
+		return (~near & bit(land, vertexId)) != 0;
+	}
+
+	/**
+	 * Check if a player has a road to a vertex
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param vertexId
+	 *            the vertex id
+	 * @return true if one of the vertex's edges has the player's road
+	 */
+	public boolean hasRoad(int playerNumber, int vertexId) {
+		return roadBit(roads[playerNumber], vertexId) != 0;
+	}
+
+	private long roadBit(long[] road, int vertexId) {
+		int slot = 3 * vertexId;
+		return bit(road, vertexEdges[slot]) | bit(road, vertexEdges[slot + 1])
+				| bit(road, vertexEdges[slot + 2]);
+	}
+
+	/**
+	 * Check if a player may build on a vertex
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param vertexId
+	 *            the vertex id
+	 * @param type
+	 *            Vertex.SETTLEMENT or Vertex.CITY
+	 * @param setup
+	 *            true during setup, when no road is needed
+	 * @return true if the building may be placed
+	 */
+	public boolean canBuild(int playerNumber, int vertexId, int type, boolean setup) {
+		if (!couldBuild(vertexId)) {
+			return false;
+		}
+
+		long empty = ~bit(occupied, vertexId) & 1L;
+		if (setup) {
+			return empty != 0;
+		}
+
+		long road = roadBit(roads[playerNumber], vertexId);
+		if (type == Vertex.SETTLEMENT) {
+			return (road & empty) != 0;
+		} else if (type == Vertex.CITY) {
+			return (road & bit(settlements[playerNumber], vertexId)) != 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Check if a player may build a road on an edge
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param edgeId
+	 *            the edge id
+	 * @return true if the edge is free and one end has the player's building,
+	 *         or the player's road and no building
+	 */
+	public boolean canBuild(int playerNumber, int edgeId) {
+		long[] road = roads[playerNumber];
+		long[] own = buildings[playerNumber];
+		int v0 = edgeEnds[2 * edgeId];
+		int v1 = edgeEnds[2 * edgeId + 1];
+		long reach = bit(own, v0) | (~bit(occupied, v0) & roadBit(road, v0))
+				| bit(own, v1) | (~bit(occupied, v1) & roadBit(road, v1));
+		return (reach & ~bit(roaded, edgeId) & 1L) != 0;
+	}
+
+	/**
+	 * Fail if the bitboards and the object model disagree
+	 *
+	 * @param bitboard
+	 *            the answer from the bitboards
+	 * @param objects
+	 *            the answer from the object model
+	 * @param rule
+	 *            the rule being checked
+	 * @param id
+	 *            the vertex or edge id
+	 * @return the agreed answer
+	 */
+	public static boolean verify(boolean bitboard, boolean objects, String rule, int id) {
+		if (bitboard != objects) {
+			throw new IllegalStateException(rule + " disagrees at " + id
+					+ ": bitboard " + bitboard + ", objects " + objects);
+		}
+		return bitboard;
+	}
+}
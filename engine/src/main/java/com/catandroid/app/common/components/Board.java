@@ -0,0 +1,1820 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_pieces.ProgressCard;
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Harbor;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.components.utilities.BoardUtils;
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.components.utilities.LongestRoadSolver;
+import com.catandroid.app.common.components.utilities.ZobristKeys;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.AxialHexIndex;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.AxialHexLocation;
+import com.catandroid.app.common.players.AutomatedPlayer;
+import com.catandroid.app.common.players.AutomatedPlayerFactory;
+import com.catandroid.app.common.players.BalancedAI;
+import com.catandroid.app.common.players.Player;
+
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.HashMap;
+import java.util.Stack;
+
+public class Board {
+
+	private transient GameEventListener gameEventListener;
+
+	private ArrayList<String> gameParticipantIds;
+
+    public final static int[] COUNT_PER_DICE_SUM = { 0, 0, 2, 3, 3, 3, 3, 0, 3, 3, 3, 3, 2 };
+
+	// land tiles in one standard set, split over LAND_PER_TILE_SET hexagons
+	private static final Hexagon.TerrainType[] LAND_TERRAIN_TYPES = {
+			Hexagon.TerrainType.DESERT, Hexagon.TerrainType.GOLD_FIELD,
+			Hexagon.TerrainType.HILLS, Hexagon.TerrainType.FOREST,
+			Hexagon.TerrainType.PASTURE, Hexagon.TerrainType.MOUNTAINS,
+			Hexagon.TerrainType.FIELDS };
+	private static final int[] LAND_COUNT_PER_TILE_SET = { 2, 2, 3, 4, 4, 4, 5 };
+
+	private final HashMap<Hexagon.TerrainType, Integer> terrainTypeToCountMap;
+	private HashMap<Hexagon.TerrainType, Integer> initTerrainTypeToCountMap(BoardGeometry boardGeometry)
+	{
+		HashMap<Hexagon.TerrainType, Integer> terrainTypeToCountMap =
+				new HashMap<Hexagon.TerrainType, Integer>();
+
+		// share the land out in the proportions of a standard set, handing
+		// the rounded-off hexagons to the largest remainders
+		int landCount = boardGeometry.getLandCount();
+		int perSet = BoardGeometry.LAND_PER_TILE_SET, assigned = 0;
+		int[] counts = new int[LAND_TERRAIN_TYPES.length];
+		int[] remainders = new int[LAND_TERRAIN_TYPES.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = LAND_COUNT_PER_TILE_SET[i] * landCount / perSet;
+			remainders[i] = LAND_COUNT_PER_TILE_SET[i] * landCount % perSet;
+			assigned += counts[i];
+		}
+		for (; assigned < landCount; assigned++) {
+			int largest = 0;
+			for (int i = 1; i < counts.length; i++) {
+				if (remainders[i] > remainders[largest]) {
+					largest = i;
+				}
+			}
+			counts[largest] += 1;
+			remainders[largest] = -1;
+		}
+		if (counts[0] == 0 && landCount > 0) {
+			// the robber starts on a desert
+			int largest = 0;
+			for (int i = 1; i < counts.length; i++) {
+				if (counts[i] > counts[largest]) {
+					largest = i;
+				}
+			}
+			counts[largest] -= 1;
+			counts[0] = 1;
+		}
+
+		for (int i = 0; i < counts.length; i++) {
+			terrainTypeToCountMap.put(LAND_TERRAIN_TYPES[i], counts[i]);
+		}
+		terrainTypeToCountMap.put(Hexagon.TerrainType.SEA,
+				boardGeometry.getHexCount() - landCount);
+		return terrainTypeToCountMap;
+	}
+
+	/**
+	 * Get how many number tokens of each dice sum this board's layout uses
+	 *
+	 * @return the token counts, indexed by dice sum
+	 */
+	public int[] getTokenCounts() {
+		int hexCount = boardGeometry.getHexCount();
+		int tileSets = (hexCount + BoardGeometry.HEXES_PER_TILE_SET - 1)
+				/ BoardGeometry.HEXES_PER_TILE_SET;
+		int[] counts = new int[COUNT_PER_DICE_SUM.length];
+		for (int sum = 0; sum < counts.length; sum++) {
+			counts[sum] = tileSets * COUNT_PER_DICE_SUM[sum];
+		}
+		return counts;
+	}
+
+	public Integer getTerrainCount(Hexagon.TerrainType terrainType) {
+		Integer count = terrainTypeToCountMap.get(terrainType);
+		if (count == null) {
+			return 0;
+		}
+		return count;
+	}
+
+	public enum Phase {
+		SETUP_SETTLEMENT, SETUP_FIRST_R, SETUP_CITY, SETUP_SECOND_R,
+		PRODUCTION, BUILD, PROGRESS_CARD_1, PROGRESS_CARD_2, ROBBER, DONE
+	}
+
+	public enum RuleEngine {
+		OBJECTS, BITBOARDS, CHECKED
+	}
+
+	private Phase phase, returnPhase;
+
+	private Hexagon[] hexagons;
+	private Vertex[] vertices;
+	private Edge[] edges;
+	private Player[] players;
+	private int numPlayers;
+	private Harbor[] harbors;
+	private Stack<Player> playersYetToDiscard;
+	private BoardGeometry boardGeometry;
+	private GameRandom random;
+	private GameLog gameLog;
+
+	// xor of the Zobrist keys of the pieces, kept up to date by the pieces
+	private transient long pieceHash;
+	private transient boolean pieceHashValid;
+
+	// moves that can be taken back; records past undoDepth are kept for reuse
+	private transient ArrayList<UndoRecord> undoStack;
+	private transient int undoDepth;
+	private transient ProductionIndex production;
+	private transient BoardTopology topology;
+	private transient AxialHexIndex hexIndex;
+	private transient BuildSites buildSites;
+	private transient RoadPlanner roadPlanner;
+	private transient RuleEngine ruleEngine;
+	private transient BitboardRules bitboardRules;
+	private transient int[] tradeOffer;
+
+	private Hexagon curRobberHex, prevRobberHex;
+	private int turn, turnNumber, longestRoad,
+			maxPoints, lastDiceRollNumber;
+	private Player longestRoadOwner, winner;
+
+	private boolean autoDiscard;
+
+	/**
+	 * Create new board layout
+	 * 
+	 * @param names
+	 *            array of players names
+	 * @param human
+	 *            whether each players is human
+	 * @param gameEventListener
+	 *            receiver of turn changes and action descriptions, or null
+	 */
+	public Board(ArrayList<String> gameParticipantIds, String[] names, boolean[] human, int maxPoints, BoardGeometry boardGeometry,
+				 boolean autoDiscard, GameEventListener gameEventListener) {
+		this(gameParticipantIds, names, human, maxPoints, boardGeometry, autoDiscard,
+				gameEventListener, null, new GameRandom());
+	}
+
+	/**
+	 * Create new board layout with a custom source of bots
+	 *
+	 * @param names
+	 *            array of players names
+	 * @param human
+	 *            whether each players is human
+	 * @param gameEventListener
+	 *            receiver of turn changes and action descriptions, or null
+	 * @param botFactory
+	 *            creates the non-human players, or null for BalancedAI
+	 * @param random
+	 *            source of all randomness in the game (layout, dice, bots)
+	 */
+	public Board(ArrayList<String> gameParticipantIds, String[] names, boolean[] human, int maxPoints, BoardGeometry boardGeometry,
+				 boolean autoDiscard, GameEventListener gameEventListener,
+				 AutomatedPlayerFactory botFactory, GameRandom random) {
+		this.random = random;
+		this.maxPoints = maxPoints;
+		this.boardGeometry = boardGeometry;
+		this.terrainTypeToCountMap = initTerrainTypeToCountMap(boardGeometry);
+		this.gameParticipantIds = gameParticipantIds;
+		this.gameEventListener = gameEventListener;
+		this.numPlayers = gameParticipantIds.size();
+		commonInit();
+
+		this.autoDiscard = autoDiscard;
+
+		// initialize players
+		players = new Player[numPlayers];
+		for (int i = 0; i < numPlayers; i++) {
+			Player.Color color = Player.Color.values()[i];
+
+			if (human[i]) {
+				String participantId = gameParticipantIds.get(i);
+				players[i] = new Player(this, i, participantId, color, names[i],
+						Player.PLAYER_HUMAN);
+			} else if (botFactory != null) {
+				players[i] = botFactory.createPlayer(this, i, color, names[i]);
+			} else {
+				players[i] = new BalancedAI(this, i, color, names[i]);
+			}
+
+		}
+	}
+
+	public void setGameEventListener(GameEventListener gameEventListener){
+		this.gameEventListener = gameEventListener;
+	}
+
+	/**
+	 * Get the receiver of engine events
+	 *
+	 * @return the event listener, or null when running headless
+	 */
+	public GameEventListener getGameEventListener() {
+		return gameEventListener;
+	}
+
+	/**
+	 * Notify the listener (if any) that control passes to another participant
+	 *
+	 * @param participantId
+	 *            the participant to play next, or the winner
+	 * @param isWinner
+	 *            true if the game is over
+	 */
+	private void notifyEndTurn(String participantId, boolean isWinner) {
+		if (gameEventListener != null) {
+			gameEventListener.endTurn(participantId, isWinner);
+		}
+	}
+
+	/**
+	 * Get the record of everything that has happened in the game
+	 *
+	 * @return the game log
+	 */
+	public GameLog getGameLog() {
+		if (gameLog == null) {
+			// games saved before the log was kept
+			gameLog = new GameLog();
+		}
+		return gameLog;
+	}
+
+	/**
+	 * Change the phase, recording the change in the game log
+	 *
+	 * @param phase
+	 *            the new phase
+	 */
+	private void setPhase(Phase phase) {
+		if (this.phase == phase) {
+			return;
+		}
+
+		this.phase = phase;
+		getGameLog().append(turn, Player.ActionType.PHASE, phase.ordinal(), -1, 0,
+				isSetupPhase(), turnNumber);
+	}
+
+	/**
+	 * Replay a recorded game on this board
+	 *
+	 * The board must have been created from the same seed as the recorded
+	 * game, with the same number of players. All of them should be human (and
+	 * autoDiscard off), so that no bot acts on its own during the replay: every
+	 * move, dice roll, discard, robber move and theft comes from the log.
+	 *
+	 * @param log
+	 *            the log of the recorded game
+	 * @return false if a recorded move could not be made on this board
+	 */
+	public boolean replay(GameLog log) {
+		Phase[] phases = Phase.values();
+		for (int i = 0; i < log.size(); i++) {
+			long event = log.get(i);
+			int target = GameLog.getTarget(event);
+			int playerNumber = GameLog.getPlayerNumber(event);
+			switch (GameLog.getType(event)) {
+				case PHASE:
+					replayPhase(phases[target], playerNumber, GameLog.getTurnNumber(event));
+					break;
+				case MOVED_ROBBER:
+					setRobber(target);
+					break;
+				default:
+					if (!players[playerNumber].replay(event)) {
+						return false;
+					}
+			}
+		}
+
+		return true;
+	}
+
+	private void replayPhase(Phase phase, int turn, int turnNumber) {
+		if (phase == this.phase && turn == this.turn) {
+			// already entered by the rules (e.g. the robber phase on a 7)
+			return;
+		}
+
+		boolean turnChanged = turn != this.turn;
+		this.turn = turn;
+		this.turnNumber = turnNumber;
+		setPhase(phase);
+		if (turnChanged && phase == Phase.PRODUCTION) {
+			lastDiceRollNumber = 0;
+			players[turn].beginTurn();
+		}
+		if (phase == Phase.DONE) {
+			getWinner();
+		}
+	}
+
+	/**
+	 * Get the game's source of randomness
+	 *
+	 * @return the random generator
+	 */
+	public GameRandom getRandom() {
+		if (random == null) {
+			// games saved before the generator was persisted
+			random = new GameRandom();
+		}
+		return random;
+	}
+
+	private void commonInit() {
+		turn = 0;
+		turnNumber = 1;
+		phase = Phase.SETUP_SETTLEMENT;
+		longestRoad = 4;
+		longestRoadOwner = null;
+		hexagons = null;
+		winner = null;
+
+		playersYetToDiscard = new Stack<Player>();
+
+		// randomly initialize hexagons
+		hexagons = BoardUtils.initRandomHexes(this);
+		harbors = BoardUtils.initRandomHarbors(this, boardGeometry.getHarborCount());
+		vertices = BoardUtils.generateVertices(this, boardGeometry.getVertexCount());
+		edges = BoardUtils.generateEdges(this, boardGeometry.getEdgeCount());
+
+		// populate board map with starting parameters
+		boardGeometry.populateBoard(hexagons, vertices, edges, harbors, random);
+
+		// assign number tokens randomly
+		BoardUtils.assignRandomNumTokens(this, getTokenCounts());
+	}
+
+	/**
+	 * Get a costs_reference to the board's geometry
+	 *
+	 * @return the board's geometry
+	 */
+	public BoardGeometry getBoardGeometry() {
+		if (boardGeometry == null) {
+			return null;
+		}
+
+		return boardGeometry;
+	}
+
+	/**
+	 * Get the total number of players in this game
+	 *
+	 * @return the total number of players
+	 */
+	public int getNumPlayers() {
+		return numPlayers;
+	}
+
+	/**
+	 * Get a costs_reference to the current players
+	 * 
+	 * @return the current players
+	 */
+	public Player getCurrentPlayer() {
+		if (players == null)
+			return null;
+
+		return players[turn];
+	}
+
+
+	/**
+	 * Get a player by player number
+	 * 
+	 * @param playerNumber
+	 *            players playerNumber [0, 3]
+	 * @return the players
+	 */
+	public Player getPlayer(int playerNumber) {
+		if (playerNumber < 0 || playerNumber >= players.length)
+		{
+			return null;
+		}
+		return players[playerNumber];
+	}
+
+	/**
+	 * Distribute resources for a given dice roll number
+	 * 
+	 * @param diceRollNumber
+	 *            the dice roll number to execute
+	 */
+	public void executeDiceRoll(int diceRollNumber) {
+		if (diceRollNumber == 7) {
+			// reduce each players to 7 cards
+			for (int i = 0; i < numPlayers; i++) {
+				int cards = players[i].getResourceCount();
+				int extra = cards > 7 ? cards / 2 : 0;
+
+				if (extra == 0)
+					continue;
+
+				if (autoDiscard) {
+					// discard_resources randomly
+					for (int j = 0; j < extra; j++)
+						players[i].discard(null);
+				}
+				if (players[i].isBot()) {
+					// instruct the ai to discard_resources
+					AutomatedPlayer bot = (AutomatedPlayer) players[i];
+					bot.discard(extra);
+				} else if (players[i].isHuman()
+						&& !playersYetToDiscard.contains(players[i])) {
+					// queue human players to discard_resources
+					playersYetToDiscard.add(players[i]);
+				}
+			}
+
+			// enter robberphase
+			startRobberPhase();
+		} else {
+			// distribute resources
+			getProduction().distribute(players, diceRollNumber);
+		}
+
+		lastDiceRollNumber = diceRollNumber;
+	}
+
+	/**
+	 * Get the last dice roll
+	 * 
+	 * @return the last dice roll, or 0
+	 */
+	public int getLastDiceRollNumber() {
+		if (isSetupPhase() || isProgressPhase())
+		{
+			return 0;
+		}
+
+		return lastDiceRollNumber;
+	}
+
+	/**
+	 * Run the AI's robber methods
+	 * 
+	 * @param current
+	 *            current ai players
+	 */
+	private void startAIRobberPhase(AutomatedPlayer current) {
+		int hex = current.placeRobber(hexagons, prevRobberHex);
+		setRobber(hex);
+
+		int count = 0;
+		for (int i = 0; i < numPlayers; i++)
+		{
+			if (players[i] != players[turn] && hexagons[hex].adjacentToPlayer(players[i]))
+			{
+				count++;
+			}
+		}
+
+		if (count > 0) {
+			Player[] stealList = new Player[count];
+			for (int i = 0; i < numPlayers; i++)
+				if (players[i] != players[turn]
+						&& hexagons[hex].adjacentToPlayer(players[i]))
+				{
+					stealList[--count] = players[i];
+				}
+
+			int who = current.steal(stealList);
+			players[turn].steal(stealList[who]);
+		}
+
+		setPhase(returnPhase);
+	}
+
+	/**
+	 * Start a players's turn
+	 */
+	public void runTurn() {
+		// process ai turn
+		if (players[turn].isBot()) {
+			AutomatedPlayer current = (AutomatedPlayer) players[turn];
+			switch (phase) {
+
+				case SETUP_SETTLEMENT:
+					current.setupSettlement(vertices);
+					break;
+				case SETUP_CITY:
+					current.setupCity(vertices);
+					break;
+				case SETUP_FIRST_R:
+				case SETUP_SECOND_R:
+					current.setupRoad(edges);
+					break;
+
+				case PRODUCTION:
+					current.productionPhase();
+					players[turn].roll();
+					break;
+
+				case BUILD:
+					current.buildPhase();
+					break;
+
+				case PROGRESS_CARD_1:
+					current.progressRoad(edges);
+				case PROGRESS_CARD_2:
+					current.progressRoad(edges);
+					setPhase(returnPhase);
+					return;
+
+				case ROBBER:
+					startAIRobberPhase(current);
+					return;
+
+				case DONE:
+					return;
+
+				}
+
+			nextPhase();
+		}
+	}
+
+	/**
+	 * Proceed to the next phase or next turn
+	 * 
+	 * My initial reaction was to treat it as a state machine
+	 */
+	public boolean nextPhase() {
+		// a setup phase only ends once its piece is placed
+		if (isSetupPlacementPending()) {
+			return false;
+		}
+
+		boolean turnChanged = false;
+
+		switch (phase) {
+			case SETUP_SETTLEMENT:
+				setPhase(Phase.SETUP_FIRST_R);
+				break;
+			case SETUP_FIRST_R:
+				if (turn < numPlayers-1) {
+					turn++;
+					turnChanged = true;
+					setPhase(Phase.SETUP_SETTLEMENT);
+					if(players[turn].isHuman()) {
+						notifyEndTurn(gameParticipantIds.get(turn), false);
+					}
+				} else {
+					setPhase(Phase.SETUP_CITY);
+				}
+				break;
+			case SETUP_CITY:
+				setPhase(Phase.SETUP_SECOND_R);
+				break;
+			case SETUP_SECOND_R:
+				if (turn > 0) {
+					turn--;
+					turnChanged = true;
+					setPhase(Phase.SETUP_CITY);
+					if(players[turn].isHuman()) {
+						notifyEndTurn(gameParticipantIds.get(turn), false);
+					}
+				} else {
+					setPhase(Phase.PRODUCTION);
+				}
+				break;
+			case PRODUCTION:
+				setPhase(Phase.BUILD);
+				break;
+			case BUILD:
+				if (turn == numPlayers - 1)
+					turnNumber += 1;
+				players[turn].endTurn();
+				turn++;
+				turn %= numPlayers;
+				turnChanged = true;
+				setPhase(Phase.PRODUCTION);
+				players[turn].beginTurn();
+				lastDiceRollNumber = 0;
+                if(players[turn].isHuman()) {
+                    notifyEndTurn(gameParticipantIds.get(turn), false);
+                }
+				break;
+			case PROGRESS_CARD_1:
+				setPhase(Phase.PROGRESS_CARD_2);
+				break;
+			case PROGRESS_CARD_2:
+				setPhase(returnPhase);
+				break;
+			case ROBBER:
+				setPhase(returnPhase);
+				break;
+			case DONE:
+				return false;
+			}
+
+		return turnChanged;
+	}
+
+	/**
+	 * Determine if the current player has placed the piece of a setup phase
+	 *
+	 * @return true once the setup settlement, city or road of the phase is
+	 *         on the board
+	 */
+	boolean isSetupPlacementMade() {
+		Player player = players[turn];
+		switch (phase) {
+			case SETUP_SETTLEMENT:
+				return player.getNumSettlements() + player.getNumCities() > 0;
+			case SETUP_CITY:
+				return player.getNumCities() > 0;
+			case SETUP_FIRST_R:
+				return player.getNumRoads() >= 1;
+			case SETUP_SECOND_R:
+				return player.getNumRoads() >= 2;
+			default:
+				return true;
+		}
+	}
+
+	/**
+	 * Determine if the current player still has to place the piece of a
+	 * setup phase
+	 *
+	 * @return true in a setup phase until its piece is placed, unless there
+	 *         is nowhere left to place it
+	 */
+	public boolean isSetupPlacementPending() {
+		if (isSetupPlacementMade()) {
+			return false;
+		}
+
+		Player player = players[turn];
+		BuildSites sites = getBuildSites();
+		switch (phase) {
+			case SETUP_SETTLEMENT:
+			case SETUP_CITY:
+				int type = phase == Phase.SETUP_CITY ? Vertex.CITY : Vertex.SETTLEMENT;
+				for (int v = sites.nextOpen(0); v >= 0; v = sites.nextOpen(v + 1)) {
+					if (player.canBuild(vertices[v], type)) {
+						return true;
+					}
+				}
+				return false;
+			default:
+				int playerNumber = player.getPlayerNumber();
+				for (int e = sites.nextRoad(playerNumber, 0); e >= 0; e = sites.nextRoad(playerNumber, e + 1)) {
+					if (player.canBuild(edges[e])) {
+						return true;
+					}
+				}
+				return false;
+		}
+	}
+
+	/**
+	 * Enter progress phase 1 (road building)
+	 */
+	public void startProgressPhase1() {
+		returnPhase = phase;
+		setPhase(Phase.PROGRESS_CARD_1);
+		runTurn();
+	}
+
+	/**
+	 * Enter the robber placement phase
+	 */
+	public void startRobberPhase() {
+		if(this.curRobberHex != null) {
+			this.curRobberHex.removeRobber();
+		}
+		this.prevRobberHex= this.curRobberHex;
+		this.returnPhase = phase;
+		this.curRobberHex = null;
+		setPhase(Phase.ROBBER);
+		runTurn();
+	}
+
+	/**
+	 * Determine if we're in a setup phase
+	 * 
+	 * @return true if the game is in setup phase
+	 */
+	public boolean isSetupPhase() {
+		return (phase == Phase.SETUP_SETTLEMENT || phase == Phase.SETUP_FIRST_R
+				|| phase == Phase.SETUP_CITY || phase == Phase.SETUP_SECOND_R);
+	}
+
+	public boolean isSetupSettlement() {
+		return (phase == Phase.SETUP_SETTLEMENT);
+	}
+
+	public boolean isSetupCity() {
+		return (phase == Phase.SETUP_CITY);
+	}
+
+	public boolean isSetupRoad() {
+		return (phase == Phase.SETUP_FIRST_R || phase == Phase.SETUP_SECOND_R);
+	}
+
+	public boolean isSetupPhase2() {
+		return (phase == Phase.SETUP_CITY || phase == Phase.SETUP_SECOND_R);
+	}
+
+	public boolean isRobberPhase() {
+		return (phase == Phase.ROBBER);
+	}
+
+	public boolean isProduction() {
+		return (phase == Phase.PRODUCTION);
+	}
+
+	public boolean isBuild() {
+		return (phase == Phase.BUILD);
+	}
+
+	public boolean isProgressPhase() {
+		return (phase == Phase.PROGRESS_CARD_1 || phase == Phase.PROGRESS_CARD_2);
+	}
+
+	public boolean isProgressPhase1() {
+		return (phase == Phase.PROGRESS_CARD_1);
+	}
+
+	public boolean isProgressPhase2() {
+		return (phase == Phase.PROGRESS_CARD_2);
+	}
+
+	/**
+	 * Get the dice number token value for a hexagons
+	 * 
+	 * @param id
+	 *            the id of the hexagons
+	 * @return the number token value
+	 */
+	public int getNumberTokenByHexId(int id) {
+		return hexagons[id].getNumberTokenAsInt();
+	}
+
+	/**
+	 * Get the resource produced by a particular hexagon
+	 * 
+	 * @param id
+	 *            the id of the hexagon
+	 * @return the resource produced by that hexagon
+	 */
+	public Resource getResourceByHexId(int id) {
+		return hexagons[id].getResource();
+	}
+
+	/**
+	 * Get indexed hexToTerrainTypes mapping
+	 * 
+	 * @return array of terrain type ordinals
+	 * @note this is intended only to be used to stream out the board layout
+	 */
+	public int[] getHexToTerrainTypesMapping() {
+		int hexMapping[] = new int[hexagons.length];
+		for (int i = 0; i < hexagons.length; i++) {
+			hexMapping[i] = hexagons[i].getResourceType().ordinal();
+		}
+
+		return hexMapping;
+	}
+
+	/**
+	 * Get a given hexagon by id
+	 * 
+	 * @param hexId
+	 *            the id of the hexagon
+	 * @return the hexagon with hexId (or null)
+	 */
+	public Hexagon getHexagonById(int hexId) {
+		if (hexId < 0 || hexId >= boardGeometry.getHexCount())
+		{
+			return null;
+		}
+
+		return hexagons[hexId];
+	}
+
+	/**
+	 * Get the hexagon at an axial coordinate
+	 *
+	 * @param q
+	 *            the axial column
+	 * @param r
+	 *            the axial row
+	 * @return the hexagon at (q, r), or null if that is off the map
+	 */
+	public Hexagon getHexagonAt(int q, int r) {
+		if (hexIndex == null) {
+			hexIndex = createHexIndex();
+		}
+
+		int hexId = hexIndex.get(q, r);
+		return hexId < 0 ? null : hexagons[hexId];
+	}
+
+	private AxialHexIndex createHexIndex() {
+		int minQ = 0, maxQ = 0, minR = 0, maxR = 0;
+		for (Hexagon hexagon : hexagons) {
+			AxialHexLocation coord = hexagon.getCoord();
+			minQ = Math.min(minQ, coord.q);
+			maxQ = Math.max(maxQ, coord.q);
+			minR = Math.min(minR, coord.r);
+			maxR = Math.max(maxR, coord.r);
+		}
+
+		AxialHexIndex index = new AxialHexIndex(minQ, maxQ, minR, maxR);
+		for (Hexagon hexagon : hexagons) {
+			index.put(hexagon.getCoord().q, hexagon.getCoord().r, hexagon.getId());
+		}
+		return index;
+	}
+	
+	public Hexagon[] getHexagons() {
+		return hexagons;
+	}
+
+	/**
+	 * Get a given harbor by id
+	 * 
+	 * @param harborId
+	 *            the id of the harbor
+	 * @return the harbor with harborId (or null)
+	 */
+	public Harbor getHarborById(int harborId) {
+		if (harborId < 0 || harborId >= boardGeometry.getHarborCount())
+			return null;
+
+		return harbors[harborId];
+	}
+
+	/**
+	 * Get the edge with the given id
+	 * 
+	 * @param edgeId
+	 *            the id of the edge
+	 * @return the edge with edgeId (or null)
+	 */
+	public Edge getEdgeById(int edgeId) {
+		if (edgeId < 0 || edgeId >= boardGeometry.getEdgeCount())
+        {
+            return null;
+        }
+
+		return edges[edgeId];
+	}
+	
+	public Edge[] getEdges() {
+		return edges;
+	}
+
+    /**
+     * Get the vertex with the given id
+     *
+     * @param vertexId
+     *            the id of the vertex
+     * @return the vertex
+     */
+	public Vertex getVertexById(int vertexId) {
+		if (vertexId < 0 || vertexId >= boardGeometry.getVertexCount())
+        {
+            return null;
+        }
+
+		return vertices[vertexId];
+	}
+	
+	public Vertex[] getVertices() {
+		return vertices;
+	}
+
+	/**
+	 * Get the adjacency tables for the board's layout
+	 *
+	 * @return the board topology
+	 */
+	public BoardTopology getTopology() {
+		if (topology == null) {
+			topology = new BoardTopology(hexagons, vertices, edges);
+		}
+		return topology;
+	}
+
+	/**
+	 * Get a progress card
+	 *
+	 * @return the type of progress card or null if that stack is empty
+	 */
+	public ProgressCard.ProgressCardType getRandomProgressCard() {
+		//TODO: implement progress cards
+		ProgressCard.ProgressCardType card =null;
+		return card;
+	}
+
+	/**
+	 * Get the hexagons with the robberIndex
+	 *
+	 * @return the hexagons with the robberIndex
+	 */
+	public Hexagon getCurRobberHex() {
+		return curRobberHex;
+	}
+
+	/**
+	 * If the robber is being moved, return the last hexagons where it last
+	 * resided, or otherwise the current location
+	 *
+	 * @return the last location of the robber
+	 */
+	public Hexagon getPrevRobberHex() {
+		int hexCount = this.boardGeometry.getHexCount();
+		int curRobberId = this.curRobberHex != null ? this.curRobberHex.getId() : -1;
+		int prevRobberId = this.prevRobberHex != null ? this.prevRobberHex.getId() : -1;
+		if (this.phase == Phase.ROBBER && prevRobberId >= 0 && prevRobberId < hexCount)
+			return this.prevRobberHex;
+		else if (curRobberId >= 0 && curRobberId < hexCount) {
+			return this.curRobberHex;
+		}
+		else {
+			return null;
+		}
+	}
+
+	/**
+	 * Get the payouts for each dice sum, indexing the board if needed
+	 */
+	private ProductionIndex getProduction() {
+		if (production == null) {
+			production = new ProductionIndex(this);
+		}
+		return production;
+	}
+
+	/**
+	 * Get where each player may currently build, indexing the board if needed
+	 *
+	 * @return the legal build sites
+	 */
+	public BuildSites getBuildSites() {
+		if (buildSites == null) {
+			buildSites = new BuildSites(this);
+		}
+		return buildSites;
+	}
+
+	/**
+	 * Get the road distances from each player's network, planning lazily
+	 *
+	 * @return the road planner
+	 */
+	public RoadPlanner getRoadPlanner() {
+		if (roadPlanner == null) {
+			roadPlanner = new RoadPlanner(this);
+		}
+		return roadPlanner;
+	}
+
+	/**
+	 * Choose how placement rules are evaluated
+	 *
+	 * OBJECTS walks the hexagons, vertices and edges; BITBOARDS (the default)
+	 * uses BitboardRules; CHECKED uses both and throws if they disagree.
+	 *
+	 * @param ruleEngine
+	 *            the rule engine
+	 */
+	public void setRuleEngine(RuleEngine ruleEngine) {
+		this.ruleEngine = ruleEngine;
+	}
+
+	public RuleEngine getRuleEngine() {
+		return ruleEngine != null ? ruleEngine : RuleEngine.BITBOARDS;
+	}
+
+	/**
+	 * Check whether placement rules are answered by both rule engines
+	 *
+	 * @return true if the rule engine is CHECKED
+	 */
+	public boolean isCheckingRules() {
+		return ruleEngine == RuleEngine.CHECKED;
+	}
+
+	/**
+	 * Get the bitboard rules, building them if needed
+	 *
+	 * @return the bitboard rules, or null if rules use the object model only
+	 */
+	public BitboardRules getBitboardRules() {
+		if (getRuleEngine() == RuleEngine.OBJECTS) {
+			return null;
+		}
+		if (bitboardRules == null) {
+			bitboardRules = new BitboardRules(this);
+		}
+		return bitboardRules;
+	}
+
+	/**
+	 * Update the bitboards and legal build sites for an edge whose road
+	 * changed, and drop the road plans
+	 *
+	 * @param edge
+	 *            the edge
+	 */
+	public void updatePieces(Edge edge) {
+		if (bitboardRules != null) {
+			bitboardRules.update(edge);
+		}
+		if (buildSites != null) {
+			buildSites.update(edge);
+		}
+		if (roadPlanner != null) {
+			roadPlanner.invalidate();
+		}
+	}
+
+	/**
+	 * Update the bitboards and legal build sites for a vertex whose building
+	 * changed, and drop the road plans
+	 *
+	 * @param vertex
+	 *            the vertex
+	 */
+	public void updatePieces(Vertex vertex) {
+		if (bitboardRules != null) {
+			bitboardRules.update(vertex);
+		}
+		if (buildSites != null) {
+			buildSites.update(vertex);
+		}
+		if (roadPlanner != null) {
+			roadPlanner.invalidate();
+		}
+	}
+
+	/**
+	 * Update the dice payouts for a change of building
+	 *
+	 * @param vertex
+	 *            the vertex that changed
+	 * @param playerNumber
+	 *            the owner of the building
+	 * @param amount
+	 *            the change in resources the building collects per hexagon
+	 */
+	public void updateProduction(Vertex vertex, int playerNumber, int amount) {
+		if (production != null) {
+			production.addBuilding(vertex, playerNumber, amount);
+		}
+	}
+
+	/**
+	 * Update the dice payouts for the robber arriving on or leaving a hexagon
+	 *
+	 * @param hexagon
+	 *            the hexagon
+	 * @param blocked
+	 *            true if the robber arrived
+	 */
+	public void updateProduction(Hexagon hexagon, boolean blocked) {
+		if (production != null) {
+			production.setBlocked(hexagon, blocked);
+		}
+	}
+
+	/**
+	 * Set the current robber hexagon
+	 *
+	 * @param curRobberHex
+	 *            current robber hexagon
+	 * @return true iff the currebt robber hex was set
+	 */
+	public boolean setCurRobberHex(Hexagon curRobberHex) {
+		if (this.curRobberHex != null) {
+			this.curRobberHex.removeRobber();
+		}
+		this.curRobberHex = curRobberHex;
+		this.curRobberHex.setRobber();
+		return true;
+	}
+
+	/**
+	 * Set the index for the robber
+	 *
+	 * @param robberIndex
+	 *            id of the hexagon with the robber
+	 * @return true if the robber was placed
+	 */
+	public boolean setRobber(int robberIndex) {
+		getGameLog().append(turn, Player.ActionType.MOVED_ROBBER, robberIndex, -1, 0,
+				isSetupPhase(), turnNumber);
+		placeRobber(robberIndex);
+		return true;
+	}
+
+	private void placeRobber(int robberIndex) {
+		if (this.curRobberHex != null) {
+			this.curRobberHex.removeRobber();
+		}
+		this.curRobberHex = this.hexagons[robberIndex];
+		this.curRobberHex.setRobber();
+	}
+
+	/**
+	 * Check whether players are made to discard at random on a 7
+	 *
+	 * @return true if discarding is automatic
+	 */
+	public boolean isAutoDiscard() {
+		return autoDiscard;
+	}
+
+	/**
+	 * Get the number of points required to win
+	 * 
+	 * @return the number of points required to win
+	 */
+	public int getMaxPoints() {
+		return maxPoints;
+	}
+
+	/**
+	 * Recalculate every player's road length and update the longest road
+	 * owner and length
+	 */
+	public void checkLongestRoad() {
+		for (int i = 0; i < numPlayers; i++)
+		{
+			players[i].cancelRoadLength();
+			players[i].setRoadLength(LongestRoadSolver.longestRoad(this, players[i]));
+		}
+
+		awardLongestRoad();
+	}
+
+	/**
+	 * Update the longest road after a road is built
+	 *
+	 * A new road can only join or extend its owner's roads, so only the
+	 * network containing it is measured and no road length can shrink.
+	 *
+	 * @param road
+	 *            the road that was built
+	 */
+	public void checkLongestRoad(Edge road) {
+		Player owner = road.getOwnerPlayer();
+		if (owner == null)
+		{
+			return;
+		}
+
+		owner.setRoadLength(LongestRoadSolver.longestRoad(this, road));
+		awardLongestRoad();
+	}
+
+	/**
+	 * Update the longest road after a settlement is built
+	 *
+	 * A settlement can only split the roads of other players passing through
+	 * it, so only those players are measured again.
+	 *
+	 * @param vertex
+	 *            the vertex that was built on
+	 */
+	public void checkLongestRoad(Vertex vertex) {
+		Player builder = vertex.getOwner();
+		int builderNumber = builder != null ? builder.getPlayerNumber() : -1;
+
+		// each owner is solved once, however many of its roads meet here
+		int solved = 0;
+		for (int i = 0; i < 3; i++) {
+			Edge edge = vertex.getEdge(i);
+			Player owner = edge != null ? edge.getOwnerPlayer() : null;
+			if (owner == null || owner.getPlayerNumber() == builderNumber
+					|| (solved & 1 << owner.getPlayerNumber()) != 0)
+			{
+				continue;
+			}
+
+			solved |= 1 << owner.getPlayerNumber();
+			owner.cancelRoadLength();
+			owner.setRoadLength(LongestRoadSolver.longestRoad(this, owner));
+		}
+
+		awardLongestRoad();
+	}
+
+	/**
+	 * Give the longest road to the player with the longest road over 4 roads
+	 *
+	 * The current owner keeps it on a tie; otherwise a tie goes to the first
+	 * player in seat order.
+	 */
+	private void awardLongestRoad() {
+		Player previousOwner = longestRoadOwner;
+
+		longestRoad = 4;
+		longestRoadOwner = null;
+
+		for (int i = 0; i < numPlayers; i++) {
+			int length = players[i].getRoadLength();
+			if (length > longestRoad) {
+				longestRoad = length;
+				longestRoadOwner = players[i];
+			}
+		}
+
+		// the same players keeps the longest road if length doesn't change
+		if (previousOwner != null
+				&& previousOwner.getRoadLength() == longestRoad)
+		{
+			longestRoadOwner = previousOwner;
+		}
+	}
+
+	/**
+	 * Determine if players has the longest road
+	 * 
+	 * @param player
+	 *            the players
+	 * @return true if players had the longest road
+	 */
+	public boolean hasLongestRoad(Player player) {
+		return (longestRoadOwner != null && player == longestRoadOwner);
+	}
+
+	/**
+	 * Get the length of the longest road
+	 * 
+	 * @return the length of the longest road
+	 */
+	public int getLongestRoad() {
+		return longestRoad;
+	}
+
+	/**
+	 * Get the owner of the longest road
+	 * 
+	 * @return the players with the longest road
+	 */
+	public Player getLongestRoadOwner() {
+		return longestRoadOwner;
+	}
+
+	/**
+	 * Check if any players need to discard_resources
+	 * 
+	 * @return true if one or more players need to discard_resources
+	 */
+	public boolean checkPlayerToDiscard() {
+		return !playersYetToDiscard.empty();
+	}
+
+	/**
+	 * Get the next players queued for discarding
+	 * 
+	 * @return a players or null
+	 */
+	public Player getPlayerToDiscard() {
+		try {
+			return playersYetToDiscard.pop();
+		} catch (EmptyStackException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Get the current phase
+	 *
+	 * @return the current phase
+	 */
+	public Phase getPhase() {
+		return phase;
+	}
+
+	public boolean itsMyTurn(String myParticipantId){
+		String s = this.getCurrentPlayer().getGooglePlayParticipantId();
+		return (this.getCurrentPlayer().getGooglePlayParticipantId().equals(myParticipantId));
+	}
+
+	/**
+	 * Get the global turn number
+	 * 
+	 * @return the turn number (starting at 1, after setup)
+	 */
+	public int getTurnNumber() {
+		return turnNumber;
+	}
+
+	/**
+	 * Get the winner
+	 * 
+	 * @return the winning players or null
+	 */
+	public Player getWinner() {
+		// winner already found or we just want to check what was already found
+		if (winner != null)
+		{
+			return winner;
+		}
+
+		// check for winner
+		for (int i = 0; i < numPlayers; i++) {
+			if (players[i].getVictoryPoints() >= maxPoints) {
+				winner = players[i];
+				if(phase != Phase.DONE){
+					//we need to tell google the game is done
+					notifyEndTurn(winner.getGooglePlayParticipantId(), true);
+				}
+				setPhase(Phase.DONE);
+				break;
+			}
+		}
+
+		return winner;
+	}
+
+	/**
+	 * Get a 64-bit Zobrist hash of the current position
+	 *
+	 * The hash covers roads, buildings, the robber, every player's resource
+	 * counts, the phase and whose turn it is. It is maintained incrementally
+	 * as pieces change, so reading it is O(1) after the first call.
+	 *
+	 * @return the hash of the position
+	 */
+	public long getZobristHash() {
+		if (!pieceHashValid) {
+			pieceHash = computePieceHash();
+			pieceHashValid = true;
+		}
+
+		long hash = pieceHash ^ ZobristKeys.phase(phase.ordinal()) ^ ZobristKeys.turn(turn);
+		if (returnPhase != null) {
+			hash ^= ZobristKeys.returnPhase(returnPhase.ordinal());
+		}
+		return hash;
+	}
+
+	/**
+	 * Update the position hash when a piece changes
+	 *
+	 * @param key
+	 *            the Zobrist key of the feature added or removed
+	 */
+	public void toggleHashKey(long key) {
+		pieceHash ^= key;
+	}
+
+	private long computePieceHash() {
+		long hash = 0;
+		for (Edge edge : edges) {
+			if (edge.hasRoad()) {
+				hash ^= ZobristKeys.edge(edge.getId(), edge.getOwnerPlayerNumber());
+			}
+		}
+		for (Vertex vertex : vertices) {
+			if (vertex.hasBuilding()) {
+				hash ^= ZobristKeys.building(vertex.getId(),
+						vertex.getOwner().getPlayerNumber(), vertex.getBuilding());
+			}
+		}
+		for (Hexagon hexagon : hexagons) {
+			if (hexagon.hasRobber()) {
+				hash ^= ZobristKeys.robber(hexagon.getId());
+			}
+		}
+		for (Player player : players) {
+			for (int i = 0; i < Resource.RESOURCE_TYPES.length; i++) {
+				hash ^= ZobristKeys.resource(player.getPlayerNumber(), i,
+						player.getResources(Resource.RESOURCE_TYPES[i]));
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Capture the mutable state of the game so that it can be restored later,
+	 * e.g. to explore moves and roll them back
+	 *
+	 * @return a new snapshot of this board
+	 */
+	public BoardSnapshot snapshot() {
+		return snapshot(null);
+	}
+
+	/**
+	 * Capture the mutable state of the game
+	 *
+	 * @param into
+	 *            a snapshot of this board to overwrite, or null to allocate one
+	 * @return the snapshot
+	 */
+	public BoardSnapshot snapshot(BoardSnapshot into) {
+		BoardSnapshot snapshot = into;
+		if (snapshot == null) {
+			snapshot = new BoardSnapshot(this);
+		} else if (snapshot.board != this) {
+			throw new IllegalArgumentException("snapshot belongs to another board");
+		}
+
+		for (int i = 0; i < vertices.length; i++) {
+			Player owner = vertices[i].getOwner();
+			snapshot.vertexOwners[i] = owner != null ? owner.getPlayerNumber() : -1;
+			snapshot.vertexBuildings[i] = vertices[i].getBuilding();
+		}
+		for (int i = 0; i < edges.length; i++) {
+			snapshot.edgeOwners[i] = edges[i].getOwnerPlayerNumber();
+		}
+		saveState(snapshot);
+
+		return snapshot;
+	}
+
+	/**
+	 * Return the game to a previously captured state
+	 *
+	 * Moves made since the snapshot can no longer be unmade.
+	 *
+	 * @param snapshot
+	 *            a snapshot taken from this board
+	 */
+	public void restore(BoardSnapshot snapshot) {
+		if (snapshot.board != this) {
+			throw new IllegalArgumentException("snapshot belongs to another board");
+		}
+
+		apply(snapshot);
+	}
+
+	/**
+	 * Create an independent copy of the game in which every seat is a bot,
+	 * e.g. for a search to play out possible futures on
+	 *
+	 * The copy regenerates the layout from the seed this game was created
+	 * with and then takes on its current state, so it costs about as much as
+	 * a new board. It shares nothing mutable with this board and has no
+	 * event listener.
+	 *
+	 * @param botFactory
+	 *            creates the bot for every seat, or null for BalancedAI
+	 * @return the copy, or null if the layout can't be regenerated from the
+	 *         seed (e.g. a game saved by an older version)
+	 */
+	public Board copy(AutomatedPlayerFactory botFactory) {
+		String[] names = new String[numPlayers];
+		for (int i = 0; i < numPlayers; i++) {
+			names[i] = players[i].getName();
+		}
+
+		Board copy = new Board(new ArrayList<String>(gameParticipantIds), names,
+				new boolean[numPlayers], maxPoints, new BoardGeometry(boardGeometry),
+				autoDiscard, null, botFactory, new GameRandom(getRandom().getInitialSeed()));
+		if (!copy.hasLayoutOf(this)) {
+			return null;
+		}
+
+		copy.ruleEngine = ruleEngine;
+		copy.apply(snapshot());
+		return copy;
+	}
+
+	private boolean hasLayoutOf(Board other) {
+		if (hexagons.length != other.hexagons.length || harbors.length != other.harbors.length) {
+			return false;
+		}
+
+		for (int i = 0; i < hexagons.length; i++) {
+			if (hexagons[i].getTerrainType() != other.hexagons[i].getTerrainType()
+					|| hexagons[i].getNumberTokenAsInt() != other.hexagons[i].getNumberTokenAsInt()) {
+				return false;
+			}
+		}
+		for (int i = 0; i < harbors.length; i++) {
+			if (harbors[i].getResourceType() != other.harbors[i].getResourceType()
+					|| harbors[i].getEdge().getId() != other.harbors[i].getEdge().getId()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Take on a snapshot of this board or of one with the same layout
+	 */
+	private void apply(BoardSnapshot snapshot) {
+		for (int i = 0; i < vertices.length; i++) {
+			vertices[i].restoreBuilding(getPlayer(snapshot.vertexOwners[i]),
+					snapshot.vertexBuildings[i]);
+		}
+		for (int i = 0; i < edges.length; i++) {
+			edges[i].restoreOwner(snapshot.edgeOwners[i]);
+		}
+		restoreState(snapshot);
+		undoDepth = 0;
+	}
+
+	/**
+	 * Capture everything but the buildings and roads
+	 */
+	private void saveState(BoardSnapshot snapshot) {
+		for (int i = 0; i < numPlayers; i++) {
+			snapshot.players[i] = players[i].snapshot(snapshot.players[i]);
+		}
+		for (int i = 0; i < playersYetToDiscard.size(); i++) {
+			snapshot.playersYetToDiscard[i] = playersYetToDiscard.get(i).getPlayerNumber();
+		}
+		snapshot.discardCount = playersYetToDiscard.size();
+
+		snapshot.phase = phase;
+		snapshot.returnPhase = returnPhase;
+		snapshot.turn = turn;
+		snapshot.turnNumber = turnNumber;
+		snapshot.longestRoad = longestRoad;
+		snapshot.lastDiceRollNumber = lastDiceRollNumber;
+		snapshot.longestRoadOwner = longestRoadOwner != null ? longestRoadOwner.getPlayerNumber() : -1;
+		snapshot.winner = winner != null ? winner.getPlayerNumber() : -1;
+		snapshot.curRobberHex = curRobberHex != null ? curRobberHex.getId() : -1;
+		snapshot.prevRobberHex = prevRobberHex != null ? prevRobberHex.getId() : -1;
+		snapshot.random.copyFrom(getRandom());
+		snapshot.pieceHash = pieceHash;
+		snapshot.pieceHashValid = pieceHashValid;
+		snapshot.logSize = getGameLog().size();
+	}
+
+	/**
+	 * Restore everything but the buildings and roads
+	 */
+	private void restoreState(BoardSnapshot snapshot) {
+		for (int i = 0; i < numPlayers; i++) {
+			players[i].restore(snapshot.players[i]);
+		}
+		playersYetToDiscard.clear();
+		for (int i = 0; i < snapshot.discardCount; i++) {
+			playersYetToDiscard.add(players[snapshot.playersYetToDiscard[i]]);
+		}
+
+		phase = snapshot.phase;
+		returnPhase = snapshot.returnPhase;
+		turn = snapshot.turn;
+		turnNumber = snapshot.turnNumber;
+		longestRoad = snapshot.longestRoad;
+		lastDiceRollNumber = snapshot.lastDiceRollNumber;
+		longestRoadOwner = getPlayer(snapshot.longestRoadOwner);
+		winner = getPlayer(snapshot.winner);
+		if (snapshot.curRobberHex >= 0) {
+			placeRobber(snapshot.curRobberHex);
+		} else if (curRobberHex != null) {
+			// the robber is in hand while it is being moved
+			curRobberHex.removeRobber();
+			curRobberHex = null;
+		}
+		prevRobberHex = snapshot.prevRobberHex >= 0 ? hexagons[snapshot.prevRobberHex] : null;
+		getRandom().copyFrom(snapshot.random);
+		getGameLog().truncate(snapshot.logSize);
+
+		// restoring bypasses the incremental updates
+		pieceHash = snapshot.pieceHash;
+		pieceHashValid = snapshot.pieceHashValid;
+	}
+
+	/**
+	 * Make a move for the current player (or the discarding player) and
+	 * remember how to take it back
+	 *
+	 * The move goes through the same rules as the rest of the game, so bots
+	 * on the board still react to it (e.g. moving the robber after a 7).
+	 * A successful steal ends the robber phase, as it does in the game.
+	 * Moves out of their phase (e.g. a roll once the dice are rolled, a
+	 * steal before the robber is placed, a trade outside the build phase or
+	 * a discard by a player who doesn't owe one) are rejected.
+	 *
+	 * @param action
+	 *            the move to make
+	 * @return true if the move was legal and was made
+	 */
+	public boolean makeMove(GameAction action) {
+		return makeMove(action.getType(), action.getTarget(), action.getResourceType(),
+				action.getTradeArray(), action, 0);
+	}
+
+	/**
+	 * Make a move packed by MoveGenerator without allocating
+	 *
+	 * @param move
+	 *            the packed move
+	 * @return true if the move was legal and was made
+	 */
+	public boolean makeMove(int move) {
+		int[] offer = null;
+		if (MoveGenerator.getType(move) == GameAction.Type.TRADE) {
+			if (tradeOffer == null) {
+				tradeOffer = new int[Resource.RESOURCE_TYPES.length];
+			}
+			MoveGenerator.getOffer(move, tradeOffer);
+			offer = tradeOffer;
+		}
+
+		return makeMove(MoveGenerator.getType(move), MoveGenerator.getTarget(move),
+				MoveGenerator.getWant(move), offer, null, move);
+	}
+
+	private boolean makeMove(GameAction.Type moveType, int target,
+			Resource.ResourceType resourceType, int[] trade, GameAction action, int move) {
+		if (undoStack == null) {
+			undoStack = new ArrayList<UndoRecord>();
+			undoDepth = 0;
+		}
+		if (undoDepth == undoStack.size()) {
+			undoStack.add(new UndoRecord(this));
+		}
+
+		UndoRecord record = undoStack.get(undoDepth);
+		record.action = action;
+		record.move = move;
+		record.edgeId = -1;
+		record.vertexId = -1;
+		saveState(record.state);
+
+		Player current = players[turn];
+		boolean made;
+		switch (moveType) {
+			case BUILD_ROAD:
+				Edge edge = getEdgeById(target);
+				if (edge == null) {
+					made = false;
+					break;
+				}
+				record.edgeId = target;
+				record.priorOwner = edge.getOwnerPlayerNumber();
+				made = current.build(edge);
+				break;
+			case BUILD_SETTLEMENT:
+			case BUILD_CITY:
+				Vertex vertex = getVertexById(target);
+				if (vertex == null) {
+					made = false;
+					break;
+				}
+				record.vertexId = target;
+				record.priorOwner = vertex.getOwner() != null ? vertex.getOwner().getPlayerNumber() : -1;
+				record.priorBuilding = vertex.getBuilding();
+				made = current.build(vertex, moveType == GameAction.Type.BUILD_CITY
+						? Vertex.CITY : Vertex.SETTLEMENT);
+				break;
+			case MOVE_ROBBER:
+				// the robber has to be in hand, and has to move somewhere new
+				made = phase == Phase.ROBBER && curRobberHex == null
+						&& target >= 0 && target < hexagons.length
+						&& hexagons[target] != prevRobberHex && setRobber(target);
+				break;
+			case STEAL:
+				Player from = getPlayer(target);
+				made = phase == Phase.ROBBER && curRobberHex != null
+						&& from != null && from != current && from.getResourceCount() > 0
+						&& curRobberHex.adjacentToPlayer(from) && current.steal(from) != null;
+				if (made) {
+					nextPhase();
+				}
+				break;
+			case TRADE:
+				made = phase == Phase.BUILD && resourceType != null
+						&& trade.length == Resource.RESOURCE_TYPES.length
+						&& current.trade(resourceType, trade);
+				break;
+			case DISCARD:
+				// only a player still queued to discard after a 7, who then
+				// leaves the queue
+				Player discarding = getPlayer(target);
+				made = phase == Phase.ROBBER && discarding != null
+						&& playersYetToDiscard.contains(discarding)
+						&& discarding.getResourceCount() > 0
+						&& (resourceType == null || discarding.getResources(resourceType) > 0);
+				if (made) {
+					playersYetToDiscard.remove(discarding);
+					discarding.discard(resourceType);
+				}
+				break;
+			case ROLL:
+				// the dice are rolled once, at the start of the turn
+				if (phase != Phase.PRODUCTION || lastDiceRollNumber != 0) {
+					made = false;
+					break;
+				}
+				if (target == 0) {
+					current.roll();
+				} else {
+					current.roll(target);
+				}
+				made = true;
+				break;
+			case END_PHASE:
+				made = nextPhase() || phase != record.state.phase;
+				break;
+			default:
+				made = false;
+		}
+
+		if (!made) {
+			// a failed move may still have touched something (e.g. a partial trade)
+			revert(record);
+			return false;
+		}
+
+		undoDepth++;
+		return true;
+	}
+
+	/**
+	 * Take back the last move made with makeMove()
+	 *
+	 * @return the move taken back, or null if there is nothing to undo
+	 */
+	public GameAction unmakeMove() {
+		if (undoDepth == 0) {
+			return null;
+		}
+
+		UndoRecord record = undoStack.get(--undoDepth);
+		revert(record);
+		GameAction action = record.action;
+		record.action = null;
+		return action != null ? action : MoveGenerator.toAction(record.move);
+	}
+
+	/**
+	 * Get the number of moves that can be taken back
+	 *
+	 * @return the depth of the undo stack
+	 */
+	public int getUndoDepth() {
+		return undoDepth;
+	}
+
+	private void revert(UndoRecord record) {
+		if (record.edgeId >= 0) {
+			edges[record.edgeId].restoreOwner(record.priorOwner);
+		}
+		if (record.vertexId >= 0) {
+			vertices[record.vertexId].restoreBuilding(getPlayer(record.priorOwner),
+					record.priorBuilding);
+		}
+		restoreState(record.state);
+	}
+
+    public void reinitBoardOnDependents() {
+
+		for (Hexagon hexagon : hexagons) {
+			hexagon.setBoard(this);
+		}
+		for (Vertex vertex : vertices) {
+			vertex.setBoard(this);
+		}
+		for (Edge edge : edges) {
+			edge.setBoard(this);
+		}
+		for (Harbor harbor : harbors) {
+			harbor.setBoard(this);
+		}
+		for (Player player : players) {
+			player.setBoard(this);
+		}
+	}
+
+}
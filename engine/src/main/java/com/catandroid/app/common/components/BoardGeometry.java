@@ -0,0 +1,607 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Harbor;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.AxialHexLocation;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.HexGridLayout;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.HexGridShapes;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.HexGridUtils;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.HexPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static java.lang.Math.min;
+
+public class BoardGeometry {
+
+	// DEFAULT GEOMETRY CONSTANTS (regular board)
+    private static HexPoint HEX_POINT_SCALE = HexGridLayout.size_default;
+	private int BOARD_SIZE = 0, ZOOM_SCALE = 250, HEX_COUNT = 61,
+			EDGE_COUNT = 210, VERTEX_COUNT = 150, HARBOR_COUNT = 9,
+			LAND_COUNT = 24;
+
+	/* NOTE: For a perfectly-centered hexagon
+	with centered hexagonal number K, the map
+	radius is R = n + 1 where n is the positive
+	integer solution of	(3n^2 - 3n + 1) = K.
+
+	In other words, for n >= 1, the n-th centered
+	hexagonal number K has map radius n + 1.
+
+	For other shapes this is the largest distance
+	of a hexagon from the center of the map.*/
+	private int MAP_RADIUS = 4;
+
+	/* Larger maps get one standard set of land tiles
+	(and its harbors) per HEXES_PER_TILE_SET hexagons,
+	the rest is sea. Both standard sizes hold one set.*/
+	public static final int HEXES_PER_TILE_SET = 61;
+	public static final int LAND_PER_TILE_SET = 24;
+	public static final int HARBORS_PER_TILE_SET = 9;
+
+	// largest hexagonal map whose edge ids (9R^2 + 15R + 6 edges) fit in a
+	// packed move and a game log event
+	public static final int MAX_RADIUS = 1364;
+
+	// ZOOM PARAMETERS
+	private int width, height;
+	private float cx, cy, zoom;
+	private float minZoom, maxZoom, highZoom;
+
+	// GEOMETRIC OVERLAY
+	private float[] HEXAGONS_X, HEXAGONS_Y, VERTICES_X, VERTICES_Y,
+			EDGES_X, EDGES_Y;
+	private int[] HARBOR_EDGE_IDS, HARBOR_HEX_IDS;
+
+	// layouts of the standard maps (radius 3 and 4) once worked out; other
+	// radii are built for each geometry, so odd sizes aren't kept forever
+	private static final BoardTemplate[] STANDARD_TEMPLATES = new BoardTemplate[2];
+	private transient BoardTemplate template;
+
+	// hexagon id on each map position, for hit-testing
+	private transient int[] positionHexIds;
+	private static final HexGridLayout LAYOUT = new HexGridLayout(HexGridLayout.flat,
+			HexGridLayout.size_default, HexGridLayout.origin_default);
+
+	// GRAPHICAL RESOURCE SIZES
+	private static final float MAX_PAN = 2.5f;
+	public static final int HEX_PNG_SCALE = 256;
+	public static final int BUTTON_PNG_SCALE = 128;
+
+	/**
+	 * Geometry of one of the standard boards
+	 *
+	 * @param boardSize
+	 *            0 for the 37 hexagon map, 1 for the 61 hexagon map
+	 */
+	public BoardGeometry(int boardSize) {
+		this(boardSize, getTemplate(boardSize == 0 ? 3 : 4));
+	}
+
+	/**
+	 * Geometry of a map of any shape
+	 *
+	 * Boards on such a map can be played and saved as a whole, but not
+	 * compressed with GameStateCodec, which only knows the standard sizes.
+	 *
+	 * @param shape
+	 *            the axial coordinates of the hexagons (see HexGridShapes)
+	 */
+	public BoardGeometry(Collection<AxialHexLocation> shape) {
+		this(-1, new BoardTemplate(shape));
+	}
+
+	/**
+	 * Geometry of the same map as another, e.g. for a copy of its board
+	 *
+	 * @param other
+	 *            the geometry to copy
+	 */
+	public BoardGeometry(BoardGeometry other) {
+		this(other.BOARD_SIZE, other.getLayoutTemplate());
+	}
+
+	/**
+	 * Geometry of a perfectly-centered hexagonal map of any radius
+	 *
+	 * @param radius
+	 *            the map radius (3 and 4 give the standard boards), up to
+	 *            MAX_RADIUS
+	 * @return the geometry
+	 */
+	public static BoardGeometry withRadius(int radius) {
+		if (radius < 0 || radius > MAX_RADIUS) {
+			throw new IllegalArgumentException("map radius " + radius
+					+ " is outside 0.." + MAX_RADIUS);
+		}
+
+		switch (radius) {
+			case 3:
+				return new BoardGeometry(0);
+			case 4:
+				return new BoardGeometry(1);
+			default:
+				return new BoardGeometry(-1, getTemplate(radius));
+		}
+	}
+
+	private BoardGeometry(int boardSize, BoardTemplate template) {
+		cx = cy = 0;
+		width = height = 480;
+		zoom = minZoom = maxZoom = highZoom = 1;
+		this.BOARD_SIZE = boardSize;
+		this.template = template;
+		this.HEX_COUNT = template.getHexCount();
+		this.VERTEX_COUNT = template.getVertexCount();
+		this.EDGE_COUNT = template.getEdgeCount();
+		this.MAP_RADIUS = template.getExtent();
+
+		// moves and game log events can't address ids past MAX_TARGET, and
+		// edges are the most numerous pieces
+		if (EDGE_COUNT - 1 > MoveGenerator.MAX_TARGET) {
+			throw new IllegalArgumentException("map of " + HEX_COUNT
+					+ " hexagons has more pieces than moves can address");
+		}
+
+		int tileSets = (HEX_COUNT + HEXES_PER_TILE_SET - 1) / HEXES_PER_TILE_SET;
+		this.LAND_COUNT = min(HEX_COUNT, tileSets * LAND_PER_TILE_SET);
+		this.HARBOR_COUNT = (HARBORS_PER_TILE_SET * LAND_COUNT + LAND_PER_TILE_SET / 2)
+				/ LAND_PER_TILE_SET;
+
+		// 450 and 500 for the standard boards, then growing with the map
+		this.ZOOM_SCALE = MAP_RADIUS <= 4 ? 300 + 50 * MAP_RADIUS : 125 * MAP_RADIUS;
+
+		HEXAGONS_X = new float[HEX_COUNT];
+		HEXAGONS_Y = new float[HEX_COUNT];
+		VERTICES_X = new float[VERTEX_COUNT];
+		VERTICES_Y =  new float[VERTEX_COUNT];
+		EDGES_X = new float[EDGE_COUNT];
+		EDGES_Y = new float[EDGE_COUNT];
+		HARBOR_EDGE_IDS = new int[HARBOR_COUNT];
+		HARBOR_HEX_IDS = new int[HARBOR_COUNT];
+	}
+
+	public void setCurFocus(int w, int h) {
+		width = w;
+		height = h;
+
+		float aspect = (float) width / (float) height;
+		float minZoomX = 0.5f * (float) width / (5.5f * ZOOM_SCALE);
+		float minZoomY = 0.5f * (float) width / aspect / (5.1f * ZOOM_SCALE);
+
+		minZoom = min(minZoomX, minZoomY);
+		highZoom = 2 * minZoom;
+		maxZoom = 3 * minZoom;
+
+		setZoom(minZoom);
+	}
+
+	/**
+	 * Get the standard size of this board
+	 *
+	 * @return 0 or 1 for the standard boards, -1 for any other map
+	 */
+	public int getBoardSize() {
+		return BOARD_SIZE;
+	}
+
+	public int getHexCount() {
+		return HEX_COUNT;
+	}
+
+	public int getEdgeCount() {
+		return EDGE_COUNT;
+	}
+
+	public int getVertexCount() {
+		return VERTEX_COUNT;
+	}
+
+	public int getHarborCount() {
+		return HARBOR_COUNT;
+	}
+
+	/**
+	 * Get the number of hexagons that are not sea
+	 *
+	 * @return the number of land hexagons
+	 */
+	public int getLandCount() {
+		return LAND_COUNT;
+	}
+
+	public int getMapRadius() {
+		return MAP_RADIUS;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	private int getMinimalSize() {
+		return width < height ? width : height;
+	}
+
+	public int getNearestHexagon(int userX, int userY) {
+		float x = translateScreenX(userX);
+		float y = translateScreenY(userY);
+
+		// the hexagon around a point is also the one with the nearest center
+		int position = getLayoutTemplate().getPosition(locate(x, y));
+		if (position < 0) {
+			return -1;
+		}
+
+		int hexId = getPositionHexIds()[position];
+		double dx = x - HEXAGONS_X[hexId], dy = y - HEXAGONS_Y[hexId];
+		return dx * dx + dy * dy < zoom * zoom / 4 ? hexId : -1;
+	}
+
+	public int getNearestEdge(int userX, int userY) {
+		return getNearestOnHexagon(userX, userY, true);
+	}
+
+	public int getNearestVertex(int userX, int userY) {
+		return getNearestOnHexagon(userX, userY, false);
+	}
+
+	public float getHexagonX(int index) {
+		return HEXAGONS_X[index];
+	}
+
+	public float getHexagonY(int index) {
+		return HEXAGONS_Y[index];
+	}
+
+	public float getEdgeX(int index) {
+		return EDGES_X[index];
+	}
+
+	public float getEdgeY(int index) {
+		return EDGES_Y[index];
+	}
+
+	public float getVertexX(int index) {
+		return VERTICES_X[index];
+	}
+
+	public float getVertexY(int index) {
+		return VERTICES_Y[index];
+	}
+
+	public float getHarborX(int index) {
+		return HEXAGONS_X[HARBOR_HEX_IDS[index]];
+	}
+
+	public float getHarborY(int index) {
+		return HEXAGONS_Y[HARBOR_HEX_IDS[index]];
+	}
+
+	public float getHarborIconX(int index, Edge e) {
+		float edgeX = EDGES_X[HARBOR_EDGE_IDS[index]];
+		int sign = e.isBorderingSea() ? e.getDirectTowardsSea_X() : e.getOriginHexDirectXsign();
+		return edgeX + 0.28f * ((float) Math.abs(HEX_POINT_SCALE.x)) * (sign);
+	}
+
+	public float getHarborIconY(int index, Edge e) {
+		float edgeY = EDGES_Y[HARBOR_EDGE_IDS[index]];
+		int sign = e.isBorderingSea() ? e.getDirectTowardsSea_Y() : e.getOriginHexDirectYsign();
+		return edgeY + 0.28f * ((float) Math.abs(HEX_POINT_SCALE.y)) * (sign);
+	}
+
+	public float getZoom() {
+		return zoom;
+	}
+
+	public void zoomBy(float z) {
+		setZoom(zoom * z);
+	}
+
+	public void setZoom(float z) {
+		zoom = z;
+
+		if (zoom > maxZoom)
+			zoom = maxZoom;
+		else if (zoom < minZoom)
+			zoom = minZoom;
+
+		translate(0, 0);
+	}
+
+	public void zoomTo(int userX, int userY) {
+		cx = translateScreenX(userX);
+		cy = translateScreenY(userY);
+		zoom = highZoom;
+		translate(0, 0);
+	}
+
+	public void zoomOut() {
+		cx = cy = 0;
+		zoom = minZoom;
+	}
+
+	public void toggleZoom(int userX, int userY) {
+		if (zoom > (highZoom - 0.01f))
+		{
+			zoomOut();
+		}
+		else
+		{
+			zoomTo(userX, userY);
+		}
+	}
+
+	public void translate(float dx, float dy) {
+		float halfMin = (float) getMinimalSize() / 2.0f;
+
+		cx += dx / halfMin;
+		cy -= dy / halfMin;
+
+		float radius = (float) Math.sqrt(cx * cx + cy * cy);
+		// larger maps can be panned further
+		float maxPan = MAX_PAN * Math.max(1, MAP_RADIUS / 4f);
+		float maxRadius = maxPan * (zoom - minZoom) / (maxZoom - minZoom);
+
+		if (radius > maxRadius) {
+			cx *= maxRadius / radius;
+			cy *= maxRadius / radius;
+		}
+	}
+
+	public float getTranslateX() {
+		return cx;
+	}
+
+	public float getTranslateY() {
+		return cy;
+	}
+
+	private float translateScreenX(int x) {
+		float halfMin = (width < height ? width : height) / 2f;
+		return ((x - width / 2) / halfMin + cx) / zoom;
+	}
+
+	private float translateScreenY(int y) {
+		float halfMin = (width < height ? width : height) / 2f;
+		return ((height / 2 - y) / halfMin + cy) / zoom;
+	}
+
+	private int getNearestOnHexagon(int userX, int userY, boolean isEdge) {
+		float x = translateScreenX(userX);
+		float y = translateScreenY(userY);
+		float[] rx = isEdge ? EDGES_X : VERTICES_X;
+		float[] ry = isEdge ? EDGES_Y : VERTICES_Y;
+
+		// the nearest vertex or edge is one of those around the hexagon
+		// under the point; off the map, try the hexagons on its rim
+		BoardTemplate layout = getLayoutTemplate();
+		long cell = locate(x, y);
+		int position = layout.getPosition(cell);
+
+		int best = -1;
+		double dist2 = zoom * zoom / 4;
+		for (int i = -1; i < 6; i++) {
+			int candidate = position;
+			if (i >= 0) {
+				if (position >= 0) {
+					break;
+				}
+				candidate = layout.getPosition(HexGridUtils.neighbor(cell, i));
+			}
+			if (candidate < 0) {
+				continue;
+			}
+
+			for (int direct = 0; direct < 6; direct++) {
+				int id = isEdge ? layout.getEdge(candidate, direct)
+						: layout.getVertex(candidate, direct);
+				double dx = x - rx[id], dy = y - ry[id];
+				if (dx * dx + dy * dy < dist2) {
+					dist2 = dx * dx + dy * dy;
+					best = id;
+				}
+			}
+		}
+		return best;
+	}
+
+	private static long locate(float x, float y) {
+		return HexGridLayout.pixelToPackedAxial(LAYOUT, x, y);
+	}
+
+	private int[] getPositionHexIds() {
+		if (positionHexIds == null) {
+			// geometry restored from a saved game
+			BoardTemplate layout = getLayoutTemplate();
+			int[] hexIds = new int[HEX_COUNT];
+			for (int hexId = 0; hexId < HEX_COUNT; hexId++) {
+				hexIds[layout.getPosition(locate(HEXAGONS_X[hexId], HEXAGONS_Y[hexId]))] = hexId;
+			}
+			positionHexIds = hexIds;
+		}
+		return positionHexIds;
+	}
+
+	private BoardTemplate getLayoutTemplate() {
+		if (template == null) {
+			// geometry restored from a saved game
+			if (BOARD_SIZE >= 0) {
+				template = getTemplate(MAP_RADIUS);
+			} else {
+				// other maps are shaped by where their hexagons are drawn
+				ArrayList<AxialHexLocation> shape = new ArrayList<AxialHexLocation>(HEX_COUNT);
+				for (int hexId = 0; hexId < HEX_COUNT; hexId++) {
+					long cell = locate(HEXAGONS_X[hexId], HEXAGONS_Y[hexId]);
+					shape.add(new AxialHexLocation(HexGridUtils.unpackQ(cell),
+							HexGridUtils.unpackR(cell)));
+				}
+				template = new BoardTemplate(shape);
+			}
+		}
+		return template;
+	}
+
+	// BOARD POPULATION LOGIC
+
+	private static BoardTemplate getTemplate(int radius) {
+		if (radius != 3 && radius != 4) {
+			return new BoardTemplate(HexGridShapes.hexagon(radius));
+		}
+
+		synchronized (STANDARD_TEMPLATES) {
+			BoardTemplate template = STANDARD_TEMPLATES[radius - 3];
+			if (template == null) {
+				template = new BoardTemplate(HexGridShapes.hexagon(radius));
+				STANDARD_TEMPLATES[radius - 3] = template;
+			}
+			return template;
+		}
+	}
+
+	void populateBoard(Hexagon[] hexagons, Vertex[] vertices,
+					   Edge[] edges, Harbor[] harbors, GameRandom random)  {
+
+		BoardTemplate layout = getLayoutTemplate();
+
+		// shuffled array of hexagons, one for each map position
+		Hexagon[] randomHexes = Arrays.copyOf(hexagons, HEX_COUNT);
+		random.shuffle(randomHexes);
+
+		layout.layOut(randomHexes, vertices, edges);
+
+		placeHarbors(layout, edges, harbors, random);
+
+		// only the hexagons move between games
+		positionHexIds = new int[HEX_COUNT];
+		for (int position = 0; position < HEX_COUNT; position++) {
+			int hexId = randomHexes[position].getId();
+			positionHexIds[position] = hexId;
+			HEXAGONS_X[hexId] = layout.getHexX(position);
+			HEXAGONS_Y[hexId] = layout.getHexY(position);
+		}
+		System.arraycopy(layout.getVertexX(), 0, VERTICES_X, 0, VERTEX_COUNT);
+		System.arraycopy(layout.getVertexY(), 0, VERTICES_Y, 0, VERTEX_COUNT);
+		System.arraycopy(layout.getEdgeX(), 0, EDGES_X, 0, EDGE_COUNT);
+		System.arraycopy(layout.getEdgeY(), 0, EDGES_Y, 0, EDGE_COUNT);
+	}
+
+    // BOARD POPULATION HELPERS
+
+    private void placeHarbors(BoardTemplate template, Edge[] edges,
+                              Harbor[] harbors, GameRandom random) {
+
+        // edges available to neighbour harbors (in id order, so that the
+        // same seed always places the same harbors), shuffled
+        int[] randomPortEdges = new int[EDGE_COUNT];
+        int portEdgeCount = 0;
+        for (Edge edge : edges) {
+            if (edge.getPortHexId() >= 0) {
+                randomPortEdges[portEdgeCount++] = edge.getId();
+            }
+        }
+        random.shuffle(randomPortEdges, portEdgeCount);
+
+        // associate vertices with harbors
+        Harbor harbor;
+        Edge candidatePortEdge = null;
+        Hexagon candidatePortHex = null;
+        AxialHexLocation candidatePortHexLocation;
+        int candidatePosition, neighborPosition;
+        int neighborDirect, forbiddenNeighborEdgeDirect, edgeIndexOnHex;
+        boolean[] forbiddenPortEdges = new boolean[EDGE_COUNT];
+        for (int i = 0, j = 0; i < harbors.length; i++, j++) {
+            while (j < portEdgeCount) { // find a candidate port edge
+                candidatePortEdge = edges[randomPortEdges[j]];
+                if (forbiddenPortEdges[candidatePortEdge.getId()]) { // iterate until valid
+                    j++;
+                    continue;
+                }
+                candidatePortHex = candidatePortEdge.getPortHex();
+                candidatePortHexLocation = candidatePortHex.getCoord();
+                candidatePosition = template.getPosition(
+                        candidatePortHexLocation.q, candidatePortHexLocation.r);
+                if (candidatePortEdge.isBorderingSea()) { // harbor within sea hex
+                    // FORBID OVERLAP OF SEA HEX HARBORS
+                    int seaPosition = template.getNeighbor(
+                            candidatePosition, candidatePortEdge.getPortHexDirect());
+                    for (int k = 0; k < 6; k++) { // remove candidacy of other edges on sea hex
+                        int curEdgeId = template.getEdge(seaPosition, k);
+                        Edge curEdge = edges[curEdgeId];
+                        if (curEdge.getPortHexId() >= 0 && curEdge.isBorderingSea()) {
+                            forbiddenPortEdges[curEdgeId] = true;
+                        }
+                    }
+                } else { // harbor at extremes of game board
+                    if (candidatePortHex.getTerrainType() == Hexagon.TerrainType.SEA) {
+                        // don't allow harbors in the middle of the ocean
+                        forbiddenPortEdges[candidatePortEdge.getId()] = true;
+                        continue;
+                    }
+
+                    // FORBID OVERLAP OF HARBORS AT EXTREMES OF BOARD
+
+                    // add clockwise forbidden edge
+                    neighborDirect = (candidatePortEdge.getOriginHexDirect() + 1) % 6;
+                    neighborPosition = template.getNeighbor(candidatePosition, neighborDirect);
+                    if (neighborPosition >= 0) {
+                        forbiddenNeighborEdgeDirect =
+                                (AxialHexLocation.complementAxialDirection(neighborDirect) + 1) % 6;
+                        forbiddenPortEdges[template.getEdge(
+                                neighborPosition, forbiddenNeighborEdgeDirect)] = true;
+                    }
+                    // add counter-clockwise forbidden edge
+                    neighborDirect = (((((candidatePortEdge.getOriginHexDirect() - 1) % 6) + 6) % 6));
+                    neighborPosition = template.getNeighbor(candidatePosition, neighborDirect);
+                    if (neighborPosition >= 0) {
+                        forbiddenNeighborEdgeDirect =
+                                ((((AxialHexLocation.complementAxialDirection(neighborDirect) - 1)
+                                        % 6) + 6) % 6);
+                        forbiddenPortEdges[template.getEdge(
+                                neighborPosition, forbiddenNeighborEdgeDirect)] = true;
+                    }
+                    // track current edge
+                    forbiddenPortEdges[candidatePortEdge.getId()] = true;
+                }
+                break;
+            }
+            if (j >= portEdgeCount) {
+                throw new IllegalStateException("insufficient port edges for "
+                        + harbors.length + " harbors");
+            }
+            harbor = harbors[i];
+            edgeIndexOnHex = candidatePortHex.findEdgeDirect(candidatePortEdge);
+            harbor.setPosition(Harbor.vdirectToPosition(edgeIndexOnHex));
+            candidatePortEdge.setMyHarbor(harbor);
+            candidatePortEdge.getV0Clockwise().setHarbor(harbor);
+            candidatePortEdge.getV1Clockwise().setHarbor(harbor);
+            HARBOR_EDGE_IDS[i] = candidatePortEdge.getId();
+            HARBOR_HEX_IDS[i] = candidatePortEdge.getPortHexId();
+        }
+    }
+}
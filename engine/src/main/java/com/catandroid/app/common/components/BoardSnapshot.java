@@ -0,0 +1,85 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.players.PlayerSnapshot;
+
+/**
+ * The mutable state of a game, captured by Board.snapshot()
+ *
+ * Only what changes during play is kept (buildings, roads, robber, players,
+ * turn and phase, the random generator, the position hash, the length of the
+ * game log); the layout is shared with the board it was taken from, so a
+ * snapshot may only be restored onto that board.
+ * Everything is held in flat arrays sized once, so a snapshot can be reused
+ * to capture state over and over without allocating.
+ */
+public final class BoardSnapshot {
+
+	final Board board;
+
+	final int[] vertexOwners;
+	final int[] vertexBuildings;
+	final int[] edgeOwners;
+	final PlayerSnapshot[] players;
+	final int[] playersYetToDiscard;
+	int discardCount;
+
+	Board.Phase phase, returnPhase;
+	int turn, turnNumber, longestRoad, lastDiceRollNumber;
+	int longestRoadOwner, winner;
+	int curRobberHex, prevRobberHex;
+
+	final GameRandom random = new GameRandom(0);
+
+	long pieceHash;
+	boolean pieceHashValid;
+	int logSize;
+
+	BoardSnapshot(Board board) {
+		this(board, true);
+	}
+
+	/**
+	 * @param withPieces
+	 *            false to leave out the buildings and roads, for undo
+	 *            records that keep only the piece a move changed
+	 */
+	BoardSnapshot(Board board, boolean withPieces) {
+		this.board = board;
+		if (withPieces) {
+			vertexOwners = new int[board.getVertices().length];
+			vertexBuildings = new int[vertexOwners.length];
+			edgeOwners = new int[board.getEdges().length];
+		} else {
+			vertexOwners = vertexBuildings = edgeOwners = null;
+		}
+		players = new PlayerSnapshot[board.getNumPlayers()];
+		playersYetToDiscard = new int[players.length];
+	}
+
+	/**
+	 * Get the board this snapshot belongs to
+	 *
+	 * @return the board
+	 */
+	public Board getBoard() {
+		return board;
+	}
+}
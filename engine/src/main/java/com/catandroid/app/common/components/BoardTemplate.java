@@ -0,0 +1,499 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.AxialHexIndex;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.AxialHexLocation;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.HexGridLayout;
+import com.catandroid.app.common.components.utilities.hex_grid_utils.HexGridUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * The part of a board layout that only depends on its shape
+ *
+ * Hexagons are placed on the map positions in a fixed order (by q, then r),
+ * and the edges and vertices get their ids in the order the walk around
+ * those positions first meets them. Which vertices and edges surround each
+ * position, and where everything is drawn, is therefore the same for every
+ * game on a shape. It is worked out once here (on plain int arrays, with the
+ * same walk populateBoard used to do on the pieces) and shared by all games,
+ * which only deal their shuffled hexagons onto the positions.
+ *
+ * Any set of axial coordinates can be laid out, including ones with holes or
+ * several islands; the vertex and edge counts follow from the shape. Because
+ * positions are visited by q and then r, only the neighbors in directions 3,
+ * 4 and 5 have been placed when a hexagon is reached, so the walk does a
+ * fixed amount of work per hexagon.
+ *
+ * The tables are never written after construction, so a template is safe to
+ * share between threads.
+ */
+final class BoardTemplate {
+
+	private final int hexCount, extent;
+	private int vertexCount, edgeCount;
+
+	// position lookup by axial coordinate
+	private final AxialHexIndex positions;
+
+	private final AxialHexLocation[] coords;
+	private final int[] neighbors;
+	private final int[] hexVertices, hexEdges;
+
+	// sized for the most vertices and edges the hexagons could have, then
+	// trimmed once the walk has counted them
+	private int[] vertexHexes, vertexEdges;
+	private int[] edgeVertices, edgeOrigins, edgeOriginDirects, edgeNeighbors;
+
+	// side of a shared edge that populateBoard resolved last, and the
+	// directions it recorded for a harbor on either side
+	private int[] edgeResolvers, resolverDirects, neighborDirects;
+	private int[] creatorDirects;
+
+	private final float[] hexX, hexY;
+	private float[] vertexX, vertexY, edgeX, edgeY;
+
+	/**
+	 * Lay out a map
+	 *
+	 * @param shape
+	 *            the axial coordinates of the hexagons, in any order
+	 */
+	BoardTemplate(Collection<AxialHexLocation> shape) {
+		coords = shape.toArray(new AxialHexLocation[shape.size()]);
+		if (coords.length == 0) {
+			throw new IllegalArgumentException("a board needs at least one hexagon");
+		}
+		Arrays.sort(coords, new Comparator<AxialHexLocation>() {
+			@Override
+			public int compare(AxialHexLocation a, AxialHexLocation b) {
+				return a.q != b.q ? (a.q < b.q ? -1 : 1) : (a.r < b.r ? -1 : (a.r == b.r ? 0 : 1));
+			}
+		});
+
+		int minQ = coords[0].q, maxQ = coords[coords.length - 1].q;
+		int minR = coords[0].r, maxR = coords[0].r, farthest = 0;
+		for (AxialHexLocation coord : coords) {
+			minR = Math.min(minR, coord.r);
+			maxR = Math.max(maxR, coord.r);
+			farthest = Math.max(farthest, Math.max(Math.abs(coord.q),
+					Math.max(Math.abs(coord.r), Math.abs(coord.q + coord.r))));
+		}
+
+		hexCount = coords.length;
+		extent = farthest;
+		positions = new AxialHexIndex(minQ, maxQ, minR, maxR);
+		neighbors = new int[6 * hexCount];
+		hexVertices = filled(6 * hexCount);
+		hexEdges = filled(6 * hexCount);
+
+		int maxPieces = 6 * hexCount;
+		vertexHexes = filled(3 * maxPieces);
+		vertexEdges = filled(3 * maxPieces);
+		edgeVertices = filled(2 * maxPieces);
+		edgeOrigins = filled(maxPieces);
+		edgeOriginDirects = filled(maxPieces);
+		edgeNeighbors = filled(maxPieces);
+		edgeResolvers = filled(maxPieces);
+		resolverDirects = filled(maxPieces);
+		neighborDirects = filled(maxPieces);
+		creatorDirects = filled(maxPieces);
+
+		walk();
+
+		vertexHexes = Arrays.copyOf(vertexHexes, 3 * vertexCount);
+		vertexEdges = Arrays.copyOf(vertexEdges, 3 * vertexCount);
+		edgeVertices = Arrays.copyOf(edgeVertices, 2 * edgeCount);
+		edgeOrigins = Arrays.copyOf(edgeOrigins, edgeCount);
+		edgeOriginDirects = Arrays.copyOf(edgeOriginDirects, edgeCount);
+		edgeNeighbors = Arrays.copyOf(edgeNeighbors, edgeCount);
+		edgeResolvers = Arrays.copyOf(edgeResolvers, edgeCount);
+		resolverDirects = Arrays.copyOf(resolverDirects, edgeCount);
+		neighborDirects = Arrays.copyOf(neighborDirects, edgeCount);
+		creatorDirects = Arrays.copyOf(creatorDirects, edgeCount);
+
+		hexX = new float[hexCount];
+		hexY = new float[hexCount];
+		vertexX = new float[vertexCount];
+		vertexY = new float[vertexCount];
+		edgeX = new float[edgeCount];
+		edgeY = new float[edgeCount];
+		initCartesianCoordinates();
+	}
+
+	private static int[] filled(int length) {
+		int[] array = new int[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = -1;
+		}
+		return array;
+	}
+
+	int getHexCount() {
+		return hexCount;
+	}
+
+	int getVertexCount() {
+		return vertexCount;
+	}
+
+	int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Get the largest distance of a hexagon from the center of the map
+	 *
+	 * @return the distance in hexagons (the radius, for a hexagonal map)
+	 */
+	int getExtent() {
+		return extent;
+	}
+
+	/**
+	 * Get the map position at an axial coordinate
+	 *
+	 * @param q
+	 *            the axial column
+	 * @param r
+	 *            the axial row
+	 * @return the position, or -1 if the coordinate is off the map
+	 */
+	int getPosition(int q, int r) {
+		return positions.get(q, r);
+	}
+
+	/**
+	 * Get the map position at a packed axial coordinate
+	 *
+	 * @param key
+	 *            the coordinate, packed with HexGridUtils.packAxial
+	 * @return the position, or -1 if the coordinate is off the map
+	 */
+	int getPosition(long key) {
+		return positions.get(key);
+	}
+
+	/**
+	 * Get the position next to another one
+	 *
+	 * @param position
+	 *            the map position
+	 * @param direct
+	 *            the axial direction
+	 * @return the neighboring position, or -1 at the edge of the map
+	 */
+	int getNeighbor(int position, int direct) {
+		return neighbors[6 * position + direct];
+	}
+
+	/**
+	 * Get the vertex on a corner of a map position
+	 *
+	 * @param position
+	 *            the map position
+	 * @param direct
+	 *            the corner of the hexagon
+	 * @return the vertex id
+	 */
+	int getVertex(int position, int direct) {
+		return hexVertices[6 * position + direct];
+	}
+
+	/**
+	 * Get the edge on a side of a map position
+	 *
+	 * @param position
+	 *            the map position
+	 * @param direct
+	 *            the side of the hexagon
+	 * @return the edge id
+	 */
+	int getEdge(int position, int direct) {
+		return hexEdges[6 * position + direct];
+	}
+
+	float getHexX(int position) {
+		return hexX[position];
+	}
+
+	float getHexY(int position) {
+		return hexY[position];
+	}
+
+	float[] getVertexX() {
+		return vertexX;
+	}
+
+	float[] getVertexY() {
+		return vertexY;
+	}
+
+	float[] getEdgeX() {
+		return edgeX;
+	}
+
+	float[] getEdgeY() {
+		return edgeY;
+	}
+
+	/**
+	 * Connect freshly created pieces the way this layout connects them
+	 *
+	 * Edges between land and sea, and edges on the rim of the map, are
+	 * left with a port hexagon as harbor candidates; all other edges have
+	 * none.
+	 *
+	 * @param placed
+	 *            the hexagon placed on each map position
+	 * @param vertices
+	 *            the board's vertices, indexed by id
+	 * @param edges
+	 *            the board's edges, indexed by id
+	 */
+	void layOut(Hexagon[] placed, Vertex[] vertices, Edge[] edges) {
+
+		// vertex links first, so that the hexagon and edge setters below
+		// find them already present and keep this order
+		for (int v = 0; v < vertexCount; v++) {
+			Vertex vertex = vertices[v];
+			for (int i = 3 * v; i < 3 * v + 3; i++) {
+				if (vertexHexes[i] >= 0) {
+					vertex.addHexagonById(placed[vertexHexes[i]].getId());
+				}
+				if (vertexEdges[i] >= 0) {
+					vertex.addEdgeById(vertexEdges[i]);
+				}
+			}
+		}
+
+		for (int p = 0; p < hexCount; p++) {
+			Hexagon hexagon = placed[p];
+			for (int d = 0; d < 6; d++) {
+				hexagon.setVertexId(hexVertices[6 * p + d], d);
+				hexagon.setEdgeById(hexEdges[6 * p + d], d);
+			}
+			hexagon.setCoord(coords[p]);
+		}
+
+		for (int e = 0; e < edgeCount; e++) {
+			Edge edge = edges[e];
+			edge.setVerticesById(edgeVertices[2 * e], edgeVertices[2 * e + 1]);
+			edge.setOriginHexById(placed[edgeOrigins[e]].getId());
+			edge.setOriginHexDirect(edgeOriginDirects[e]);
+
+			int neighbor = edgeNeighbors[e];
+			if (neighbor < 0) {
+				// rim of the map
+				edge.setPortHexById(placed[edgeOrigins[e]].getId(), creatorDirects[e]);
+				continue;
+			}
+			edge.setNeighborHexById(placed[neighbor].getId());
+
+			int resolver = edgeResolvers[e];
+			boolean resolverIsSea = placed[resolver].getTerrainType() == Hexagon.TerrainType.SEA;
+			boolean neighborIsSea = placed[neighbor].getTerrainType() == Hexagon.TerrainType.SEA;
+			if (resolverIsSea != neighborIsSea) {
+				// coast, the harbor goes on the land side
+				if (neighborIsSea) {
+					edge.setPortHexById(placed[resolver].getId(), resolverDirects[e]);
+				} else {
+					edge.setPortHexById(placed[neighbor].getId(), neighborDirects[e]);
+				}
+				edge.setBorderingSea(true);
+			}
+		}
+	}
+
+	// LAYOUT WALK
+
+	private void walk() {
+		int edgeIndex = 0, vertexIndex = 0;
+		int clockwiseEdge = -1;
+
+		for (int position = 0; position < hexCount; position++) {
+			int q = coords[position].q, r = coords[position].r;
+			if (positions.get(q, r) >= 0) {
+				throw new IllegalArgumentException("two hexagons at (" + q + ", " + r + ")");
+			}
+			int clockwiseV0 = -1, clockwiseV1 = -1;
+
+			// iterate clockwise from top vertex around hexagon
+			for (int vDirect = 0; vDirect < 6; vDirect++) {
+				int next = (vDirect + 1) % 6, previous = (vDirect + 5) % 6;
+				boolean hadClockwiseNeighbor = false;
+
+				int neighbor = placedAt(q, r, vDirect);
+				if (neighbor >= 0) {
+					hadClockwiseNeighbor = true;
+					resolveNeighbor(position, neighbor, vDirect, next);
+				} else {
+					// new edge, candidate for a harbor on this hexagon
+					clockwiseEdge = edgeIndex++;
+					edgeOrigins[clockwiseEdge] = position;
+					creatorDirects[clockwiseEdge] = findEdgeDirect(position, clockwiseEdge);
+
+					// use current hex's next vertex if already placed
+					clockwiseV1 = hexVertices[6 * position + next];
+					if (clockwiseV1 < 0) {
+						neighbor = placedAt(q, r, next);
+						if (neighbor >= 0) {
+							int neighborEdge = resolveNeighbor(position, neighbor,
+									next, (vDirect + 2) % 6);
+							clockwiseV1 = edgeVertices[2 * neighborEdge + 1];
+							setVertex(position, clockwiseV0, next);
+						} else {
+							clockwiseV1 = vertexIndex++;
+						}
+					}
+				}
+
+				neighbor = placedAt(q, r, previous);
+				if (neighbor >= 0) {
+					int neighborEdge = resolveNeighbor(position, neighbor, previous, vDirect);
+					if (!hadClockwiseNeighbor) {
+						// reuse less-clockwise vertex of anti-clockwise neighbor
+						clockwiseV0 = edgeVertices[2 * neighborEdge];
+						setVertex(position, clockwiseV0, vDirect);
+						placeClockwiseEdge(clockwiseEdge, clockwiseV0, clockwiseV1,
+								position, vDirect);
+					}
+				} else if (!hadClockwiseNeighbor) {
+					// vertex and edge are both new in vDirect
+					clockwiseV0 = hexVertices[6 * position + vDirect];
+					if (clockwiseV0 < 0) {
+						clockwiseV0 = vertexIndex++;
+					}
+					placeClockwiseEdge(clockwiseEdge, clockwiseV0, clockwiseV1,
+							position, vDirect);
+				}
+			}
+
+			positions.put(q, r, position);
+		}
+		vertexCount = vertexIndex;
+		edgeCount = edgeIndex;
+
+		for (int p = 0; p < hexCount; p++) {
+			for (int d = 0; d < 6; d++) {
+				neighbors[6 * p + d] = placedAt(coords[p].q, coords[p].r, d);
+			}
+		}
+	}
+
+	private int placedAt(int q, int r, int direct) {
+		return getPosition(q + HexGridUtils.DIRECTION_Q[direct], r + HexGridUtils.DIRECTION_R[direct]);
+	}
+
+	private int resolveNeighbor(int position, int neighbor, int myV0index, int myV1index) {
+		int edge = hexEdges[6 * neighbor + AxialHexLocation.complementAxialDirection(myV0index)];
+		if (edge < 0) {
+			throw new IllegalStateException("neighbor at " + neighbor + " has no shared edge");
+		}
+
+		edgeNeighbors[edge] = neighbor;
+		edgeResolvers[edge] = position;
+		resolverDirects[edge] = findEdgeDirect(position, edge);
+		neighborDirects[edge] = findEdgeDirect(neighbor, edge);
+
+		// direction is reversed to that of edge creator
+		int myClockwiseV0 = edgeVertices[2 * edge + 1];
+		int myClockwiseV1 = edgeVertices[2 * edge];
+		setEdge(position, edge, myV0index);
+		setVertex(position, myClockwiseV0, myV0index);
+		setVertex(position, myClockwiseV1, myV1index);
+		return edge;
+	}
+
+	private void placeClockwiseEdge(int edge, int v0, int v1, int position, int vDirect) {
+		edgeVertices[2 * edge] = v0;
+		edgeVertices[2 * edge + 1] = v1;
+		addLink(vertexEdges, v0, edge);
+		addLink(vertexEdges, v1, edge);
+		setEdge(position, edge, vDirect);
+		setVertex(position, v0, vDirect);
+		setVertex(position, v1, (vDirect + 1) % 6);
+	}
+
+	private void setEdge(int position, int edge, int direct) {
+		edgeOriginDirects[edge] = direct;
+		hexEdges[6 * position + direct] = edge;
+	}
+
+	private void setVertex(int position, int vertex, int direct) {
+		if (vertex < 0) {
+			throw new IllegalStateException("vertex " + direct + " of " + position + " is unknown");
+		}
+		hexVertices[6 * position + direct] = vertex;
+		addLink(vertexHexes, vertex, position);
+	}
+
+	private static void addLink(int[] links, int vertex, int target) {
+		for (int i = 3 * vertex; i < 3 * vertex + 3; i++) {
+			if (links[i] == -1) {
+				links[i] = target;
+				return;
+			} else if (links[i] == target) {
+				return;
+			}
+		}
+	}
+
+	private int findEdgeDirect(int position, int edge) {
+		for (int d = 0; d < 6; d++) {
+			if (hexEdges[6 * position + d] == edge) {
+				return d;
+			}
+		}
+		return -1;
+	}
+
+	private void initCartesianCoordinates() {
+		HexGridLayout layout = new HexGridLayout(HexGridLayout.flat,
+				HexGridLayout.size_default, HexGridLayout.origin_default);
+		for (int p = 0; p < hexCount; p++) {
+			hexX[p] = (float) HexGridLayout.hexToPixelX(layout, coords[p].q, coords[p].r);
+			hexY[p] = (float) HexGridLayout.hexToPixelY(layout, coords[p].q, coords[p].r);
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			// placed relative to the first hexagon that met the vertex
+			int p = vertexHexes[3 * v];
+			int vDirect = -1;
+			for (int d = 0; d < 6; d++) {
+				if (hexVertices[6 * p + d] == v) {
+					vDirect = d;
+					break;
+				}
+			}
+			int angleDirection = -((((vDirect - 1) % 6) + 6) % 6);
+			vertexX[v] = hexX[p] + ((float) HexGridLayout.hexCornerOffsetX(layout, angleDirection));
+			vertexY[v] = hexY[p] + ((float) HexGridLayout.hexCornerOffsetY(layout, angleDirection));
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			int v0 = edgeVertices[2 * e], v1 = edgeVertices[2 * e + 1];
+			edgeX[e] = (float) ((vertexX[v0] + vertexX[v1]) / 2.0);
+			edgeY[e] = (float) ((vertexY[v0] + vertexY[v1]) / 2.0);
+		}
+	}
+}
@@ -0,0 +1,301 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+
+/**
+ * Flat, read-only adjacency tables for the hexagons, vertices and edges of
+ * a board
+ *
+ * Each relation is stored in compressed sparse row form: the ids adjacent to
+ * element i are targets[offsets[i]] up to (but excluding)
+ * targets[offsets[i + 1]]. Walking them is a plain array scan instead of a
+ * chain of id lookups through the board, e.g.
+ *
+ * <pre>
+ * for (int k = topology.vertexEdgeStart(v); k &lt; topology.vertexEdgeEnd(v); k++) {
+ *     int edge = topology.vertexEdge(k);
+ * }
+ * </pre>
+ *
+ * The tables only depend on the layout, never on the pieces, so they are
+ * built once per board and never change.
+ */
+public final class BoardTopology {
+
+	private final int hexCount, vertexCount, edgeCount;
+
+	private final int[] vertexEdgeOffsets, vertexEdges;
+	private final int[] vertexHexOffsets, vertexHexes;
+	private final int[] edgeVertices;
+	private final int[] hexVertexOffsets, hexVertices;
+	private final int[] hexEdgeOffsets, hexEdges;
+	private final int[] hexNeighborOffsets, hexNeighbors;
+
+	/**
+	 * Build the tables from a populated board
+	 *
+	 * @param hexagons
+	 *            the board's hexagons, indexed by id
+	 * @param vertices
+	 *            the board's vertices, indexed by id
+	 * @param edges
+	 *            the board's edges, indexed by id
+	 */
+	BoardTopology(Hexagon[] hexagons, Vertex[] vertices, Edge[] edges) {
+		hexCount = hexagons.length;
+		vertexCount = vertices.length;
+		edgeCount = edges.length;
+
+		int[] scratch = new int[6 * hexCount + 3 * vertexCount];
+
+		// vertex to edges and hexagons
+		vertexEdgeOffsets = new int[vertexCount + 1];
+		vertexHexOffsets = new int[vertexCount + 1];
+		int edgeLinks = 0, hexLinks = 0;
+		for (int i = 0; i < vertexCount; i++) {
+			vertexEdgeOffsets[i] = edgeLinks;
+			for (int j = 0; j < 3; j++) {
+				Edge edge = vertices[i].getEdge(j);
+				if (edge != null) {
+					scratch[edgeLinks++] = edge.getId();
+				}
+			}
+		}
+		vertexEdgeOffsets[vertexCount] = edgeLinks;
+		vertexEdges = copy(scratch, edgeLinks);
+
+		for (int i = 0; i < vertexCount; i++) {
+			vertexHexOffsets[i] = hexLinks;
+			for (int j = 0; j < 3; j++) {
+				Hexagon hexagon = vertices[i].getHexagon(j);
+				if (hexagon != null) {
+					scratch[hexLinks++] = hexagon.getId();
+				}
+			}
+		}
+		vertexHexOffsets[vertexCount] = hexLinks;
+		vertexHexes = copy(scratch, hexLinks);
+
+		// edge to its two vertices
+		edgeVertices = new int[2 * edgeCount];
+		for (int i = 0; i < edgeCount; i++) {
+			Vertex v0 = edges[i].getV0Clockwise();
+			Vertex v1 = edges[i].getV1Clockwise();
+			edgeVertices[2 * i] = v0 != null ? v0.getId() : -1;
+			edgeVertices[2 * i + 1] = v1 != null ? v1.getId() : -1;
+		}
+
+		// hexagon to vertices and edges
+		hexVertexOffsets = new int[hexCount + 1];
+		int links = 0;
+		for (int i = 0; i < hexCount; i++) {
+			hexVertexOffsets[i] = links;
+			for (int j = 0; j < 6; j++) {
+				Vertex vertex = hexagons[i].getVertex(j);
+				if (vertex != null) {
+					scratch[links++] = vertex.getId();
+				}
+			}
+		}
+		hexVertexOffsets[hexCount] = links;
+		hexVertices = copy(scratch, links);
+
+		hexEdgeOffsets = new int[hexCount + 1];
+		links = 0;
+		for (int i = 0; i < hexCount; i++) {
+			hexEdgeOffsets[i] = links;
+			for (int j = 0; j < 6; j++) {
+				Edge edge = hexagons[i].getEdge(j);
+				if (edge != null) {
+					scratch[links++] = edge.getId();
+				}
+			}
+		}
+		hexEdgeOffsets[hexCount] = links;
+		hexEdges = copy(scratch, links);
+
+		// hexagons sharing a side share two vertices
+		hexNeighborOffsets = new int[hexCount + 1];
+		int[] shared = new int[hexCount];
+		links = 0;
+		for (int i = 0; i < hexCount; i++) {
+			hexNeighborOffsets[i] = links;
+			for (int k = hexVertexOffsets[i]; k < hexVertexOffsets[i + 1]; k++) {
+				int vertex = hexVertices[k];
+				for (int m = vertexHexOffsets[vertex]; m < vertexHexOffsets[vertex + 1]; m++) {
+					int other = vertexHexes[m];
+					if (other != i && ++shared[other] == 2) {
+						scratch[links++] = other;
+					}
+				}
+			}
+			for (int k = hexVertexOffsets[i]; k < hexVertexOffsets[i + 1]; k++) {
+				int vertex = hexVertices[k];
+				for (int m = vertexHexOffsets[vertex]; m < vertexHexOffsets[vertex + 1]; m++) {
+					shared[vertexHexes[m]] = 0;
+				}
+			}
+		}
+		hexNeighborOffsets[hexCount] = links;
+		hexNeighbors = copy(scratch, links);
+	}
+
+	private static int[] copy(int[] source, int length) {
+		int[] copy = new int[length];
+		System.arraycopy(source, 0, copy, 0, length);
+		return copy;
+	}
+
+	public int getHexCount() {
+		return hexCount;
+	}
+
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Edges meeting at a vertex
+	 *
+	 * @param vertexId
+	 *            the vertex id
+	 * @return the index of the vertex's first edge
+	 */
+	public int vertexEdgeStart(int vertexId) {
+		return vertexEdgeOffsets[vertexId];
+	}
+
+	public int vertexEdgeEnd(int vertexId) {
+		return vertexEdgeOffsets[vertexId + 1];
+	}
+
+	public int vertexEdge(int index) {
+		return vertexEdges[index];
+	}
+
+	/**
+	 * Hexagons touching a vertex
+	 *
+	 * @param vertexId
+	 *            the vertex id
+	 * @return the index of the vertex's first hexagon
+	 */
+	public int vertexHexStart(int vertexId) {
+		return vertexHexOffsets[vertexId];
+	}
+
+	public int vertexHexEnd(int vertexId) {
+		return vertexHexOffsets[vertexId + 1];
+	}
+
+	public int vertexHex(int index) {
+		return vertexHexes[index];
+	}
+
+	/**
+	 * Get one end of an edge
+	 *
+	 * @param edgeId
+	 *            the edge id
+	 * @param end
+	 *            0 or 1
+	 * @return the vertex id, or -1
+	 */
+	public int edgeVertex(int edgeId, int end) {
+		return edgeVertices[2 * edgeId + end];
+	}
+
+	/**
+	 * Get the other end of an edge
+	 *
+	 * @param edgeId
+	 *            the edge id
+	 * @param vertexId
+	 *            one end of the edge
+	 * @return the vertex id at the other end
+	 */
+	public int otherVertex(int edgeId, int vertexId) {
+		int v0 = edgeVertices[2 * edgeId];
+		return v0 == vertexId ? edgeVertices[2 * edgeId + 1] : v0;
+	}
+
+	/**
+	 * Vertices around a hexagon, in clockwise order
+	 *
+	 * @param hexId
+	 *            the hexagon id
+	 * @return the index of the hexagon's first vertex
+	 */
+	public int hexVertexStart(int hexId) {
+		return hexVertexOffsets[hexId];
+	}
+
+	public int hexVertexEnd(int hexId) {
+		return hexVertexOffsets[hexId + 1];
+	}
+
+	public int hexVertex(int index) {
+		return hexVertices[index];
+	}
+
+	/**
+	 * Edges around a hexagon, in clockwise order
+	 *
+	 * @param hexId
+	 *            the hexagon id
+	 * @return the index of the hexagon's first edge
+	 */
+	public int hexEdgeStart(int hexId) {
+		return hexEdgeOffsets[hexId];
+	}
+
+	public int hexEdgeEnd(int hexId) {
+		return hexEdgeOffsets[hexId + 1];
+	}
+
+	public int hexEdge(int index) {
+		return hexEdges[index];
+	}
+
+	/**
+	 * Hexagons sharing a side with a hexagon
+	 *
+	 * @param hexId
+	 *            the hexagon id
+	 * @return the index of the hexagon's first neighbor
+	 */
+	public int hexNeighborStart(int hexId) {
+		return hexNeighborOffsets[hexId];
+	}
+
+	public int hexNeighborEnd(int hexId) {
+		return hexNeighborOffsets[hexId + 1];
+	}
+
+	public int hexNeighbor(int index) {
+		return hexNeighbors[index];
+	}
+}
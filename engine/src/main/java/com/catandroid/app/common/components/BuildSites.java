@@ -0,0 +1,204 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+import java.util.BitSet;
+
+/**
+ * Where each player may currently build, kept as bitsets over vertex and
+ * edge ids
+ *
+ * Whether a piece may go somewhere only depends on the pieces right next to
+ * it, so when a road or building changes, only the sites around it are
+ * checked again (with the usual Edge.canBuild and Vertex.canBuild rules).
+ * Asking whether a site is legal is then a bit test, and listing the legal
+ * sites is a walk over the set bits.
+ *
+ * Limits on piece counts, costs and the setup phase restrictions are left
+ * to the player.
+ */
+public final class BuildSites {
+
+	private final Board board;
+	private final BoardTopology topology;
+	private final Edge[] edges;
+	private final Vertex[] vertices;
+
+	private final BitSet open;
+	private final BitSet[] settlements, cities, roads;
+
+	/**
+	 * Check every site of a board
+	 *
+	 * @param board
+	 *            the board to index
+	 */
+	BuildSites(Board board) {
+		this.board = board;
+		this.topology = board.getTopology();
+		this.edges = board.getEdges();
+		this.vertices = board.getVertices();
+
+		int numPlayers = board.getNumPlayers();
+		open = new BitSet(vertices.length);
+		settlements = new BitSet[numPlayers];
+		cities = new BitSet[numPlayers];
+		roads = new BitSet[numPlayers];
+		for (int i = 0; i < numPlayers; i++) {
+			settlements[i] = new BitSet(vertices.length);
+			cities[i] = new BitSet(vertices.length);
+			roads[i] = new BitSet(edges.length);
+		}
+
+		for (int i = 0; i < vertices.length; i++) {
+			checkVertex(i);
+		}
+		for (int i = 0; i < edges.length; i++) {
+			checkEdge(i);
+		}
+	}
+
+	/**
+	 * Check the sites around an edge whose road changed
+	 *
+	 * @param edge
+	 *            the edge
+	 */
+	void update(Edge edge) {
+		int id = edge.getId();
+		checkEdge(id);
+		for (int end = 0; end < 2; end++) {
+			int vertex = topology.edgeVertex(id, end);
+			checkVertex(vertex);
+			for (int k = topology.vertexEdgeStart(vertex); k < topology.vertexEdgeEnd(vertex); k++) {
+				checkEdge(topology.vertexEdge(k));
+			}
+		}
+	}
+
+	/**
+	 * Check the sites around a vertex whose building changed
+	 *
+	 * @param vertex
+	 *            the vertex
+	 */
+	void update(Vertex vertex) {
+		int id = vertex.getId();
+		checkVertex(id);
+		for (int k = topology.vertexEdgeStart(id); k < topology.vertexEdgeEnd(id); k++) {
+			int edge = topology.vertexEdge(k);
+			checkEdge(edge);
+			checkVertex(topology.otherVertex(edge, id));
+		}
+	}
+
+	private void checkVertex(int id) {
+		Vertex vertex = vertices[id];
+		open.set(id, vertex.canBuild(null, Vertex.SETTLEMENT, true));
+		for (int i = 0; i < settlements.length; i++) {
+			Player player = board.getPlayer(i);
+			settlements[i].set(id, vertex.canBuild(player, Vertex.SETTLEMENT, false));
+			cities[i].set(id, vertex.canBuild(player, Vertex.CITY, false));
+		}
+	}
+
+	private void checkEdge(int id) {
+		Edge edge = edges[id];
+		for (int i = 0; i < roads.length; i++) {
+			roads[i].set(id, edge.canBuild(board.getPlayer(i)));
+		}
+	}
+
+	/**
+	 * Check if a settlement may be placed on a vertex during setup
+	 *
+	 * @param vertexId
+	 *            the vertex id
+	 * @return true if the vertex and its neighbors are empty and it touches
+	 *         land
+	 */
+	public boolean isOpen(int vertexId) {
+		return open.get(vertexId);
+	}
+
+	public boolean canBuildSettlement(int playerNumber, int vertexId) {
+		return settlements[playerNumber].get(vertexId);
+	}
+
+	public boolean canBuildCity(int playerNumber, int vertexId) {
+		return cities[playerNumber].get(vertexId);
+	}
+
+	public boolean canBuildRoad(int playerNumber, int edgeId) {
+		return roads[playerNumber].get(edgeId);
+	}
+
+	/**
+	 * Find the next vertex open for a setup settlement
+	 *
+	 * @param fromVertexId
+	 *            the vertex id to start looking from (inclusive)
+	 * @return the vertex id, or -1 if there is none
+	 */
+	public int nextOpen(int fromVertexId) {
+		return open.nextSetBit(fromVertexId);
+	}
+
+	/**
+	 * Find the next vertex where a player may build a settlement
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param fromVertexId
+	 *            the vertex id to start looking from (inclusive)
+	 * @return the vertex id, or -1 if there is none
+	 */
+	public int nextSettlement(int playerNumber, int fromVertexId) {
+		return settlements[playerNumber].nextSetBit(fromVertexId);
+	}
+
+	/**
+	 * Find the next settlement a player may upgrade to a city
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param fromVertexId
+	 *            the vertex id to start looking from (inclusive)
+	 * @return the vertex id, or -1 if there is none
+	 */
+	public int nextCity(int playerNumber, int fromVertexId) {
+		return cities[playerNumber].nextSetBit(fromVertexId);
+	}
+
+	/**
+	 * Find the next edge where a player may build a road
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param fromEdgeId
+	 *            the edge id to start looking from (inclusive)
+	 * @return the edge id, or -1 if there is none
+	 */
+	public int nextRoad(int playerNumber, int fromEdgeId) {
+		return roads[playerNumber].nextSetBit(fromEdgeId);
+	}
+}
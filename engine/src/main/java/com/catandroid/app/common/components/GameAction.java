@@ -0,0 +1,184 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+
+import java.util.Arrays;
+
+/**
+ * A single move that can be made on a board with Board.makeMove() and taken
+ * back with Board.unmakeMove()
+ *
+ * Moves are made by the current player, except for discards which name the
+ * player discarding.
+ */
+public final class GameAction {
+
+	public enum Type {
+		BUILD_ROAD, BUILD_SETTLEMENT, BUILD_CITY, MOVE_ROBBER, STEAL, TRADE,
+		DISCARD, ROLL, END_PHASE
+	}
+
+	private final Type type;
+	private final int target;
+	private final Resource.ResourceType resourceType;
+	private final int[] trade;
+
+	private GameAction(Type type, int target, Resource.ResourceType resourceType, int[] trade) {
+		this.type = type;
+		this.target = target;
+		this.resourceType = resourceType;
+		this.trade = trade;
+	}
+
+	/**
+	 * Build a road
+	 *
+	 * @param edgeId
+	 *            the edge to build on
+	 */
+	public static GameAction buildRoad(int edgeId) {
+		return new GameAction(Type.BUILD_ROAD, edgeId, null, null);
+	}
+
+	/**
+	 * Build a settlement
+	 *
+	 * @param vertexId
+	 *            the vertex to build on
+	 */
+	public static GameAction buildSettlement(int vertexId) {
+		return new GameAction(Type.BUILD_SETTLEMENT, vertexId, null, null);
+	}
+
+	/**
+	 * Build a city, or upgrade a settlement to a city
+	 *
+	 * @param vertexId
+	 *            the vertex to build on
+	 */
+	public static GameAction buildCity(int vertexId) {
+		return new GameAction(Type.BUILD_CITY, vertexId, null, null);
+	}
+
+	/**
+	 * Move the robber
+	 *
+	 * @param hexId
+	 *            the hexagon to move the robber to
+	 */
+	public static GameAction moveRobber(int hexId) {
+		return new GameAction(Type.MOVE_ROBBER, hexId, null, null);
+	}
+
+	/**
+	 * Steal a random resource from another player
+	 *
+	 * @param playerNumber
+	 *            the player to steal from
+	 */
+	public static GameAction steal(int playerNumber) {
+		return new GameAction(Type.STEAL, playerNumber, null, null);
+	}
+
+	/**
+	 * Trade with the bank or a harbor
+	 *
+	 * @param want
+	 *            the resource to trade for
+	 * @param offer
+	 *            the number of each resource offered
+	 */
+	public static GameAction trade(Resource.ResourceType want, int[] offer) {
+		return new GameAction(Type.TRADE, -1, want, Arrays.copyOf(offer, offer.length));
+	}
+
+	/**
+	 * Discard one resource
+	 *
+	 * @param playerNumber
+	 *            the player discarding
+	 * @param resourceType
+	 *            the resource to discard, or null for a random one
+	 */
+	public static GameAction discard(int playerNumber, Resource.ResourceType resourceType) {
+		return new GameAction(Type.DISCARD, playerNumber, resourceType, null);
+	}
+
+	/**
+	 * Roll the dice
+	 *
+	 * @param roll
+	 *            the dice total, or 0 to roll at random
+	 */
+	public static GameAction roll(int roll) {
+		return new GameAction(Type.ROLL, roll, null, null);
+	}
+
+	/**
+	 * Proceed to the next phase or the next turn
+	 */
+	public static GameAction endPhase() {
+		return new GameAction(Type.END_PHASE, -1, null, null);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Get the edge, vertex, hexagon, player or dice total the action applies to
+	 *
+	 * @return the target of the action, or -1
+	 */
+	public int getTarget() {
+		return target;
+	}
+
+	public Resource.ResourceType getResourceType() {
+		return resourceType;
+	}
+
+	/**
+	 * Get the resources offered in a trade
+	 *
+	 * @return a copy of the offer, or null
+	 */
+	public int[] getTrade() {
+		return trade == null ? null : Arrays.copyOf(trade, trade.length);
+	}
+
+	int[] getTradeArray() {
+		return trade;
+	}
+
+	@Override
+	public String toString() {
+		switch (type) {
+			case TRADE:
+				return type + " " + Arrays.toString(trade) + " for " + resourceType;
+			case DISCARD:
+				return type + " " + target + " " + resourceType;
+			case END_PHASE:
+				return type.toString();
+			default:
+				return type + " " + target;
+		}
+	}
+}
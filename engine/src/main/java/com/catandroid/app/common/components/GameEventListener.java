@@ -0,0 +1,52 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.players.Player;
+
+/**
+ * Receives notifications from the rules engine
+ *
+ * The engine never talks to the user interface directly; a front end (the
+ * Android app, a simulation harness, a server) installs one of these on the
+ * board to react to turn changes and to render the turn log.
+ */
+public interface GameEventListener {
+
+	/**
+	 * Hand control of the game over to another participant
+	 *
+	 * @param nextParticipantId
+	 *            the participant to play next, or the winner
+	 * @param isWinner
+	 *            true if the game is over and nextParticipantId has won
+	 */
+	void endTurn(String nextParticipantId, boolean isWinner);
+
+	/**
+	 * Describe a player action for the turn log
+	 *
+	 * @param action
+	 *            the action taken
+	 * @param argument
+	 *            supplementary detail (a dice roll, a player name or a
+	 *            resource type), or null
+	 * @return the text to log, or null to leave the action out of the log
+	 */
+	String describeAction(Player.ActionType action, Object argument);
+}
@@ -0,0 +1,147 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.players.Player;
+
+import java.util.Arrays;
+
+/**
+ * Append-only record of everything that happens in a game
+ *
+ * Each event is packed into one long: who acted, the action type, a target
+ * (an edge, vertex or hexagon id, a dice roll, another player or a phase),
+ * a resource type and a count, plus the turn number and whether the game was
+ * still in setup. Appending is O(1) and allocation free; events are only
+ * turned into text when a turn log is displayed (see Player.getActionLog()).
+ *
+ * Together with the seed of the board's layout, the log holds every move and
+ * every random outcome, so a game can be replayed with Board.replay().
+ */
+public final class GameLog {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final Player.ActionType[] ACTION_TYPES = Player.ActionType.values();
+
+	private long[] events;
+	private int size;
+
+	public GameLog() {
+		events = new long[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Record an event
+	 *
+	 * @param playerNumber
+	 *            the player who acted
+	 * @param type
+	 *            the action type
+	 * @param target
+	 *            the id, roll, player or phase acted on, or -1 (ids up to
+	 *            MoveGenerator.MAX_TARGET fit)
+	 * @param resourceType
+	 *            the resource ordinal involved, or -1
+	 * @param count
+	 *            the number of resources involved
+	 * @param setup
+	 *            true if the game is in its setup phase
+	 * @param turnNumber
+	 *            the global turn number
+	 */
+	public void append(int playerNumber, Player.ActionType type, int target,
+			int resourceType, int count, boolean setup, int turnNumber) {
+		if (size == events.length) {
+			events = Arrays.copyOf(events, 2 * size);
+		}
+
+		events[size++] = ((target + 1) & 0xFFFFFFL)
+				| (((resourceType + 1) & 0xFL) << 24)
+				| ((count & 0xFFL) << 28)
+				| ((type.ordinal() & 0x3FL) << 36)
+				| ((playerNumber & 0x3FL) << 42)
+				| (setup ? 1L << 48 : 0L)
+				| ((turnNumber & 0x7FFFL) << 49);
+	}
+
+	/**
+	 * Get the number of events recorded
+	 *
+	 * @return the number of events
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get a packed event
+	 *
+	 * @param index
+	 *            the index of the event
+	 * @return the event, to be read with the static accessors
+	 */
+	public long get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("event " + index + " of " + size);
+		}
+		return events[index];
+	}
+
+	/**
+	 * Drop the events recorded after a given point, e.g. when a move is
+	 * taken back
+	 *
+	 * @param size
+	 *            the number of events to keep
+	 */
+	public void truncate(int size) {
+		if (size < this.size) {
+			this.size = Math.max(size, 0);
+		}
+	}
+
+	public static int getTarget(long event) {
+		return (int) (event & 0xFFFFFF) - 1;
+	}
+
+	public static int getResourceType(long event) {
+		return (int) ((event >>> 24) & 0xF) - 1;
+	}
+
+	public static int getCount(long event) {
+		return (int) ((event >>> 28) & 0xFF);
+	}
+
+	public static Player.ActionType getType(long event) {
+		return ACTION_TYPES[(int) ((event >>> 36) & 0x3F)];
+	}
+
+	public static int getPlayerNumber(long event) {
+		return (int) ((event >>> 42) & 0x3F);
+	}
+
+	public static boolean isSetup(long event) {
+		return (event & (1L << 48)) != 0;
+	}
+
+	public static int getTurnNumber(long event) {
+		return (int) (event >>> 49);
+	}
+}
@@ -0,0 +1,341 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Harbor;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.players.AutomatedPlayerFactory;
+import com.catandroid.app.common.players.PlayerSnapshot;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of a complete game
+ *
+ * The encoding starts with a layout header: board size, players, the seed the
+ * layout was generated from, then one byte per hexagon (terrain and number
+ * token) and three per harbor. The game state follows: the random generator,
+ * turn and phase, one bit plane of edges per player, one bit plane of
+ * vertices per player plus one marking cities, and the players' hands and
+ * piece lists. A standard board in mid game takes a few hundred bytes.
+ *
+ * Player names, participant ids and the game log are not part of the
+ * encoding; restoring a decoded state starts the game log afresh.
+ */
+public final class GameStateCodec {
+
+	public static final int VERSION = 2;
+
+	private GameStateCodec() {
+	}
+
+	/**
+	 * Encode the current state of a game
+	 *
+	 * @param board
+	 *            the game to encode
+	 * @return the encoding
+	 */
+	public static byte[] encode(Board board) {
+		return encode(board.snapshot());
+	}
+
+	/**
+	 * Encode a captured game state
+	 *
+	 * @param snapshot
+	 *            the state to encode
+	 * @return the encoding
+	 */
+	public static byte[] encode(BoardSnapshot snapshot) {
+		Board board = snapshot.board;
+		if (board.getBoardGeometry().getBoardSize() < 0) {
+			// only the standard layouts can be regenerated from a seed
+			throw new IllegalArgumentException("custom maps can't be encoded");
+		}
+
+		int numPlayers = snapshot.players.length;
+		int vertexWords = words(snapshot.vertexOwners.length);
+		int edgeWords = words(snapshot.edgeOwners.length);
+
+		int size = layoutSize(board) + 16 + 13 + snapshot.discardCount
+				+ 8 * (numPlayers * edgeWords + (numPlayers + 1) * vertexWords);
+		for (int i = 0; i < numPlayers; i++) {
+			size += snapshot.players[i].getMaxEncodedSize();
+		}
+
+		ByteBuffer out = ByteBuffer.allocate(size);
+		encodeLayout(board, out);
+
+		snapshot.random.encode(out);
+		out.put((byte) snapshot.phase.ordinal());
+		out.put((byte) (snapshot.returnPhase == null ? 0 : snapshot.returnPhase.ordinal() + 1));
+		out.put((byte) snapshot.turn);
+		out.putShort((short) snapshot.turnNumber);
+		out.put((byte) snapshot.longestRoad);
+		out.put((byte) snapshot.lastDiceRollNumber);
+		out.put((byte) (snapshot.longestRoadOwner + 1));
+		out.put((byte) (snapshot.winner + 1));
+		out.putShort((short) (snapshot.curRobberHex + 1));
+		out.putShort((short) (snapshot.prevRobberHex + 1));
+		out.put((byte) snapshot.discardCount);
+		for (int i = 0; i < snapshot.discardCount; i++) {
+			out.put((byte) snapshot.playersYetToDiscard[i]);
+		}
+
+		// roads: one plane per player
+		long[] plane = new long[Math.max(edgeWords, vertexWords)];
+		for (int p = 0; p < numPlayers; p++) {
+			Arrays.fill(plane, 0L);
+			for (int e = 0; e < snapshot.edgeOwners.length; e++) {
+				if (snapshot.edgeOwners[e] == p) {
+					plane[e >>> 6] |= 1L << e;
+				}
+			}
+			putPlane(out, plane, edgeWords);
+		}
+
+		// buildings: one plane per player, then one for cities
+		for (int p = 0; p <= numPlayers; p++) {
+			Arrays.fill(plane, 0L);
+			for (int v = 0; v < snapshot.vertexOwners.length; v++) {
+				boolean set = p < numPlayers
+						? snapshot.vertexOwners[v] == p && snapshot.vertexBuildings[v] != Vertex.NONE
+						: snapshot.vertexBuildings[v] == Vertex.CITY;
+				if (set) {
+					plane[v >>> 6] |= 1L << v;
+				}
+			}
+			putPlane(out, plane, vertexWords);
+		}
+
+		for (int i = 0; i < numPlayers; i++) {
+			snapshot.players[i].encode(out);
+		}
+
+		return Arrays.copyOf(out.array(), out.position());
+	}
+
+	/**
+	 * Decode a game state for a board with the same layout
+	 *
+	 * @param board
+	 *            the board the state belongs to
+	 * @param data
+	 *            the encoding
+	 * @return a snapshot that can be passed to board.restore()
+	 * @throws IllegalArgumentException
+	 *             if the encoding is malformed or is for another layout
+	 */
+	public static BoardSnapshot decode(Board board, byte[] data) {
+		ByteBuffer in = ByteBuffer.wrap(data);
+		ByteBuffer expected = ByteBuffer.allocate(layoutSize(board));
+		encodeLayout(board, expected);
+		if (data.length < expected.capacity()
+				|| !ByteBuffer.wrap(data, 0, expected.capacity()).equals(
+						(ByteBuffer) expected.flip())) {
+			throw new IllegalArgumentException("encoded game has a different layout");
+		}
+		in.position(expected.limit());
+
+		try {
+			return decodeState(board, in);
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("encoded game is truncated", e);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("encoded game is malformed", e);
+		}
+	}
+
+	/**
+	 * Recreate a game from its encoding
+	 *
+	 * The layout is regenerated from the encoded seed and checked against
+	 * the encoded hexagons and harbors.
+	 *
+	 * @param data
+	 *            the encoding
+	 * @param gameParticipantIds
+	 *            the participant id for each seat
+	 * @param names
+	 *            the name for each seat
+	 * @param gameEventListener
+	 *            receiver of turn changes and action descriptions, or null
+	 * @param botFactory
+	 *            creates the non-human players, or null for BalancedAI
+	 * @return the recreated game
+	 * @throws IllegalArgumentException
+	 *             if the encoding is malformed or its layout can't be
+	 *             regenerated
+	 */
+	public static Board decodeBoard(byte[] data, ArrayList<String> gameParticipantIds,
+			String[] names, GameEventListener gameEventListener,
+			AutomatedPlayerFactory botFactory) {
+		ByteBuffer in = ByteBuffer.wrap(data);
+		boolean[] human;
+		int boardSize, maxPoints;
+		boolean autoDiscard;
+		long seed;
+		try {
+			if (in.get() != VERSION) {
+				throw new IllegalArgumentException("unsupported encoding version");
+			}
+			boardSize = in.get();
+			int numPlayers = in.get();
+			maxPoints = in.get();
+			int flags = in.get() & 0xFF;
+			autoDiscard = (flags & 1) != 0;
+			human = new boolean[numPlayers];
+			for (int i = 0; i < numPlayers; i++) {
+				human[i] = (flags & (2 << i)) != 0;
+			}
+			seed = in.getLong();
+		} catch (BufferUnderflowException e) {
+			throw new IllegalArgumentException("encoded game is truncated", e);
+		}
+
+		if (gameParticipantIds.size() != human.length || names.length != human.length) {
+			throw new IllegalArgumentException("encoded game has " + human.length + " players");
+		}
+
+		Board board = new Board(gameParticipantIds, names, human, maxPoints,
+				new BoardGeometry(boardSize), autoDiscard, gameEventListener, botFactory,
+				new GameRandom(seed));
+		board.restore(decode(board, data));
+		return board;
+	}
+
+	private static BoardSnapshot decodeState(Board board, ByteBuffer in) {
+		BoardSnapshot snapshot = new BoardSnapshot(board);
+		int numPlayers = snapshot.players.length;
+		int vertexWords = words(snapshot.vertexOwners.length);
+		int edgeWords = words(snapshot.edgeOwners.length);
+		Board.Phase[] phases = Board.Phase.values();
+
+		snapshot.random.copyFrom(board.getRandom());
+		snapshot.random.decode(in);
+		snapshot.phase = phases[in.get()];
+		int returnPhase = in.get();
+		snapshot.returnPhase = returnPhase == 0 ? null : phases[returnPhase - 1];
+		snapshot.turn = in.get();
+		snapshot.turnNumber = in.getShort();
+		snapshot.longestRoad = in.get();
+		snapshot.lastDiceRollNumber = in.get();
+		snapshot.longestRoadOwner = in.get() - 1;
+		snapshot.winner = in.get() - 1;
+		snapshot.curRobberHex = in.getShort() - 1;
+		snapshot.prevRobberHex = in.getShort() - 1;
+		snapshot.discardCount = in.get();
+		for (int i = 0; i < snapshot.discardCount; i++) {
+			snapshot.playersYetToDiscard[i] = in.get();
+		}
+
+		long[] plane = new long[Math.max(edgeWords, vertexWords)];
+		Arrays.fill(snapshot.edgeOwners, -1);
+		for (int p = 0; p < numPlayers; p++) {
+			getPlane(in, plane, edgeWords);
+			for (int e = 0; e < snapshot.edgeOwners.length; e++) {
+				if ((plane[e >>> 6] & (1L << e)) != 0) {
+					snapshot.edgeOwners[e] = p;
+				}
+			}
+		}
+
+		Arrays.fill(snapshot.vertexOwners, -1);
+		Arrays.fill(snapshot.vertexBuildings, Vertex.NONE);
+		for (int p = 0; p < numPlayers; p++) {
+			getPlane(in, plane, vertexWords);
+			for (int v = 0; v < snapshot.vertexOwners.length; v++) {
+				if ((plane[v >>> 6] & (1L << v)) != 0) {
+					snapshot.vertexOwners[v] = p;
+					snapshot.vertexBuildings[v] = Vertex.SETTLEMENT;
+				}
+			}
+		}
+		getPlane(in, plane, vertexWords);
+		for (int v = 0; v < snapshot.vertexOwners.length; v++) {
+			if ((plane[v >>> 6] & (1L << v)) != 0) {
+				snapshot.vertexBuildings[v] = Vertex.CITY;
+			}
+		}
+
+		for (int i = 0; i < numPlayers; i++) {
+			snapshot.players[i] = new PlayerSnapshot();
+			snapshot.players[i].decode(in, Resource.RESOURCE_TYPES.length,
+					Resource.ResourceType.values().length);
+		}
+
+		return snapshot;
+	}
+
+	private static int layoutSize(Board board) {
+		BoardGeometry geometry = board.getBoardGeometry();
+		return 13 + geometry.getHexCount() + 3 * geometry.getHarborCount();
+	}
+
+	private static void encodeLayout(Board board, ByteBuffer out) {
+		int numPlayers = board.getNumPlayers();
+		int flags = board.isAutoDiscard() ? 1 : 0;
+		for (int i = 0; i < numPlayers; i++) {
+			if (board.getPlayer(i).isHuman()) {
+				flags |= 2 << i;
+			}
+		}
+
+		out.put((byte) VERSION);
+		out.put((byte) board.getBoardGeometry().getBoardSize());
+		out.put((byte) numPlayers);
+		out.put((byte) board.getMaxPoints());
+		out.put((byte) flags);
+		out.putLong(board.getRandom().getInitialSeed());
+
+		for (Hexagon hexagon : board.getHexagons()) {
+			out.put((byte) (hexagon.getTerrainType().ordinal() << 4
+					| hexagon.getNumberTokenAsInt()));
+		}
+		for (int i = 0; i < board.getBoardGeometry().getHarborCount(); i++) {
+			Harbor harbor = board.getHarborById(i);
+			Edge edge = harbor.getEdge();
+			out.put((byte) harbor.getResourceType().ordinal());
+			out.putShort((short) (edge != null ? edge.getId() : -1));
+		}
+	}
+
+	private static int words(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	private static void putPlane(ByteBuffer out, long[] plane, int words) {
+		for (int i = 0; i < words; i++) {
+			out.putLong(plane[i]);
+		}
+	}
+
+	private static void getPlane(ByteBuffer in, long[] plane, int words) {
+		for (int i = 0; i < words; i++) {
+			plane[i] = in.getLong();
+		}
+	}
+}
@@ -0,0 +1,316 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+/**
+ * Lists every legal move for the current phase of a board
+ *
+ * Moves are packed into ints so that a MoveList can be refilled over and
+ * over without allocating. Each move can be made directly with
+ * Board.makeMove(int), read with the accessors below, or turned into a
+ * GameAction with toAction().
+ *
+ * <pre>
+ * bits  0-3   GameAction.Type
+ * bits  4-7   resource wanted (trade or discard) + 1
+ * trades:
+ * bits  8-11  resource given + 1
+ * bits 12-15  number given
+ * other moves:
+ * bits  8-31  target + 1 (edge, vertex, hexagon, player or roll)
+ * </pre>
+ *
+ * The moves are the ones the game itself offers: one placement per setup
+ * phase (ending the phase once it is made), rolling the dice, building what
+ * the player can afford, 4:1, 3:1 and 2:1 trades with the bank, moving the
+ * robber to a new hexagon and stealing from a player next to it. Discards
+ * are not listed; they are requested from each player when a 7 is rolled.
+ */
+public final class MoveGenerator {
+
+	private static final Resource.ResourceType[] RESOURCES = Resource.RESOURCE_TYPES;
+	private static final GameAction.Type[] TYPES = GameAction.Type.values();
+
+	/**
+	 * The most bank trades that can be offered at once
+	 */
+	public static final int MAX_TRADES = RESOURCES.length * (RESOURCES.length - 1);
+
+	/**
+	 * The largest edge, vertex or hexagon id a move can target
+	 */
+	public static final int MAX_TARGET = (1 << 24) - 2;
+
+	private MoveGenerator() {
+	}
+
+	/**
+	 * Fill a buffer with the legal moves for the current player
+	 *
+	 * @param board
+	 *            the board
+	 * @param moves
+	 *            the buffer to fill, cleared first
+	 * @return the number of moves
+	 */
+	public static int generate(Board board, MoveList moves) {
+		moves.clear();
+
+		Player player = board.getCurrentPlayer();
+		if (player == null || board.getWinner() != null) {
+			return 0;
+		}
+
+		BuildSites sites = board.getBuildSites();
+		Vertex[] vertices = board.getVertices();
+		Edge[] edges = board.getEdges();
+		int playerNumber = player.getPlayerNumber();
+
+		switch (board.getPhase()) {
+			case SETUP_SETTLEMENT:
+				if (!board.isSetupPlacementMade()) {
+					for (int v = sites.nextOpen(0); v >= 0; v = sites.nextOpen(v + 1)) {
+						if (player.canBuild(vertices[v], Vertex.SETTLEMENT)) {
+							moves.add(pack(GameAction.Type.BUILD_SETTLEMENT, v));
+						}
+					}
+				}
+				if (moves.size() > 0) {
+					return moves.size();
+				}
+				break;
+			case SETUP_CITY:
+				if (!board.isSetupPlacementMade()) {
+					for (int v = sites.nextOpen(0); v >= 0; v = sites.nextOpen(v + 1)) {
+						if (player.canBuild(vertices[v], Vertex.CITY)) {
+							moves.add(pack(GameAction.Type.BUILD_CITY, v));
+						}
+					}
+				}
+				if (moves.size() > 0) {
+					return moves.size();
+				}
+				break;
+			case SETUP_FIRST_R:
+			case SETUP_SECOND_R:
+				if (!board.isSetupPlacementMade()) {
+					addRoads(moves, sites, edges, player);
+				}
+				if (moves.size() > 0) {
+					return moves.size();
+				}
+				break;
+			case PRODUCTION:
+				if (board.getLastDiceRollNumber() == 0) {
+					moves.add(pack(GameAction.Type.ROLL, 0));
+					return moves.size();
+				}
+				break;
+			case BUILD:
+				if (player.affordRoad()) {
+					addRoads(moves, sites, edges, player);
+				}
+				if (player.affordSettlement()) {
+					for (int v = sites.nextSettlement(playerNumber, 0); v >= 0;
+							v = sites.nextSettlement(playerNumber, v + 1)) {
+						if (player.canBuild(vertices[v], Vertex.SETTLEMENT)) {
+							moves.add(pack(GameAction.Type.BUILD_SETTLEMENT, v));
+						}
+					}
+				}
+				if (player.affordCity()) {
+					for (int v = sites.nextCity(playerNumber, 0); v >= 0;
+							v = sites.nextCity(playerNumber, v + 1)) {
+						if (player.canBuild(vertices[v], Vertex.CITY)) {
+							moves.add(pack(GameAction.Type.BUILD_CITY, v));
+						}
+					}
+				}
+				addTrades(moves, player);
+				break;
+			case PROGRESS_CARD_1:
+			case PROGRESS_CARD_2:
+				addRoads(moves, sites, edges, player);
+				break;
+			case ROBBER:
+				Hexagon robber = board.getCurRobberHex();
+				if (robber == null) {
+					Hexagon previous = board.getPrevRobberHex();
+					Hexagon[] hexagons = board.getHexagons();
+					for (int h = 0; h < hexagons.length; h++) {
+						if (hexagons[h] != previous) {
+							moves.add(pack(GameAction.Type.MOVE_ROBBER, h));
+						}
+					}
+					return moves.size();
+				}
+				for (int i = 0; i < board.getNumPlayers(); i++) {
+					Player other = board.getPlayer(i);
+					if (other != player && other.getResourceCount() > 0
+							&& robber.adjacentToPlayer(other)) {
+						moves.add(pack(GameAction.Type.STEAL, i));
+					}
+				}
+				if (moves.size() > 0) {
+					return moves.size();
+				}
+				break;
+			case DONE:
+				return 0;
+		}
+
+		moves.add(pack(GameAction.Type.END_PHASE, -1));
+		return moves.size();
+	}
+
+	private static void addRoads(MoveList moves, BuildSites sites, Edge[] edges, Player player) {
+		int playerNumber = player.getPlayerNumber();
+		for (int e = sites.nextRoad(playerNumber, 0); e >= 0; e = sites.nextRoad(playerNumber, e + 1)) {
+			if (player.canBuild(edges[e])) {
+				moves.add(pack(GameAction.Type.BUILD_ROAD, e));
+			}
+		}
+	}
+
+	private static void addTrades(MoveList moves, Player player) {
+		int tradeValue = player.getTradeValue();
+		for (int want = 0; want < RESOURCES.length; want++) {
+			for (int give = 0; give < RESOURCES.length; give++) {
+				if (give == want) {
+					continue;
+				}
+
+				int count = player.hasHarbor(RESOURCES[give]) ? 2 : tradeValue;
+				if (player.getResources(RESOURCES[give]) >= count) {
+					moves.add(packTrade(want, give, count));
+				}
+			}
+		}
+	}
+
+	private static int pack(GameAction.Type type, int target) {
+		return type.ordinal() | (target + 1) << 8;
+	}
+
+	static int packTrade(int want, int give, int count) {
+		return GameAction.Type.TRADE.ordinal() | (want + 1) << 4 | (give + 1) << 8 | count << 12;
+	}
+
+	public static GameAction.Type getType(int move) {
+		return TYPES[move & 0xf];
+	}
+
+	/**
+	 * Get the edge, vertex, hexagon or player a move applies to
+	 *
+	 * @param move
+	 *            the packed move
+	 * @return the target, or -1
+	 */
+	public static int getTarget(int move) {
+		if ((move & 0xf) == GameAction.Type.TRADE.ordinal()) {
+			return -1;
+		}
+		return (move >>> 8) - 1;
+	}
+
+	/**
+	 * Get the resource a trade is for
+	 *
+	 * @param move
+	 *            the packed move
+	 * @return the resource, or null
+	 */
+	public static Resource.ResourceType getWant(int move) {
+		int want = (move >>> 4) & 0xf;
+		return want == 0 ? null : RESOURCES[want - 1];
+	}
+
+	/**
+	 * Get the resource given in a trade
+	 *
+	 * @param move
+	 *            the packed move
+	 * @return the resource, or null
+	 */
+	public static Resource.ResourceType getGive(int move) {
+		int give = (move >>> 8) & 0xf;
+		return give == 0 ? null : RESOURCES[give - 1];
+	}
+
+	public static int getGiveCount(int move) {
+		return (move >>> 12) & 0xf;
+	}
+
+	/**
+	 * Fill in the offer of a trade move
+	 *
+	 * @param move
+	 *            the packed move
+	 * @param offer
+	 *            an array with one count per resource type, overwritten
+	 */
+	static void getOffer(int move, int[] offer) {
+		for (int i = 0; i < offer.length; i++) {
+			offer[i] = 0;
+		}
+		Resource.ResourceType give = getGive(move);
+		if (give != null) {
+			offer[give.ordinal()] = getGiveCount(move);
+		}
+	}
+
+	/**
+	 * Turn a packed move into a GameAction
+	 *
+	 * @param move
+	 *            the packed move
+	 * @return the equivalent action
+	 */
+	public static GameAction toAction(int move) {
+		int target = getTarget(move);
+		switch (getType(move)) {
+			case BUILD_ROAD:
+				return GameAction.buildRoad(target);
+			case BUILD_SETTLEMENT:
+				return GameAction.buildSettlement(target);
+			case BUILD_CITY:
+				return GameAction.buildCity(target);
+			case MOVE_ROBBER:
+				return GameAction.moveRobber(target);
+			case STEAL:
+				return GameAction.steal(target);
+			case TRADE:
+				int[] offer = new int[RESOURCES.length];
+				getOffer(move, offer);
+				return GameAction.trade(getWant(move), offer);
+			case DISCARD:
+				return GameAction.discard(target, getWant(move));
+			case ROLL:
+				return GameAction.roll(target);
+			default:
+				return GameAction.endPhase();
+		}
+	}
+}
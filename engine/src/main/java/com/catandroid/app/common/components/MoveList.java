@@ -0,0 +1,75 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+/**
+ * A reusable buffer of moves packed into ints, filled by MoveGenerator
+ *
+ * The buffer is sized for the largest number of moves a board can offer, so
+ * filling it never allocates.
+ */
+public final class MoveList {
+
+	private final int[] moves;
+	private int size;
+
+	/**
+	 * Create a buffer large enough for any position on a board
+	 *
+	 * @param board
+	 *            the board moves will be generated for
+	 */
+	public MoveList(Board board) {
+		this(board.getEdges().length + 2 * board.getVertices().length
+				+ board.getHexagons().length + board.getNumPlayers() + MoveGenerator.MAX_TRADES + 1);
+	}
+
+	/**
+	 * Create a buffer with a given capacity
+	 *
+	 * @param capacity
+	 *            the largest number of moves it can hold
+	 */
+	public MoveList(int capacity) {
+		moves = new int[capacity];
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	void add(int move) {
+		moves[size++] = move;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get a packed move
+	 *
+	 * @param index
+	 *            the index of the move
+	 * @return the move, to be read with the MoveGenerator accessors or made
+	 *         with Board.makeMove(int)
+	 */
+	public int get(int index) {
+		return moves[index];
+	}
+}
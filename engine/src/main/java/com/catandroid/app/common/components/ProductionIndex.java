@@ -0,0 +1,141 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+/**
+ * What each dice sum pays out, kept up to date as buildings are placed and
+ * the robber moves
+ *
+ * For every sum there is one amount per player and resource, so a roll only
+ * has to hand out the non-zero amounts instead of visiting every hexagon and
+ * its six vertices.
+ */
+final class ProductionIndex {
+
+	private static final int RESOURCES = Resource.RESOURCE_TYPES.length;
+
+	private final BoardTopology topology;
+	private final Hexagon[] hexagons;
+	private final Vertex[] vertices;
+
+	private final int[][] payouts = new int[13][];
+	private final int[] totals = new int[13];
+
+	/**
+	 * Index the current buildings and robber of a board
+	 *
+	 * @param board
+	 *            the board to index
+	 */
+	ProductionIndex(Board board) {
+		topology = board.getTopology();
+		hexagons = board.getHexagons();
+		vertices = board.getVertices();
+
+		for (int sum = 2; sum <= 12; sum++) {
+			payouts[sum] = new int[board.getNumPlayers() * RESOURCES];
+		}
+
+		for (int i = 0; i < hexagons.length; i++) {
+			if (!hexagons[i].hasRobber()) {
+				addHexagon(hexagons[i], 1);
+			}
+		}
+	}
+
+	/**
+	 * Account for a change of building on a vertex
+	 *
+	 * @param vertex
+	 *            the vertex that changed
+	 * @param playerNumber
+	 *            the owner of the building
+	 * @param amount
+	 *            the change in what the building collects per hexagon
+	 */
+	void addBuilding(Vertex vertex, int playerNumber, int amount) {
+		int id = vertex.getId();
+		for (int k = topology.vertexHexStart(id); k < topology.vertexHexEnd(id); k++) {
+			Hexagon hexagon = hexagons[topology.vertexHex(k)];
+			if (!hexagon.hasRobber()) {
+				add(hexagon, playerNumber, amount);
+			}
+		}
+	}
+
+	/**
+	 * Account for the robber arriving on or leaving a hexagon
+	 *
+	 * @param hexagon
+	 *            the hexagon
+	 * @param blocked
+	 *            true if the robber arrived
+	 */
+	void setBlocked(Hexagon hexagon, boolean blocked) {
+		addHexagon(hexagon, blocked ? -1 : 1);
+	}
+
+	/**
+	 * Hand out the resources for a dice roll
+	 *
+	 * @param players
+	 *            the players, indexed by player number
+	 * @param sum
+	 *            the dice sum
+	 */
+	void distribute(Player[] players, int sum) {
+		if (sum < 2 || sum > 12 || totals[sum] == 0) {
+			return;
+		}
+
+		int[] amounts = payouts[sum];
+		for (int i = 0; i < amounts.length; i++) {
+			if (amounts[i] > 0) {
+				players[i / RESOURCES].addResources(Resource.RESOURCE_TYPES[i % RESOURCES],
+						amounts[i]);
+			}
+		}
+	}
+
+	private void addHexagon(Hexagon hexagon, int sign) {
+		int id = hexagon.getId();
+		for (int k = topology.hexVertexStart(id); k < topology.hexVertexEnd(id); k++) {
+			Vertex vertex = vertices[topology.hexVertex(k)];
+			Player owner = vertex.getOwner();
+			if (owner != null) {
+				add(hexagon, owner.getPlayerNumber(), sign * vertex.getBuilding());
+			}
+		}
+	}
+
+	private void add(Hexagon hexagon, int playerNumber, int amount) {
+		int sum = hexagon.getNumberTokenAsInt();
+		Resource.ResourceType type = hexagon.getResourceType();
+		if (sum < 2 || sum > 12 || type == null || type.ordinal() >= RESOURCES) {
+			return;
+		}
+
+		payouts[sum][playerNumber * RESOURCES + type.ordinal()] += amount;
+		totals[sum] += amount;
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Vertex;
+
+import java.util.Arrays;
+
+/**
+ * How many roads each player needs to reach each vertex, and which road to
+ * build first on the way
+ *
+ * A breadth-first search over the vertex graph starts from every vertex a
+ * player's roads may already be extended from: its own buildings and the
+ * ends of its roads that no other player has built on. Empty edges cost a
+ * road each; edges with a road and other players' buildings can't be
+ * crossed. The result for a player is kept until anyone builds or takes
+ * back a road or building (see Board.updatePieces), then worked out again
+ * the next time it is asked for.
+ */
+public final class RoadPlanner {
+
+	/**
+	 * The distance to a vertex that can't be reached
+	 */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final BoardTopology topology;
+	private final Edge[] edges;
+	private final Vertex[] vertices;
+
+	private final int[][] distances, vias;
+	private final boolean[] planned;
+	private final int[] queue;
+
+	/**
+	 * Create an empty planner for a board
+	 *
+	 * @param board
+	 *            the board to plan on
+	 */
+	RoadPlanner(Board board) {
+		this.topology = board.getTopology();
+		this.edges = board.getEdges();
+		this.vertices = board.getVertices();
+
+		int numPlayers = board.getNumPlayers();
+		distances = new int[numPlayers][vertices.length];
+		vias = new int[numPlayers][vertices.length];
+		planned = new boolean[numPlayers];
+		queue = new int[vertices.length];
+	}
+
+	/**
+	 * Forget every plan after a road or building changed
+	 */
+	void invalidate() {
+		Arrays.fill(planned, false);
+	}
+
+	/**
+	 * Get the number of roads a player needs to reach a vertex
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param vertexId
+	 *            the vertex id
+	 * @return 0 if the player's roads may already be extended from the
+	 *         vertex, UNREACHABLE if they can never get there
+	 */
+	public int getDistance(int playerNumber, int vertexId) {
+		return plan(playerNumber)[vertexId];
+	}
+
+	/**
+	 * Get the first road to build on a shortest route to a vertex
+	 *
+	 * @param playerNumber
+	 *            the player
+	 * @param vertexId
+	 *            the vertex id
+	 * @return the edge id, next to the player's roads or buildings, or -1 if
+	 *         the vertex is reached already or can't be reached
+	 */
+	public int nextRoad(int playerNumber, int vertexId) {
+		int[] distance = plan(playerNumber);
+		if (distance[vertexId] == UNREACHABLE) {
+			return -1;
+		}
+
+		// walk back to the network, remembering the last road on the way
+		int[] via = vias[playerNumber];
+		int edge = -1;
+		for (int vertex = vertexId; distance[vertex] > 0; ) {
+			edge = via[vertex];
+			vertex = topology.otherVertex(edge, vertex);
+		}
+		return edge;
+	}
+
+	private int[] plan(int playerNumber) {
+		int[] distance = distances[playerNumber];
+		if (planned[playerNumber]) {
+			return distance;
+		}
+
+		int[] via = vias[playerNumber];
+		Arrays.fill(distance, UNREACHABLE);
+		Arrays.fill(via, -1);
+
+		int tail = 0;
+		for (int id = 0; id < vertices.length; id++) {
+			if (isSource(playerNumber, id)) {
+				distance[id] = 0;
+				queue[tail++] = id;
+			}
+		}
+
+		for (int head = 0; head < tail; head++) {
+			int vertex = queue[head];
+			for (int k = topology.vertexEdgeStart(vertex); k < topology.vertexEdgeEnd(vertex); k++) {
+				int edge = topology.vertexEdge(k);
+				int other = topology.otherVertex(edge, vertex);
+				if (edges[edge].hasRoad() || distance[other] != UNREACHABLE) {
+					continue;
+				}
+
+				distance[other] = distance[vertex] + 1;
+				via[other] = edge;
+
+				// a road can end at another player's building but not go on
+				if (!vertices[other].hasBuilding()) {
+					queue[tail++] = other;
+				}
+			}
+		}
+
+		planned[playerNumber] = true;
+		return distance;
+	}
+
+	/**
+	 * Check if a player's roads may be extended from a vertex
+	 */
+	private boolean isSource(int playerNumber, int id) {
+		Vertex vertex = vertices[id];
+		if (vertex.hasBuilding()) {
+			return vertex.getOwner().getPlayerNumber() == playerNumber;
+		}
+
+		for (int k = topology.vertexEdgeStart(id); k < topology.vertexEdgeEnd(id); k++) {
+			if (edges[topology.vertexEdge(k)].getOwnerPlayerNumber() == playerNumber) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.players.Player;
+
+/**
+ * Finds the cheapest bank and harbor trades that make a cost affordable
+ *
+ * Every trade brings in exactly one card, so the number of trades is fixed
+ * by the cards that are missing, and the only choice is what to give for
+ * each of them. Taking the lowest ratio (2:1 harbor, then 3:1 or 4:1) among
+ * the cards left over once the cost is paid is then always cheapest; ties
+ * go to the resource with the most cards to spare. Cards the cost needs are
+ * only given away when there are more than enough of them.
+ *
+ * The trades are kept as moves packed by MoveGenerator, so one solver can be
+ * reused without allocating.
+ */
+public final class TradeSolver {
+
+	private static final Resource.ResourceType[] RESOURCES = Resource.RESOURCE_TYPES;
+
+	private final int[] surplus = new int[RESOURCES.length];
+	private final int[] ratio = new int[RESOURCES.length];
+	private final int[] offer = new int[RESOURCES.length];
+	private int[] trades = new int[RESOURCES.length];
+	private int size, given;
+
+	/**
+	 * Find the cheapest trades that let a player pay for something
+	 *
+	 * @param player
+	 *            the player, whose cards and harbors are used
+	 * @param cost
+	 *            the number of each resource type needed, e.g.
+	 *            Player.ROAD_COST
+	 * @return the number of trades (0 if the cost is already affordable), or
+	 *         -1 if no trades can cover it
+	 */
+	public int solve(Player player, int[] cost) {
+		size = 0;
+		given = 0;
+
+		int tradeValue = player.getTradeValue();
+		int missing = 0;
+		for (int i = 0; i < RESOURCES.length; i++) {
+			surplus[i] = player.getResources(RESOURCES[i]) - cost[i];
+			ratio[i] = player.hasHarbor(RESOURCES[i]) ? 2 : tradeValue;
+			if (surplus[i] < 0) {
+				missing -= surplus[i];
+			}
+		}
+
+		if (missing > trades.length) {
+			trades = new int[missing];
+		}
+
+		for (int want = 0; want < RESOURCES.length; want++) {
+			while (surplus[want] < 0) {
+				int give = -1;
+				for (int i = 0; i < RESOURCES.length; i++) {
+					if (surplus[i] >= ratio[i] && (give < 0 || ratio[i] < ratio[give]
+							|| ratio[i] == ratio[give] && surplus[i] > surplus[give])) {
+						give = i;
+					}
+				}
+
+				if (give < 0) {
+					size = 0;
+					given = 0;
+					return -1;
+				}
+
+				surplus[give] -= ratio[give];
+				surplus[want] += 1;
+				given += ratio[give];
+				trades[size++] = MoveGenerator.packTrade(want, give, ratio[give]);
+			}
+		}
+
+		return size;
+	}
+
+	/**
+	 * Make the trades found by the last solve()
+	 *
+	 * Every trade is checked against the player's cards and ratios before
+	 * any is made, so either all of them go through or, if the hand or the
+	 * harbors have changed since, none do and nothing is traded.
+	 *
+	 * @param player
+	 *            the player the trades were found for
+	 * @return true if every trade was made, false if none were
+	 */
+	public boolean apply(Player player) {
+		for (int i = 0; i < RESOURCES.length; i++) {
+			offer[i] = 0;
+		}
+
+		int tradeValue = player.getTradeValue();
+		for (int i = 0; i < size; i++) {
+			Resource.ResourceType give = MoveGenerator.getGive(trades[i]);
+			int count = MoveGenerator.getGiveCount(trades[i]);
+			if (count != (player.hasHarbor(give) ? 2 : tradeValue)) {
+				return false;
+			}
+			offer[give.ordinal()] += count;
+		}
+		for (int i = 0; i < RESOURCES.length; i++) {
+			if (player.getResources(RESOURCES[i]) < offer[i]) {
+				return false;
+			}
+		}
+
+		for (int i = 0; i < size; i++) {
+			MoveGenerator.getOffer(trades[i], offer);
+			if (!player.trade(MoveGenerator.getWant(trades[i]), offer)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Get the number of trades found by the last solve()
+	 *
+	 * @return the number of trades
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get a trade found by the last solve()
+	 *
+	 * @param index
+	 *            the index of the trade
+	 * @return the trade, packed as a MoveGenerator move
+	 */
+	public int get(int index) {
+		return trades[index];
+	}
+
+	/**
+	 * Get the number of cards given away by the trades of the last solve()
+	 *
+	 * @return the number of cards
+	 */
+	public int getCardsGiven() {
+		return given;
+	}
+}
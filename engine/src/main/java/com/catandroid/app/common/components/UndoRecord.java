@@ -0,0 +1,38 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+/**
+ * What Board.unmakeMove() needs to take back one move: the state of the
+ * game apart from the pieces, and the one piece the move placed
+ */
+final class UndoRecord {
+
+	GameAction action;
+	// the packed move, when the move was made without a GameAction
+	int move;
+	final BoardSnapshot state;
+
+	// the edge or vertex the move built on, or -1
+	int edgeId, vertexId;
+	int priorOwner, priorBuilding;
+
+	UndoRecord(Board board) {
+		state = new BoardSnapshot(board, false);
+	}
+}
@@ -17,8 +17,6 @@
  */
 package com.catandroid.app.common.components.board_pieces;
 
-import com.catandroid.app.R;
-
 /**
  * Created by logan on 2017-02-27.
  */
@@ -47,10 +45,6 @@ public class Resource {
         return toResourceIndex(this.resourceType);
     }
 
-    public int toRString() {
-        return toRString(this.resourceType);
-    }
-
     public static int toResourceIndex(ResourceType resourceType) {
         switch(resourceType) {
             case LUMBER:
@@ -69,23 +63,4 @@ public class Resource {
                 return -1;
         }
     }
-
-    public static int toRString(ResourceType resourceType) {
-        switch (resourceType) {
-            case LUMBER:
-                return R.string.lumber;
-            case WOOL:
-                return R.string.wool;
-            case GRAIN:
-                return R.string.grain;
-            case BRICK:
-                return R.string.brick;
-            case ORE:
-                return R.string.ore;
-            case GOLD:
-                return R.string.gold;
-            default:
-                return R.string.empty_string;
-        }
-    }
 }
@@ -17,7 +17,9 @@
  */
 package com.catandroid.app.common.components.board_positions;
 
+import com.catandroid.app.common.components.BitboardRules;
 import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.utilities.ZobristKeys;
 import com.catandroid.app.common.players.Player;
 
 public class Edge {
@@ -25,7 +27,6 @@ public class Edge {
 	private int id;
 	private int[] vertexIds;
 	private int ownerPlayerNumber;
-	private int lastRoadCountId;
 	private int originHexId;
     private int originHexDirect;
 	private int neighborHexId = -1;
@@ -43,7 +44,6 @@ public class Edge {
 		vertexIds = new int[2];
 		vertexIds[0] = vertexIds[1] = -1;
 		ownerPlayerNumber = -1;
-		lastRoadCountId = 0;
 		this.board = board;
 	}
 
@@ -152,6 +152,28 @@ public class Edge {
 		return board.getPlayer(ownerPlayerNumber);
 	}
 
+	/**
+	 * Get the player number of the owner of this edge
+	 *
+	 * @return the owner's player number, or -1
+	 */
+	public int getOwnerPlayerNumber() {
+		return ownerPlayerNumber;
+	}
+
+	/**
+	 * Reset the road on this edge when restoring a board snapshot
+	 *
+	 * @param ownerPlayerNumber
+	 *            the owner's player number, or -1 for no road
+	 */
+	public void restoreOwner(int ownerPlayerNumber) {
+		if (ownerPlayerNumber != this.ownerPlayerNumber) {
+			this.ownerPlayerNumber = ownerPlayerNumber;
+			board.updatePieces(this);
+		}
+	}
+
 	/**
 	 * Determine if player can build a road on edge
 	 * 
@@ -160,16 +182,30 @@ public class Edge {
 	 * @return true if player can build a road on edge
 	 */
 	public boolean canBuild(Player player) {
+		BitboardRules rules = board.getBitboardRules();
+		if (rules == null || player == null) {
+			return canBuildFromObjects(player);
+		}
+
+		boolean legal = rules.canBuild(player.getPlayerNumber(), id);
+		return board.isCheckingRules()
+				? BitboardRules.verify(legal, canBuildFromObjects(player), "canBuild road", id)
+				: legal;
+	}
+
+	private boolean canBuildFromObjects(Player player) {
 		if (ownerPlayerNumber != -1) {
 			return false;
 		}
 
 		// check for roads to each vertexIds
+		Vertex[] vertices = board.getVertices();
 		for (int i = 0; i < 2; i++) {
 			// the player has a road to an unoccupied vertexIds,
 			// or the player has an adjacent building
-			if (board.getVertexById(vertexIds[i]).hasRoad(player) && !board.getVertexById(vertexIds[i]).hasBuilding()
-					|| board.getVertexById(vertexIds[i]).hasBuilding(player)) {
+			Vertex vertex = vertices[vertexIds[i]];
+			if (vertex.hasBuilding(player)
+					|| !vertex.hasBuilding() && vertex.hasRoadFromObjects(player)) {
 				return true;
 			}
 		}
@@ -200,6 +236,19 @@ public class Edge {
 		this.portHexDirect = board.getHexagonById(hexId).findEdgeDirect(this);
 	}
 
+	/**
+	 * Set the port hexagon and the side of it this edge is on
+	 * @param hexId
+	 *            the id of hex to set
+	 * @param direct
+	 *            the edge direction on that hex
+	 * @return
+	 */
+	public void setPortHexById(int hexId, int direct) {
+		this.portHexId = hexId;
+		this.portHexDirect = direct;
+	}
+
 	/**
 	 * Remove port hexagon (candidacy lost)
 	 * @return
@@ -445,53 +494,8 @@ public class Edge {
 		}
 
 		ownerPlayerNumber = player.getPlayerNumber();
+		board.toggleHashKey(ZobristKeys.edge(id, ownerPlayerNumber));
+		board.updatePieces(this);
 		return true;
 	}
-
-	/**
-	 * Get the road length through this edge
-	 * 
-	 * @param player
-	 *            player to measure for
-	 * @param from
-	 *            where we are measuring from
-	 * @param countId
-	 *            unique id for this count iteration
-	 * @return the road length
-	 */
-	public int getRoadLength(Player player, Vertex from, int countId) {
-		if (ownerPlayerNumber != player.getPlayerNumber() || lastRoadCountId == countId) {
-			return 0;
-		}
-
-		// this ensures that that road isn't counted multiple times (cycles)
-		lastRoadCountId = countId;
-
-		// find other vertexIds
-		int to = (from.getId() == vertexIds[0] ? vertexIds[1] : vertexIds[0]);
-
-		// return road length
-		return board.getVertexById(to).getRoadLength(player, this, countId) + 1;
-	}
-
-	/**
-	 * Get the longest road length through this edge
-	 * 
-	 * @param countId
-	 *            unique id for this count iteration
-	 * @return the road length
-	 */
-	public int getRoadLength(int countId) {
-		Player ownerPlayer = board.getPlayer(ownerPlayerNumber);
-		if (ownerPlayer == null) {
-			return 0;
-		}
-
-		// this ensures that that road isn't counted multiple times (cycles)
-		lastRoadCountId = countId;
-
-		int length1 = board.getVertexById(vertexIds[0]).getRoadLength(ownerPlayer, this, countId);
-		int length2 = board.getVertexById(vertexIds[1]).getRoadLength(ownerPlayer, this, countId);
-		return length1 + length2 + 1;
-	}
 }
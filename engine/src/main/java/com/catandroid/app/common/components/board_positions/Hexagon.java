@@ -18,8 +18,10 @@
 package com.catandroid.app.common.components.board_positions;
 
 import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardTopology;
 import com.catandroid.app.common.components.board_pieces.NumberToken;
 import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.utilities.ZobristKeys;
 import com.catandroid.app.common.components.utilities.hex_grid_utils.AxialHexLocation;
 import com.catandroid.app.common.players.Player;
 
@@ -299,23 +301,6 @@ public class Hexagon {
 		return coord;
 	}
 
-	/**
-	 * Distribute resources from this hexagon
-	 *
-	 * @param diceRoll
-	 *            the current dice sum
-	 */
-	public void distributeResources(int diceRoll) {
-		if (diceRoll != this.numberToken.getTokenNum() || hasRobber()) {
-			return;
-		}
-
-		for (int i = 0; i < 6; i++)
-		{
-			board.getVertexById(vertexIds[i]).distributeResources(resourceProduced.getResourceType());
-		}
-	}
-
 	/**
 	 * Check if a given player owns land adjacent to the hexagon
 	 *
@@ -357,15 +342,10 @@ public class Hexagon {
 	 * @return true if hexagon is adjacent to this hexagon
 	 */
 	public boolean isAdjacent(Hexagon hexagon) {
-		for (int i = 0; i < 6; i++) {
-			for (int j = 0; j < 3; j++) {
-				Hexagon adjacent = board.getVertexById(vertexIds[i]).getHexagon(j);
-				if (adjacent == null || adjacent.getId() == this.id) {
-					continue;
-				}
-				else if (hexagon == adjacent) {
-					return true;
-				}
+		BoardTopology topology = board.getTopology();
+		for (int k = topology.hexNeighborStart(id); k < topology.hexNeighborEnd(id); k++) {
+			if (topology.hexNeighbor(k) == hexagon.getId()) {
+				return true;
 			}
 		}
 		return false;
@@ -377,7 +357,11 @@ public class Hexagon {
 	 * @return true if the hexagon now has the robber
 	 */
 	public boolean setRobber() {
-		this.hasRobber = true;
+		if (!this.hasRobber) {
+			this.hasRobber = true;
+			board.toggleHashKey(ZobristKeys.robber(id));
+			board.updateProduction(this, true);
+		}
 		return true;
 	}
 
@@ -389,6 +373,8 @@ public class Hexagon {
 	public boolean removeRobber() {
 		if (this.hasRobber) {
 			this.hasRobber = false;
+			board.toggleHashKey(ZobristKeys.robber(id));
+			board.updateProduction(this, false);
 			return true;
 		}
 		// robber is not on this hex
@@ -17,8 +17,10 @@
  */
 package com.catandroid.app.common.components.board_positions;
 
+import com.catandroid.app.common.components.BitboardRules;
 import com.catandroid.app.common.components.Board;
-import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.BoardTopology;
+import com.catandroid.app.common.components.utilities.ZobristKeys;
 import com.catandroid.app.common.players.Player;
 
 public class Vertex {
@@ -218,6 +220,30 @@ public class Vertex {
 		return owner;
 	}
 
+	/**
+	 * Reset the building on this vertex when restoring a board snapshot
+	 *
+	 * @param owner
+	 *            the owner of the building, or null
+	 * @param building
+	 *            NONE, SETTLEMENT or CITY
+	 */
+	public void restoreBuilding(Player owner, int building) {
+		if (owner == this.owner && building == this.building) {
+			return;
+		}
+
+		if (this.owner != null) {
+			board.updateProduction(this, this.owner.getPlayerNumber(), -this.building);
+		}
+		this.owner = owner;
+		this.building = building;
+		if (owner != null) {
+			board.updateProduction(this, owner.getPlayerNumber(), building);
+		}
+		board.updatePieces(this);
+	}
+
 	/**
 	 * Check for adjacent roads
 	 * 
@@ -226,23 +252,27 @@ public class Vertex {
 	 * @return true if one of the adjacent edgeIds has a road for player
 	 */
 	public boolean hasRoad(Player player) {
-		for (int i = 0; i < 3; i++) {
-			if (edgeIds[i] != -1 && board.getEdgeById(edgeIds[i]).getOwnerPlayer() == player)
-				return true;
+		BitboardRules rules = board.getBitboardRules();
+		if (rules == null || player == null) {
+			return hasRoadFromObjects(player);
 		}
 
-		return false;
+		boolean road = rules.hasRoad(player.getPlayerNumber(), id);
+		return board.isCheckingRules()
+				? BitboardRules.verify(road, hasRoadFromObjects(player), "hasRoad", id)
+				: road;
 	}
 
-	public void distributeResources(Resource.ResourceType resourceType) {
-		if (owner == null)
-		{
-			return;
+	boolean hasRoadFromObjects(Player player) {
+		int playerNumber = player != null ? player.getPlayerNumber() : -1;
+		BoardTopology topology = board.getTopology();
+		Edge[] edges = board.getEdges();
+		for (int k = topology.vertexEdgeStart(id); k < topology.vertexEdgeEnd(id); k++) {
+			if (edges[topology.vertexEdge(k)].getOwnerPlayerNumber() == playerNumber)
+				return true;
 		}
 
-		if (resourceType != null) {
-			owner.addResources(resourceType, building);
-		}
+		return false;
 	}
 
 	/**
@@ -252,35 +282,37 @@ public class Vertex {
 	 * and there are no adjacent cities/settlements
 	 */
 	public boolean couldBuild() {
-		int curEdgeId, curHexId, adjVertexId;
-		boolean noAdjacentCommunity = true,
-				isOnLand = false;
-		Edge intersectingEdge;
-		Hexagon adjacentHex;
-		// for each connected edge and/or hexagon
-		for (int i = 0; i < 3; i++) {
-			curEdgeId = edgeIds[i];
-			curHexId = hexagonIds[i];
-			intersectingEdge = curEdgeId == -1 ? null : board.getEdgeById(curEdgeId);
-			adjacentHex = curHexId == -1 ? null : board.getHexagonById(curHexId);
-			if (intersectingEdge != null)
-			{
-				adjVertexId = intersectingEdge.getAdjacent(this).getId();
-				if(board.getVertexById(adjVertexId).hasBuilding()) {
-					// there is a nearby community and we cannot build here
-					noAdjacentCommunity = false;
-					break;
-				}
+		BitboardRules rules = board.getBitboardRules();
+		if (rules == null) {
+			return couldBuildFromObjects();
+		}
+
+		boolean could = rules.couldBuild(id);
+		return board.isCheckingRules()
+				? BitboardRules.verify(could, couldBuildFromObjects(), "couldBuild", id)
+				: could;
+	}
+
+	private boolean couldBuildFromObjects() {
+		BoardTopology topology = board.getTopology();
+
+		// there is a nearby community and we cannot build here
+		Vertex[] vertices = board.getVertices();
+		for (int k = topology.vertexEdgeStart(id); k < topology.vertexEdgeEnd(id); k++) {
+			if (vertices[topology.otherVertex(topology.vertexEdge(k), id)].hasBuilding()) {
+				return false;
 			}
-			if (adjacentHex != null) {
-				if (adjacentHex.getTerrainType() != Hexagon.TerrainType.SEA) {
-					// the vertex is indeed connected to land
-					isOnLand = true;
-				}
+		}
+
+		// the vertex must be connected to land
+		Hexagon[] hexagons = board.getHexagons();
+		for (int k = topology.vertexHexStart(id); k < topology.vertexHexEnd(id); k++) {
+			if (hexagons[topology.vertexHex(k)].getTerrainType() != Hexagon.TerrainType.SEA) {
+				return true;
 			}
 		}
 
-		return noAdjacentCommunity && isOnLand;
+		return false;
 	}
 
 	/**
@@ -293,7 +325,19 @@ public class Vertex {
 	 * @return true if player can build at vertex
 	 */
 	public boolean canBuild(Player player, int type, boolean setup) {
-		if (!couldBuild()) {
+		BitboardRules rules = board.getBitboardRules();
+		if (rules == null || player == null) {
+			return canBuildFromObjects(player, type, setup);
+		}
+
+		boolean legal = rules.canBuild(player.getPlayerNumber(), id, type, setup);
+		return board.isCheckingRules()
+				? BitboardRules.verify(legal, canBuildFromObjects(player, type, setup), "canBuild", id)
+				: legal;
+	}
+
+	private boolean canBuildFromObjects(Player player, int type, boolean setup) {
+		if (!couldBuildFromObjects()) {
 			return false;
 		}
 
@@ -304,7 +348,7 @@ public class Vertex {
 		}
 
 		// check if owner has road to vertex
-		if (!this.hasRoad(player)) {
+		if (!hasRoadFromObjects(player)) {
 			return false;
 		}
 
@@ -343,17 +387,22 @@ public class Vertex {
 			return false;
 		}
 
+		int before = building;
 		switch (building) {
 			case NONE:
 				owner = player;
 				building = board.isSetupPhase2() ? CITY : SETTLEMENT;
 				break;
 			case SETTLEMENT:
+				board.toggleHashKey(ZobristKeys.building(id, owner.getPlayerNumber(), SETTLEMENT));
 				building = CITY;
 				break;
 			case CITY:
 				return false;
 		}
+		board.toggleHashKey(ZobristKeys.building(id, owner.getPlayerNumber(), building));
+		board.updateProduction(this, owner.getPlayerNumber(), building - before);
+		board.updatePieces(this);
 
 		if (harbors != null)
 		{
@@ -370,42 +419,4 @@ public class Vertex {
 	public Harbor getHarbor() {
 		return harbors;
 	}
-
-	/**
-	 * Find the longest road passing through this vertex for the given player
-	 * 
-	 * @param player
-	 *            the player
-	 * @param omit
-	 *            omit an edgeIds already considered
-	 * @return the road length
-	 */
-	public int getRoadLength(Player player, Edge omit, int countId) {
-		int longest = 0;
-
-		// FIXME: if two road paths diverge and re-converge, the result may be
-		// calculated with whichever happens to be picked first
-
-		// another player's road breaks the road chain
-		if (owner != null && owner != player)
-		{
-			return 0;
-		}
-
-		// find the longest road aside from one passing through the given edgeIds
-		for (int i = 0; i < 3; i++) {
-			if (edgeIds[i] == -1 || edgeIds[i] == omit.getId())
-			{
-				continue;
-			}
-
-			int length = board.getEdgeById(edgeIds[i]).getRoadLength(player, this, countId);
-			if (length > longest)
-			{
-				longest = length;
-			}
-		}
-
-		return longest;
-	}
 }
@@ -0,0 +1,328 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components.utilities;
+
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardGeometry;
+import com.catandroid.app.common.components.BoardTopology;
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Harbor;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.board_positions.Vertex;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BoardUtils
+{
+    public BoardUtils()
+    {
+    }
+
+    /**
+     * Initialize the hexagons
+     *
+     * Terrain is dealt out in a fixed order; the hexagons are shuffled onto
+     * the map positions when the board is populated, so no random draw is
+     * needed here.
+     *
+     * @param board
+     *            the board
+     * @return a hexagon array
+     */
+    public static Hexagon[] initRandomHexes(Board board) {
+        int hexCount = board.getBoardGeometry().getHexCount();
+        Hexagon[] hexagons = new Hexagon[hexCount];
+        int index = 0;
+        for (Hexagon.TerrainType terrainType : Hexagon.TerrainType.values()) {
+            int curTerrainTypeCount = board.getTerrainCount(terrainType);
+            for (int count = 0; count < curTerrainTypeCount && index < hexCount; count++) {
+                hexagons[index] = new Hexagon(board, terrainType, index);
+                if (terrainType == Hexagon.TerrainType.DESERT) {
+                    hexagons[index].placeNumberToken(7);
+                    if (board.getCurRobberHex() == null) {
+                        board.setCurRobberHex(hexagons[index]);
+                    }
+                }
+                index++;
+            }
+        }
+
+        return hexagons;
+    }
+
+    /**
+     * Initialize the harbors
+     *
+     * Each standard set of harbors has one of each resource and the rest
+     * 3:1. As with the hexagons, the harbors only get their random place
+     * when the board is populated.
+     *
+     * @param board
+     *            the board
+     * @param harborCount
+     *            the number of harbors to generate
+     * @return a harbor array
+     */
+    public static Harbor[] initRandomHarbors(Board board, int harborCount) {
+        Resource.ResourceType[] resourceTypes = new Resource.ResourceType[harborCount];
+        for (int i = 0; i < harborCount; i++) {
+            int kind = i % BoardGeometry.HARBORS_PER_TILE_SET;
+            Resource.ResourceType resourceType = Resource.ResourceType.ANY;
+            if (kind < Resource.RESOURCE_TYPES.length
+                    && Resource.ResourceType.values()[kind] != Resource.ResourceType.GOLD) {
+                resourceType = Resource.ResourceType.values()[kind];
+            }
+            resourceTypes[i] = resourceType;
+        }
+
+        return generateHarbors(board, resourceTypes);
+    }
+
+    public static Harbor[] generateHarbors(Board board, Resource.ResourceType[] resourceTypes) {
+        Harbor[] harbors = new Harbor[resourceTypes.length];
+        for (int i = 0; i < harbors.length; i++) {
+            harbors[i] = new Harbor(board, resourceTypes[i], i);
+        }
+
+        return harbors;
+    }
+
+    /**
+     * Initialize the hexagons based on a predefined board layout
+     *
+     * @param hexCount
+     *            the number of hexagons to generate
+     * @param terrainTypes
+     *            an array of hexagon resourceTypes
+     * @return a hexagon array
+     */
+    public static Hexagon[] generateHexes(Board board, int hexCount, Hexagon.TerrainType[] terrainTypes) {
+        Hexagon[] hexagons = new Hexagon[hexCount];
+        for (int i = 0; i < hexagons.length; i++)
+        {
+            hexagons[i] = new Hexagon(board, terrainTypes[i], i);
+        }
+
+        return hexagons;
+    }
+
+
+    /**
+     * Generate vertices
+     * @param vertexCount
+     *          number of vertices to generate
+     * @return array of vertices
+     */
+    public static Vertex[] generateVertices(Board board, int vertexCount) {
+        Vertex[] vertices = new Vertex[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i] = new Vertex(board, i);
+        }
+
+        return vertices;
+    }
+
+    /**
+     * Generate edges
+     * @param edgeCount
+     *          number of edges to generate
+     * @return array of edges
+     */
+    public static Edge[] generateEdges(Board board, int edgeCount) {
+        Edge[] edges = new Edge[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            edges[i] = new Edge(board, i);
+        }
+
+        return edges;
+    }
+
+    /**
+     * Randomly assign number tokens to the hexagons
+     *
+     * Sixes and eights go first, never next to each other. They are chosen
+     * by a backtracking search over the producing hexagons (in random
+     * order), which drops any partial choice that leaves too few free
+     * hexagons for the rest. The search has a fixed budget of steps; should
+     * it run out (or the map have no room), the deepest choice found is
+     * kept and the remaining ones are placed anywhere. The other tokens are
+     * then shuffled onto the remaining hexagons, so the whole assignment
+     * takes bounded time on any map.
+     *
+     * @param board
+     *            the board, with its layout in place
+     * @param countPerDiceSum
+     *            how many tokens of each dice sum there are
+     */
+    public static void assignRandomNumTokens(Board board, int[] countPerDiceSum) {
+
+        Hexagon[] hexagons = board.getHexagons();
+        BoardTopology topology = board.getTopology();
+        GameRandom random = board.getRandom();
+
+        // producing hexagons, in random order
+        int[] order = new int[hexagons.length];
+        int producing = 0;
+        for (Hexagon hexagon : hexagons) {
+            if (canHoldToken(hexagon)) {
+                order[producing++] = hexagon.getId();
+            }
+        }
+        random.shuffle(order, producing);
+
+        // place 6s and 8s (high probability rolls)
+        int numHighRollers = Math.min(countPerDiceSum[6] + countPerDiceSum[8], producing);
+        boolean[] chosen = spreadHighRollers(order, producing, numHighRollers, topology);
+        int placed = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            // first the spread out ones, then (if needed) any others
+            for (int i = 0; i < producing && placed < numHighRollers; i++) {
+                if (chosen[i] == (pass == 0)) {
+                    int tokenNum = (placed < countPerDiceSum[6] ? 6 : 8);
+                    hexagons[order[i]].placeNumberToken(tokenNum);
+                    chosen[i] = true;
+                    placed++;
+                }
+            }
+        }
+
+        // deal the other tokens onto the remaining hexagons
+        int[] tokens = new int[producing];
+        int tokenCount = 0;
+        for (int sum = 0; sum < countPerDiceSum.length; sum++) {
+            if (sum == 6 || sum == 8) {
+                continue;
+            }
+            for (int k = 0; k < countPerDiceSum[sum] && tokenCount < tokens.length; k++) {
+                tokens[tokenCount++] = sum;
+            }
+        }
+        random.shuffle(tokens, tokenCount);
+        for (int i = 0, next = 0; i < producing && next < tokenCount; i++) {
+            if (!chosen[i]) {
+                hexagons[order[i]].placeNumberToken(tokens[next++]);
+            }
+        }
+    }
+
+    /**
+     * Choose hexagons for the high rollers, none of them adjacent
+     *
+     * @return for each entry of order, whether it was chosen
+     */
+    private static boolean[] spreadHighRollers(int[] order, int length, int wanted,
+                                               BoardTopology topology) {
+        // how many chosen hexagons each hexagon is on or next to; only
+        // the hexagons in order are counted as free
+        int[] blocked = new int[topology.getHexCount()];
+        boolean[] candidate = new boolean[blocked.length];
+        for (int i = 0; i < length; i++) {
+            candidate[order[i]] = true;
+        }
+        int[] picks = new int[wanted];
+        boolean[] best = new boolean[length];
+        int depth = 0, bestDepth = 0, next = 0;
+        int free = length;
+
+        for (int steps = 8 * length + 64; depth < wanted && steps > 0; steps--) {
+            // first free hexagon from where this level left off
+            int i = next;
+            while (i < length && blocked[order[i]] > 0) {
+                i++;
+            }
+
+            if (i < length && free >= wanted - depth) {
+                free -= block(order[i], 1, blocked, candidate, topology);
+                picks[depth++] = i;
+                next = i + 1;
+                if (depth > bestDepth) {
+                    bestDepth = depth;
+                    Arrays.fill(best, false);
+                    for (int d = 0; d < depth; d++) {
+                        best[picks[d]] = true;
+                    }
+                }
+            } else if (depth > 0) {
+                // dead end, so undo the last choice and try the one after it
+                depth--;
+                free += block(order[picks[depth]], -1, blocked, candidate, topology);
+                next = picks[depth] + 1;
+            } else {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Mark (or unmark) a hexagon and its neighbors as taken
+     *
+     * @return how many candidates went from free to taken (or back)
+     */
+    private static int block(int hexId, int delta, int[] blocked, boolean[] candidate,
+                             BoardTopology topology) {
+        int changed = adjustBlocked(hexId, delta, blocked, candidate);
+        for (int k = topology.hexNeighborStart(hexId); k < topology.hexNeighborEnd(hexId); k++) {
+            changed += adjustBlocked(topology.hexNeighbor(k), delta, blocked, candidate);
+        }
+        return changed;
+    }
+
+    private static int adjustBlocked(int hexId, int delta, int[] blocked, boolean[] candidate) {
+        blocked[hexId] += delta;
+        // a candidate changes state when its count leaves or returns to zero
+        return candidate[hexId] && blocked[hexId] == (delta > 0 ? 1 : 0) ? 1 : 0;
+    }
+
+    private static boolean canHoldToken(Hexagon hexagon) {
+        Hexagon.TerrainType terrainType = hexagon.getTerrainType();
+        return hexagon.getNumberTokenAsInt() == 0
+                && terrainType != Hexagon.TerrainType.DESERT
+                && terrainType != Hexagon.TerrainType.SEA;
+    }
+
+    public static Resource.ResourceType getType(String string) {
+        for (int i = 0; i < Resource.RESOURCE_TYPES.length; i++) {
+            if (string == Resource.RESOURCE_TYPES[i].toString().toLowerCase()) {
+                return Resource.RESOURCE_TYPES[i];
+            }
+        }
+
+        return null;
+    }
+
+    public static <E> List<E> pickNRandomElements(List<E> list, int n, GameRandom r) {
+        int length = list.size();
+
+        if (length < n) {
+            return null;
+        }
+
+        //We don't need to shuffle the whole list
+        for (int i = length - 1; i >= length - n; --i)
+        {
+            Collections.swap(list, i , r.nextInt(i + 1));
+        }
+        return list.subList(length - n, length);
+    }
+
+}
+
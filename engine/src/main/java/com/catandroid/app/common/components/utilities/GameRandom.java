@@ -0,0 +1,234 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components.utilities;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seedable, splittable source of randomness for a single game
+ *
+ * This is the SplitMix64 generator used by java.util.SplittableRandom,
+ * reimplemented here because that class is unavailable before Android API 24.
+ * Each game owns its own instance, so parallel simulations never contend on a
+ * shared generator, and a game created from the same seed replays exactly.
+ * The state is two longs, so it also survives the board's Gson round trip.
+ */
+public class GameRandom {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+	// source of seeds for generators created without one
+	private static final AtomicLong defaultSeedGenerator =
+			new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+	private long initialSeed;
+	private long seed;
+	private long gamma;
+
+	/**
+	 * Create a generator with an arbitrary seed
+	 */
+	public GameRandom() {
+		this(mix64(defaultSeedGenerator.getAndAdd(2 * GOLDEN_GAMMA)));
+	}
+
+	/**
+	 * Create a generator that replays the same sequence for the same seed
+	 *
+	 * @param seed
+	 *            the initial seed
+	 */
+	public GameRandom(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	private GameRandom(long seed, long gamma) {
+		this.initialSeed = seed;
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * Get the seed this generator was created with
+	 *
+	 * @return the initial seed
+	 */
+	public long getInitialSeed() {
+		return initialSeed;
+	}
+
+	/**
+	 * Rewind or advance this generator to the state of another
+	 *
+	 * @param other
+	 *            the generator to copy
+	 */
+	public void copyFrom(GameRandom other) {
+		initialSeed = other.initialSeed;
+		seed = other.seed;
+		gamma = other.gamma;
+	}
+
+	/**
+	 * Write the current position of this generator (16 bytes)
+	 *
+	 * @param out
+	 *            the buffer to write to
+	 */
+	public void encode(ByteBuffer out) {
+		out.putLong(seed);
+		out.putLong(gamma);
+	}
+
+	/**
+	 * Move this generator to a position written by encode()
+	 *
+	 * @param in
+	 *            the buffer to read from
+	 */
+	public void decode(ByteBuffer in) {
+		seed = in.getLong();
+		gamma = in.getLong();
+	}
+
+	/**
+	 * Create a new generator whose sequence is independent of this one
+	 *
+	 * @return the new generator
+	 */
+	public GameRandom split() {
+		return new GameRandom(nextLong(), mixGamma(nextSeed()));
+	}
+
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+
+	public int nextInt() {
+		return mix32(nextSeed());
+	}
+
+	/**
+	 * Get a uniformly distributed int in [0, bound)
+	 *
+	 * @param bound
+	 *            the exclusive upper bound (must be positive)
+	 * @return the random int
+	 */
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("bound must be positive");
+		}
+
+		int r = mix32(nextSeed());
+		int m = bound - 1;
+		if ((bound & m) == 0) {
+			// power of two
+			return r & m;
+		}
+
+		// reject the values that would bias the result
+		for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+		}
+		return r;
+	}
+
+	/**
+	 * Get a uniformly distributed double in [0, 1)
+	 *
+	 * @return the random double
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	public boolean nextBoolean() {
+		return mix32(nextSeed()) < 0;
+	}
+
+	/**
+	 * Shuffle an array in place (Fisher-Yates)
+	 *
+	 * @param array
+	 *            the array to shuffle
+	 */
+	public <T> void shuffle(T[] array) {
+		for (int i = array.length - 1; i > 0; i--) {
+			int j = nextInt(i + 1);
+			T tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+
+	/**
+	 * Shuffle the start of an int array in place (Fisher-Yates)
+	 *
+	 * @param array
+	 *            the array to shuffle
+	 * @param length
+	 *            the number of leading entries to shuffle
+	 */
+	public void shuffle(int[] array, int length) {
+		for (int i = length - 1; i > 0; i--) {
+			int j = nextInt(i + 1);
+			int tmp = array[i];
+			array[i] = array[j];
+			array[j] = tmp;
+		}
+	}
+
+	/**
+	 * Shuffle a list in place (Fisher-Yates)
+	 *
+	 * @param list
+	 *            the list to shuffle
+	 */
+	public <T> void shuffle(List<T> list) {
+		for (int i = list.size() - 1; i > 0; i--) {
+			list.set(i, list.set(nextInt(i + 1), list.get(i)));
+		}
+	}
+
+	private long nextSeed() {
+		return (seed += gamma);
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		// ensure enough bit transitions for a good gamma
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
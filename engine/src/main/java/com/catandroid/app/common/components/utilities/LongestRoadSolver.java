@@ -0,0 +1,159 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components.utilities;
+
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardTopology;
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+/**
+ * Exact longest road calculation
+ *
+ * The longest road is the longest trail through a player's roads: no road
+ * may be used twice, and the trail may end at, but not pass through, another
+ * player's settlement or city. A player has at most Player.MAX_ROADS roads,
+ * so the roads being searched are numbered locally and the roads used so far
+ * fit in an int bitmask. Every trail is tried from every end point, stopping
+ * as soon as a trail uses every road.
+ */
+public final class LongestRoadSolver {
+
+	private final BoardTopology topology;
+	private final Edge[] edges;
+	private final Vertex[] vertices;
+	private final int playerNumber;
+	private final int[] roads = new int[Player.MAX_ROADS];
+	private int count, best;
+
+	private LongestRoadSolver(Board board, int playerNumber) {
+		this.topology = board.getTopology();
+		this.edges = board.getEdges();
+		this.vertices = board.getVertices();
+		this.playerNumber = playerNumber;
+	}
+
+	/**
+	 * Get the length of a player's longest road
+	 *
+	 * @param board
+	 *            the board
+	 * @param player
+	 *            the player
+	 * @return the length of the longest road
+	 */
+	public static int longestRoad(Board board, Player player) {
+		LongestRoadSolver solver = new LongestRoadSolver(board, player.getPlayerNumber());
+		Edge[] edges = solver.edges;
+		for (int i = 0; i < edges.length && solver.count < solver.roads.length; i++) {
+			if (edges[i].getOwnerPlayerNumber() == solver.playerNumber) {
+				solver.roads[solver.count++] = i;
+			}
+		}
+		return solver.solve();
+	}
+
+	/**
+	 * Get the length of the longest road in the network containing a road
+	 *
+	 * Only the roads reachable from the given one (without passing through
+	 * another player's building) are searched.
+	 *
+	 * @param board
+	 *            the board
+	 * @param road
+	 *            a road
+	 * @return the length of the longest road through the road's network
+	 */
+	public static int longestRoad(Board board, Edge road) {
+		int playerNumber = road.getOwnerPlayerNumber();
+		if (playerNumber < 0) {
+			return 0;
+		}
+
+		LongestRoadSolver solver = new LongestRoadSolver(board, playerNumber);
+		BoardTopology topology = solver.topology;
+		solver.roads[solver.count++] = road.getId();
+		for (int i = 0; i < solver.count; i++) {
+			solver.collect(topology.edgeVertex(solver.roads[i], 0));
+			solver.collect(topology.edgeVertex(solver.roads[i], 1));
+		}
+		return solver.solve();
+	}
+
+	private void collect(int vertex) {
+		if (isBlocked(vertex)) {
+			return;
+		}
+
+		for (int k = topology.vertexEdgeStart(vertex); k < topology.vertexEdgeEnd(vertex); k++) {
+			int edge = topology.vertexEdge(k);
+			if (edges[edge].getOwnerPlayerNumber() == playerNumber
+					&& indexOf(edge) < 0 && count < roads.length) {
+				roads[count++] = edge;
+			}
+		}
+	}
+
+	private int solve() {
+		best = 0;
+		for (int i = 0; i < count && best < count; i++) {
+			search(topology.edgeVertex(roads[i], 0), 0, 0);
+			search(topology.edgeVertex(roads[i], 1), 0, 0);
+		}
+		return best;
+	}
+
+	private void search(int vertex, int used, int length) {
+		if (length > best) {
+			best = length;
+		}
+		if (best == count || (length > 0 && isBlocked(vertex))) {
+			return;
+		}
+
+		for (int k = topology.vertexEdgeStart(vertex); k < topology.vertexEdgeEnd(vertex); k++) {
+			int edge = topology.vertexEdge(k);
+			if (edges[edge].getOwnerPlayerNumber() != playerNumber) {
+				continue;
+			}
+
+			int index = indexOf(edge);
+			if (index < 0 || (used & (1 << index)) != 0) {
+				continue;
+			}
+
+			search(topology.otherVertex(edge, vertex), used | (1 << index), length + 1);
+		}
+	}
+
+	private boolean isBlocked(int vertex) {
+		Player owner = vertices[vertex].getOwner();
+		return owner != null && owner.getPlayerNumber() != playerNumber;
+	}
+
+	private int indexOf(int edge) {
+		for (int i = 0; i < count; i++) {
+			if (roads[i] == edge) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,79 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components.utilities;
+
+/**
+ * Zobrist keys for hashing game positions
+ *
+ * Each feature of a position (a road, a building, the robber, a resource
+ * count, the phase) has a fixed random 64-bit key, and a position hashes to
+ * the xor of the keys of its features, so that a move updates the hash with
+ * one or two xors. Keys are derived from a fixed seed rather than stored in
+ * tables: they never change between runs or devices, which lets peers compare
+ * hashes, and they cover any board size or resource count.
+ */
+public final class ZobristKeys {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private static final long EDGE = 0x1d8e4e27c47d124fL;
+	private static final long BUILDING = 0x6c62272e07bb0142L;
+	private static final long ROBBER = 0x2545f4914f6cdd1dL;
+	private static final long RESOURCE = 0x5851f42d4c957f2dL;
+	private static final long PHASE = 0x14057b7ef767814fL;
+	private static final long RETURN_PHASE = 0x3c6ef372fe94f82bL;
+	private static final long TURN = 0x7f4a7c159e3779b9L;
+
+	private ZobristKeys() {
+	}
+
+	public static long edge(int edgeId, int playerNumber) {
+		return key(EDGE, edgeId, playerNumber, 0);
+	}
+
+	public static long building(int vertexId, int playerNumber, int building) {
+		return key(BUILDING, vertexId, playerNumber, building);
+	}
+
+	public static long robber(int hexId) {
+		return key(ROBBER, hexId, 0, 0);
+	}
+
+	public static long resource(int playerNumber, int resourceType, int count) {
+		return key(RESOURCE, playerNumber, resourceType, count);
+	}
+
+	public static long phase(int phase) {
+		return key(PHASE, phase, 0, 0);
+	}
+
+	public static long returnPhase(int phase) {
+		return key(RETURN_PHASE, phase, 0, 0);
+	}
+
+	public static long turn(int turn) {
+		return key(TURN, turn, 0, 0);
+	}
+
+	private static long key(long feature, int a, int b, int c) {
+		long z = feature + GOLDEN_GAMMA * (((long) a << 32) ^ ((long) b << 16) ^ c);
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
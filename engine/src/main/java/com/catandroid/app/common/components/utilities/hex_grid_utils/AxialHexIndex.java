@@ -0,0 +1,85 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components.utilities.hex_grid_utils;
+
+/**
+ * Dense map from axial coordinates to non-negative ints (such as hexagon ids)
+ *
+ * The values live in a flat array over the bounding box of the map, so a
+ * lookup is one bounds check and one array read, with no hashing or boxing.
+ * Coordinates outside the box, or never assigned, map to -1.
+ */
+public final class AxialHexIndex
+{
+    private final int minQ, minR, width, height;
+    private final int[] values;
+
+    public AxialHexIndex(int minQ, int maxQ, int minR, int maxR)
+    {
+        this.minQ = minQ;
+        this.minR = minR;
+        this.width = maxQ - minQ + 1;
+        this.height = maxR - minR + 1;
+        this.values = new int[width * height];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = -1;
+        }
+    }
+
+    /**
+     * Index covering a perfectly-centered hexagonal map
+     *
+     * @param radius
+     *            the largest |q| and |r| on the map
+     */
+    static public AxialHexIndex forRadius(int radius)
+    {
+        return new AxialHexIndex(-radius, radius, -radius, radius);
+    }
+
+    public int get(int q, int r)
+    {
+        int column = q - minQ, row = r - minR;
+        if (column < 0 || column >= width || row < 0 || row >= height)
+        {
+            return -1;
+        }
+        return values[column * height + row];
+    }
+
+    public int get(AxialHexLocation location)
+    {
+        return get(location.q, location.r);
+    }
+
+    public int get(long key)
+    {
+        return get(HexGridUtils.unpackQ(key), HexGridUtils.unpackR(key));
+    }
+
+    public void put(int q, int r, int value)
+    {
+        int column = q - minQ, row = r - minR;
+        if (column < 0 || column >= width || row < 0 || row >= height)
+        {
+            throw new IndexOutOfBoundsException("(" + q + ", " + r + ") is outside the index");
+        }
+        values[column * height + row] = value;
+    }
+}
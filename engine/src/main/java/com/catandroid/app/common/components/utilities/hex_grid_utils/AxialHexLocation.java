@@ -65,7 +65,7 @@ public class AxialHexLocation
 
     static public boolean isCloseTo(AxialHexLocation a, Collection<AxialHexLocation> locations)
     {
-        Boolean inQrange, inRrange;
+        boolean inQrange, inRrange;
         for (AxialHexLocation location : locations) {
             inQrange = location.q == (a.q - 1) || location.q == a.q || location.q == (a.q + 1);
             inRrange = location.r == (a.r - 1) || location.r == a.r || location.r == (a.r + 1);
@@ -85,7 +85,7 @@ class CubicHexLocation
 
     static public int distance(CubicHexLocation a, CubicHexLocation b)
     {
-        return CubicHexLocation.length(CubicHexLocation.subtractCubic(a, b));
+        return (Math.abs(a.q - b.q) + Math.abs(a.r - b.r) + Math.abs(a.s - b.s)) / 2;
     }
 
 }
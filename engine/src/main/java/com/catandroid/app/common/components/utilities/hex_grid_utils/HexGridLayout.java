@@ -40,13 +40,23 @@ public class HexGridLayout
     static public HexPoint origin_default = new HexPoint(0.0, 0.0);
 
     static public HexPoint hexToPixel(HexGridLayout hexGridLayout, AxialHexLocation h)
+    {
+        return new HexPoint(HexGridLayout.hexToPixelX(hexGridLayout, h.q, h.r),
+                HexGridLayout.hexToPixelY(hexGridLayout, h.q, h.r));
+    }
+
+
+    static public double hexToPixelX(HexGridLayout hexGridLayout, int q, int r)
     {
         HexGridOrientation M = hexGridLayout.hexGridOrientation;
-        HexPoint size = hexGridLayout.size;
-        HexPoint origin = hexGridLayout.origin;
-        double x = (M.f0 * h.q + M.f1 * h.r) * size.x;
-        double y = (M.f2 * h.q + M.f3 * h.r) * size.y;
-        return new HexPoint(x + origin.x, y + origin.y);
+        return (M.f0 * q + M.f1 * r) * hexGridLayout.size.x + hexGridLayout.origin.x;
+    }
+
+
+    static public double hexToPixelY(HexGridLayout hexGridLayout, int q, int r)
+    {
+        HexGridOrientation M = hexGridLayout.hexGridOrientation;
+        return (M.f2 * q + M.f3 * r) * hexGridLayout.size.y + hexGridLayout.origin.y;
     }
 
 
@@ -62,12 +72,63 @@ public class HexGridLayout
     }
 
 
-    static public HexPoint hexCornerOffset(HexGridLayout hexGridLayout, int corner)
+    static public AxialHexLocation pixelToAxial(HexGridLayout hexGridLayout, HexPoint p)
+    {
+        long key = HexGridLayout.pixelToPackedAxial(hexGridLayout, p.x, p.y);
+        return new AxialHexLocation(HexGridUtils.unpackQ(key), HexGridUtils.unpackR(key));
+    }
+
+
+    /**
+     * Hexagon under a point, rounded as in FractionalHexLocation.hexRound
+     *
+     * @return the axial coordinate, packed with HexGridUtils.packAxial
+     */
+    static public long pixelToPackedAxial(HexGridLayout hexGridLayout, double x, double y)
     {
         HexGridOrientation M = hexGridLayout.hexGridOrientation;
-        HexPoint size = hexGridLayout.size;
-        double angle = 2.0 * Math.PI * (M.start_angle - corner) / 6;
-        return new HexPoint(size.x * Math.cos(angle), size.y * Math.sin(angle));
+        double px = (x - hexGridLayout.origin.x) / hexGridLayout.size.x;
+        double py = (y - hexGridLayout.origin.y) / hexGridLayout.size.y;
+        double fq = M.b0 * px + M.b1 * py;
+        double fr = M.b2 * px + M.b3 * py;
+        double fs = -fq - fr;
+        int q = (int)(Math.round(fq));
+        int r = (int)(Math.round(fr));
+        int s = (int)(Math.round(fs));
+        double q_diff = Math.abs(q - fq);
+        double r_diff = Math.abs(r - fr);
+        double s_diff = Math.abs(s - fs);
+        if (q_diff > r_diff && q_diff > s_diff)
+        {
+            q = -r - s;
+        }
+        else
+        if (r_diff > s_diff)
+        {
+            r = -q - s;
+        }
+        return HexGridUtils.packAxial(q, r);
+    }
+
+
+    static public HexPoint hexCornerOffset(HexGridLayout hexGridLayout, int corner)
+    {
+        return new HexPoint(HexGridLayout.hexCornerOffsetX(hexGridLayout, corner),
+                HexGridLayout.hexCornerOffsetY(hexGridLayout, corner));
+    }
+
+
+    static public double hexCornerOffsetX(HexGridLayout hexGridLayout, int corner)
+    {
+        double angle = 2.0 * Math.PI * (hexGridLayout.hexGridOrientation.start_angle - corner) / 6;
+        return hexGridLayout.size.x * Math.cos(angle);
+    }
+
+
+    static public double hexCornerOffsetY(HexGridLayout hexGridLayout, int corner)
+    {
+        double angle = 2.0 * Math.PI * (hexGridLayout.hexGridOrientation.start_angle - corner) / 6;
+        return hexGridLayout.size.y * Math.sin(angle);
     }
 
 
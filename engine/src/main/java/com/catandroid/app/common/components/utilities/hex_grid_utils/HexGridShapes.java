@@ -0,0 +1,91 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components.utilities.hex_grid_utils;
+
+import java.util.ArrayList;
+
+/**
+ * Sets of axial coordinates for common map shapes
+ *
+ * The results can be combined freely (e.g. several hexagons around
+ * different centers make an archipelago) and handed to BoardGeometry.
+ */
+public class HexGridShapes
+{
+    /**
+     * Perfectly-centered hexagon around the origin
+     *
+     * @param radius
+     *            the largest distance from the center (0 for a single hexagon)
+     */
+    static public ArrayList<AxialHexLocation> hexagon(int radius)
+    {
+        return hexagon(radius, 0, 0);
+    }
+
+    /**
+     * Perfectly-centered hexagon around a given center
+     *
+     * @param radius
+     *            the largest distance from the center (0 for a single hexagon)
+     * @param centerQ
+     *            axial column of the center
+     * @param centerR
+     *            axial row of the center
+     */
+    static public ArrayList<AxialHexLocation> hexagon(int radius, int centerQ, int centerR)
+    {
+        ArrayList<AxialHexLocation> shape =
+                new ArrayList<AxialHexLocation>(3 * radius * (radius + 1) + 1);
+        for (int q = -radius; q <= radius; q++)
+        {
+            int r1 = Math.max(-radius, -q - radius);
+            int r2 = Math.min(radius, -q + radius);
+            for (int r = r1; r <= r2; r++)
+            {
+                shape.add(new AxialHexLocation(centerQ + q, centerR + r));
+            }
+        }
+        return shape;
+    }
+
+    /**
+     * Rectangle of flat-topped hexagons, roughly centered on the origin
+     *
+     * @param columns
+     *            the number of columns
+     * @param rows
+     *            the number of hexagons in each column
+     */
+    static public ArrayList<AxialHexLocation> rectangle(int columns, int rows)
+    {
+        ArrayList<AxialHexLocation> shape = new ArrayList<AxialHexLocation>(columns * rows);
+        int firstColumn = -(columns / 2), firstRow = -(rows / 2);
+        for (int column = 0; column < columns; column++)
+        {
+            int q = firstColumn + column;
+            // every other column is shifted down by half a hexagon
+            int offset = (q - (q & 1)) / 2;
+            for (int row = 0; row < rows; row++)
+            {
+                shape.add(new AxialHexLocation(q, firstRow + row - offset));
+            }
+        }
+        return shape;
+    }
+}
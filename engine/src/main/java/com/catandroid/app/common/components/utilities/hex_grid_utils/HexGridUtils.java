@@ -17,8 +17,6 @@
  */
 package com.catandroid.app.common.components.utilities.hex_grid_utils;
 
-import com.catandroid.app.common.components.utilities.hex_grid_utils.unsigned_data.ULong;
-
 import java.util.ArrayList;
 
 /**
@@ -31,31 +29,68 @@ public class HexGridUtils
     {
     }
 
-    public static Long perfectHash(int a, int b)
+    /**
+     * Pack an axial coordinate into one primitive key
+     *
+     * The key is unique for every (q, r) pair, costs no allocation and can
+     * be taken apart again with unpackQ and unpackR.
+     */
+    static public long packAxial(int q, int r)
     {
-        ULong A = ULong.valueOf(a >= 0 ? 2 * (long)a : -2 * (long)a - 1);
-        ULong B = ULong.valueOf (b >= 0 ? 2 * (long)b : -2 * (long)b - 1);
-        ULong C = ULong.valueOf(0);
-        ULong i = ULong.valueOf(0);
-        if(A.compareTo(B) >= 0) {
-            while(i.compareTo(A) == -1) {
-                C = C.add(A);
-                i = i.add(1);
-            }
-            C = C.add(A);
-            C = C.add(B);
-        }
-        else {
-            while(i.compareTo(B) == -1) {
-                C = C.add(B);
-                i = i.add(1);
-            }
-            C = C.add(A);
-        }
-        return a < 0 && b < 0 || a >= 0 && b >= 0 ? C.longValue() : -C.longValue() - 1;
+        return ((long) q << 32) | (r & 0xffffffffL);
+    }
+
+    static public long packAxial(AxialHexLocation location)
+    {
+        return packAxial(location.q, location.r);
+    }
+
+    static public int unpackQ(long key)
+    {
+        return (int) (key >> 32);
+    }
+
+    static public int unpackR(long key)
+    {
+        return (int) key;
+    }
+
+    // axial offsets to the six neighbors, in the order of AxialHexLocation.axialDirections
+    static public final int[] DIRECTION_Q = {1, 1, 0, -1, -1, 0};
+    static public final int[] DIRECTION_R = {-1, 0, 1, 1, 0, -1};
+
+    static public long neighbor(long key, int direction)
+    {
+        return packAxial(unpackQ(key) + DIRECTION_Q[direction], unpackR(key) + DIRECTION_R[direction]);
+    }
+
+    /**
+     * Number of steps between two axial coordinates, without building cubes
+     */
+    static public int distance(int q0, int r0, int q1, int r1)
+    {
+        int dq = q0 - q1;
+        int dr = r0 - r1;
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+
+    static public int distance(long a, long b)
+    {
+        return distance(unpackQ(a), unpackR(a), unpackQ(b), unpackR(b));
+    }
+
+    /**
+     * Szudzik pairing of the zigzag-encoded coordinates, signed by quadrant
+     */
+    public static long perfectHash(int a, int b)
+    {
+        long A = a >= 0 ? 2 * (long)a : -2 * (long)a - 1;
+        long B = b >= 0 ? 2 * (long)b : -2 * (long)b - 1;
+        long C = A >= B ? A * A + A + B : B * B + A;
+        return a < 0 && b < 0 || a >= 0 && b >= 0 ? C : -C - 1;
     }
 
-    static public Long perfectHash(AxialHexLocation location)
+    static public long perfectHash(AxialHexLocation location)
     {
         return perfectHash(location.q, location.r);
     }
@@ -0,0 +1,38 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.players;
+
+import com.catandroid.app.common.components.Board;
+
+public interface AutomatedPlayerFactory {
+
+	/**
+	 * Create a bot for a seat on the board
+	 *
+	 * @param board
+	 *            the board the bot plays on
+	 * @param playerNumber
+	 *            the seat number [0, 3]
+	 * @param color
+	 *            the seat color
+	 * @param name
+	 *            the player name
+	 * @return a Player that also implements AutomatedPlayer
+	 */
+	Player createPlayer(Board board, int playerNumber, Player.Color color, String name);
+}
@@ -20,6 +20,10 @@ package com.catandroid.app.common.players;
 import java.util.Vector;
 
 import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BuildSites;
+import com.catandroid.app.common.components.BoardTopology;
+import com.catandroid.app.common.components.RoadPlanner;
+import com.catandroid.app.common.components.TradeSolver;
 import com.catandroid.app.common.components.board_positions.Edge;
 import com.catandroid.app.common.components.board_positions.Hexagon;
 import com.catandroid.app.common.components.board_pieces.Resource.ResourceType;
@@ -30,6 +34,22 @@ public class BalancedAI extends Player implements AutomatedPlayer {
 
     protected static final int[] preference = { 9, 8, 8, 10, 7, 8 };
 
+    // farthest site, in roads, worth heading for
+    private static final int MAX_PLANNED_ROADS = 4;
+
+    public static final AutomatedPlayerFactory FACTORY = new AutomatedPlayerFactory() {
+        @Override
+        public Player createPlayer(Board board, int playerNumber, Color color, String name) {
+            return new BalancedAI(board, playerNumber, color, name);
+        }
+    };
+
+    // hexagon and vertex scores under preference, for the board they were worked out on
+    private transient int[] layoutValues;
+    private transient Board valuedBoard;
+
+    private transient TradeSolver tradeSolver;
+
     public BalancedAI(Board board, int index, Color color, String name) {
         super(board, index, "", color, name, Player.PLAYER_BOT);
     }
@@ -44,26 +64,10 @@ public class BalancedAI extends Player implements AutomatedPlayer {
             boolean settlementPriority = settlements + cities < 4;
             boolean roadContender = board.getLongestRoad() - getRoadLength() <= 3;
 
-            boolean canSettle = false;
-            boolean canCity = false;
-
             // check if we have a location to build a settlement or city
-            for (int i = 0; i < roads.size(); i++) {
-                Vertex v1 = roads.get(i).getV0Clockwise();
-                Vertex v2 = roads.get(i).getV1Clockwise();
-
-                if (v1.canBuild(this, Vertex.SETTLEMENT)
-                        || v2.canBuild(this, Vertex.SETTLEMENT))
-                {
-                    canSettle = true;
-                }
-
-                if (v1.canBuild(this, Vertex.CITY)
-                        || v2.canBuild(this, Vertex.CITY))
-                {
-                    canCity = true;
-                }
-            }
+            BuildSites sites = board.getBuildSites();
+            boolean canSettle = sites.nextSettlement(getPlayerNumber(), 0) >= 0;
+            boolean canCity = sites.nextCity(getPlayerNumber(), 0) >= 0;
 
             // don't uselessly expand roads until player has 4 settlements/cities
             boolean considerRoad = getNumRoads() < MAX_ROADS
@@ -90,65 +94,17 @@ public class BalancedAI extends Player implements AutomatedPlayer {
                 }
             }
 
-            // try to build a road if we can afford it
+            // build towards the best place to settle, or else extend the network
             if (considerRoad && affordRoad()) {
-                boolean builtRoad = false;
-
-                // try to build towards somewhere nearby to settle
-                if (settlementPriority) {
-                    for (int i = 0; i < reachingIds.size(); i++) {
-                        Vertex vertex = board.getVertexById(reachingIds.get(i));
-                        for (int j = 0; j < 3; j++) {
-                            Edge edge = vertex.getEdge(j);
-                            if (edge == null || edge.hasRoad())
-                            {
-                                continue;
-                            }
-
-                            Vertex other = edge.getAdjacent(vertex);
-                            if (!other.hasBuilding() && other.couldBuild()
-                                    && build(edge)) {
-                                builtRoad = true;
-                                break;
-                            }
-                        }
-
-                        if (builtRoad)
-                        {
-                            break;
-                        }
-                    }
-                }
-
-                // build off an existing road
-                if (!builtRoad && reachingIds.size() > 0) {
-                    for (int i = 0; i < 3; i++) {
-                        Vertex lastRoadEnd = board.getVertexById(reachingIds.get(reachingIds.size() - 1));
-                        Edge edge = lastRoadEnd.getEdge(i);
-                        if (edge != null && build(edge))
-                        {
-                            builtRoad = true;
-                        }
-                    }
+                Edge road = planRoad();
+                if (road == null)
+                {
+                    road = pickRoad();
                 }
 
-                // try and addCubic to another recent road
-                if (!builtRoad) {
-                    for (int i = roads.size() - 1; i >= 0; i--) {
-                        Edge road = roads.get(i);
-                        Vertex v1 = road.getV0Clockwise();
-                        Vertex v2 = road.getV1Clockwise();
-
-                        for (int j = 0; j < 3; j++) {
-                            Edge edge1 = v1.getEdge(j);
-                            Edge edge2 = v2.getEdge(j);
-
-                            if (build(edge1) || build(edge2))
-                            {
-                                done = false;
-                            }
-                        }
-                    }
+                if (road != null && build(road))
+                {
+                    done = false;
                 }
             }
 
@@ -207,8 +163,8 @@ public class BalancedAI extends Player implements AutomatedPlayer {
         // build from random settlement and build in a random direction
         while (true) {
             Vertex vertex = board.getVertexById(settlementIds.get(
-                    (int) (Math.random() * settlementIds.size())));
-            int pick = (int) (Math.random() * 3);
+                    board.getRandom().nextInt(settlementIds.size())));
+            int pick = board.getRandom().nextInt(3);
             Edge edge = vertex.getEdge(pick);
             if (edge != null && build(edge))
             {
@@ -219,7 +175,9 @@ public class BalancedAI extends Player implements AutomatedPlayer {
 
     @Override
     public int progressRoad(Edge[] edges) {
-        Edge road = pickRoad();
+        Edge road = planRoad();
+        if (road == null)
+            road = pickRoad();
         if (road == null)
             return -1;
 
@@ -333,27 +291,55 @@ public class BalancedAI extends Player implements AutomatedPlayer {
         Vertex best = null;
         int highest = 0;
 
-        for (int i = 0; i < roads.size(); i++) {
-            Vertex v1 = roads.get(i).getV0Clockwise();
-            Vertex v2 = roads.get(i).getV1Clockwise();
-
-            int value1 = v1.canBuild(this, Vertex.SETTLEMENT) ? vertexValue(v1,
-                    preference) : 0;
-            int value2 = v2.canBuild(this, Vertex.SETTLEMENT) ? vertexValue(v2,
-                    preference) : 0;
-
-            if (value1 > value2 && value1 > highest) {
-                highest = value1;
-                best = v1;
-            } else if (value2 > highest) {
-                highest = value2;
-                best = v2;
+        BuildSites sites = board.getBuildSites();
+        for (int id = sites.nextSettlement(getPlayerNumber(), 0); id >= 0;
+                id = sites.nextSettlement(getPlayerNumber(), id + 1)) {
+            Vertex vertex = board.getVertexById(id);
+            int value = vertexValue(vertex, preference);
+            if (value > highest) {
+                highest = value;
+                best = vertex;
             }
         }
 
         return best;
     }
 
+    /**
+     * Pick the first road on the way to the open site with the most value
+     * per road still needed (counting the settlement as two more)
+     *
+     * @return the road, or null if no open site can be reached
+     */
+    protected Edge planRoad() {
+        if (settlements >= MAX_SETTLEMENTS)
+        {
+            return null;
+        }
+
+        RoadPlanner planner = board.getRoadPlanner();
+        BuildSites sites = board.getBuildSites();
+        int roadsLeft = MAX_ROADS - getNumRoads();
+        int best = -1, bestValue = 0, bestDistance = 1;
+        for (int id = sites.nextOpen(0); id >= 0; id = sites.nextOpen(id + 1)) {
+            // sites at distance 0 can be settled without a road
+            int distance = planner.getDistance(getPlayerNumber(), id);
+            if (distance == 0 || distance > Math.min(roadsLeft, MAX_PLANNED_ROADS))
+            {
+                continue;
+            }
+
+            int value = vertexValue(board.getVertexById(id), preference);
+            if (best < 0 || value * (bestDistance + 2) > bestValue * (distance + 2)) {
+                best = id;
+                bestValue = value;
+                bestDistance = distance;
+            }
+        }
+
+        return best < 0 ? null : board.getEdgeById(planner.nextRoad(getPlayerNumber(), best));
+    }
+
     protected Edge pickRoad() {
         // build off an existing road
         if (reachingIds.size() > 0) {
@@ -392,6 +378,14 @@ public class BalancedAI extends Player implements AutomatedPlayer {
     }
 
     protected int hexagonValue(Hexagon hexagon, int[] factors) {
+        if (factors == preference) {
+            return getLayoutValues(board)[hexagon.getId()];
+        }
+
+        return scoreHexagon(hexagon, factors);
+    }
+
+    private static int scoreHexagon(Hexagon hexagon, int[] factors) {
         if (factors != null && hexagon.getTerrainType() != Hexagon.TerrainType.DESERT
                 && hexagon.getTerrainType() != Hexagon.TerrainType.SEA) {
             return factors[hexagon.getResourceType().ordinal()] * hexagon.getNumberTokenAsObject().getTotalWaysToSum();
@@ -402,91 +396,73 @@ public class BalancedAI extends Player implements AutomatedPlayer {
     }
 
     protected int vertexValue(Vertex vertex, int[] factors) {
+        if (factors == preference) {
+            int[] values = getLayoutValues(board);
+            return values[board.getHexagons().length + vertex.getId()];
+        }
+
         int value = 1;
-        for (int i = 0; i < 3; i++) {
-            Hexagon hexagon = vertex.getHexagon(i);
-            if (hexagon != null)
-            {
-                value += hexagonValue(hexagon, factors);
-            }
+        int id = vertex.getId();
+        BoardTopology topology = board.getTopology();
+        Hexagon[] hexagons = board.getHexagons();
+        for (int k = topology.vertexHexStart(id); k < topology.vertexHexEnd(id); k++) {
+            value += hexagonValue(hexagons[topology.vertexHex(k)], factors);
         }
 
         return value;
     }
 
-    private boolean tradeFor(int[] want) {
-        // copy list of resource we have
-        int[] have = new int[Resource.RESOURCE_TYPES.length];
-        for (int i = 0; i < have.length; i++)
-        {
-            have[i] = getResources(Resource.RESOURCE_TYPES[i]);
+    /**
+     * Get the scores of every hexagon and vertex under preference
+     *
+     * Terrain and number tokens never change during a game, so the scores
+     * are worked out once per board, and shared by the BalancedAI seats on
+     * it, instead of on every call.
+     *
+     * @return the hexagon scores by id, followed by the vertex scores by id
+     */
+    private int[] getLayoutValues(Board board) {
+        if (layoutValues != null && valuedBoard == board) {
+            return layoutValues;
         }
 
-        // create list of resources we need
-        int[] need = new int[Resource.RESOURCE_TYPES.length];
-        for (int i = 0; i < need.length; i++)
-        {
-            need[i] = want[i] - have[i];
-        }
-
-        Vector<Resource.ResourceType> resourceTypes = new Vector<Resource.ResourceType>();
-        Vector<int[]> trades = new Vector<int[]>();
-
-        // for each resource resourceTypes we need
-        for (int i = 0; i < need.length; i++) {
-            // for the number of that resource we need
-            for (int j = 0; j < need[i]; j++) {
-                Vector<int[]> offers = findTrades(Resource.RESOURCE_TYPES[i]);
-                for (int k = 0; k < offers.size(); k++) {
-                    int[] offer = offers.get(k);
-
-                    // check if it uses any resources that are wanted
-                    // and that we still would have enough resources
-                    boolean accept = true;
-                    for (int l = 0; l < offer.length; l++) {
-                        if (offer[l] > 0 && want[l] > 0 || have[l] < offer[l])
-                        {
-                            accept = false;
-                        }
-                    }
-
-                    // accept the first good offer
-                    if (accept) {
-                        // adjust balance
-                        need[i] -= 1;
-                        for (int l = 0; l < have.length; l++)
-                        {
-                            have[l] -= offer[l];
-                        }
-
-                        // addCubic to list of trades
-                        resourceTypes.add(Resource.RESOURCE_TYPES[i]);
-                        trades.add(offer);
-                        break;
-                    }
-                }
+        for (int i = 0; i < board.getNumPlayers(); i++) {
+            Player player = board.getPlayer(i);
+            if (player instanceof BalancedAI && ((BalancedAI) player).valuedBoard == board) {
+                layoutValues = ((BalancedAI) player).layoutValues;
+                valuedBoard = board;
+                return layoutValues;
             }
         }
 
-        // check if the trades cover everything needed
-        for (int i = 0; i < need.length; i++)
-        {
-            if (need[i] > 0)
-            {
-                return false;
-            }
+        Hexagon[] hexagons = board.getHexagons();
+        int[] values = new int[hexagons.length + board.getVertices().length];
+        for (int i = 0; i < hexagons.length; i++) {
+            values[i] = scoreHexagon(hexagons[i], preference);
         }
 
-        // run the trades
-        for (int i = 0; i < trades.size(); i++) {
-            // abort on first failing trade
-            if (!trade(resourceTypes.get(i), trades.get(i)))
-            {
-                return false;
+        BoardTopology topology = board.getTopology();
+        for (int id = 0; id < board.getVertices().length; id++) {
+            int value = 1;
+            for (int k = topology.vertexHexStart(id); k < topology.vertexHexEnd(id); k++) {
+                value += values[topology.vertexHex(k)];
             }
+            values[hexagons.length + id] = value;
+        }
+
+        layoutValues = values;
+        valuedBoard = board;
+        return values;
+    }
+
+    private boolean tradeFor(int[] want) {
+        if (tradeSolver == null)
+        {
+            tradeSolver = new TradeSolver();
         }
 
-        return true;
+        // make the cheapest trades, if any cover everything needed
+        return tradeSolver.solve(this, want) >= 0 && tradeSolver.apply(this);
     }
 
     private void addList(int[] a, int[] b) {
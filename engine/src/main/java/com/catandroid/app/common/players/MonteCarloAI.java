@@ -0,0 +1,604 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.players;
+
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardSnapshot;
+import com.catandroid.app.common.components.BoardTopology;
+import com.catandroid.app.common.components.GameAction;
+import com.catandroid.app.common.components.MoveGenerator;
+import com.catandroid.app.common.components.MoveList;
+import com.catandroid.app.common.components.TradeSolver;
+import com.catandroid.app.common.components.BuildSites;
+import com.catandroid.app.common.components.board_pieces.NumberToken;
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.components.utilities.GameRandom;
+
+/**
+ * Bot that picks its setup, build and robber moves by Monte Carlo tree search
+ *
+ * Each decision is searched on a copy of the board in which every seat is
+ * played by BalancedAI. A playout first deals the opponents a plausible hand
+ * (their card counts are public, what the cards are is not) and reseeds the
+ * dice, then walks a UCB1 tree (see TreeSearch) over this player's own
+ * consecutive moves, plays the game on with the BalancedAI policy for a few
+ * rounds and scores the outcome. The tree is open loop: a node stands for a
+ * sequence of moves, whatever the dice and thefts in between turned out to
+ * be.
+ *
+ * Discards, trade offers from other players and progress roads are left to
+ * BalancedAI, as is every decision on a board that can't be copied. When the
+ * search would end the build phase, BalancedAI still gets to trade and build
+ * with what is left, in the playouts as well as on the board, so that ending
+ * the phase is scored for what is actually played.
+ */
+public class MonteCarloAI extends BalancedAI {
+
+    public static final int DEFAULT_PLAYOUTS = 500;
+    public static final int DEFAULT_HORIZON = 4;
+    public static final double DEFAULT_EXPLORATION = 0.3;
+
+    // production (ways to roll, doubled for cities) counted as one victory point
+    private static final double PIPS_PER_POINT = 12;
+
+    // bound on build phase decisions in one turn, in case trades go round in circles
+    private static final int MAX_BUILD_STEPS = 12;
+
+    private static final int NO_MOVE = -1;
+
+    // bank trades are searched as one move per piece they pay for, numbered
+    // down from NO_MOVE so they can't be mistaken for packed moves
+    private static final int[][] PLAN_COSTS = { ROAD_COST, SETTLEMENT_COST, CITY_COST };
+
+    private static final Resource.ResourceType[] RESOURCES = Resource.RESOURCE_TYPES;
+
+    /**
+     * Creates bots that run a fixed number of playouts per decision, so that
+     * games replay exactly from their seed
+     */
+    public static final AutomatedPlayerFactory FACTORY = factory(DEFAULT_PLAYOUTS, 0);
+
+    private final int playouts;
+    private final long millis;
+    private int horizon = DEFAULT_HORIZON;
+    private double exploration = DEFAULT_EXPLORATION;
+    private int threads = 1;
+
+    private transient TreeSearch tree;
+    private transient GameRandom searchRandom;
+    private transient Candidates candidates;
+    private transient int plannedSteal = -1;
+    private transient long playoutCount, searchNanos;
+
+    /**
+     * Create a source of bots with a search budget
+     *
+     * @param playouts
+     *            playouts per decision, or 0 for no limit
+     * @param millis
+     *            wall-clock time per decision, or 0 for no limit
+     * @return the factory
+     */
+    public static AutomatedPlayerFactory factory(int playouts, long millis) {
+        return factory(playouts, millis, 1);
+    }
+
+    /**
+     * Create a source of bots that search on several threads
+     *
+     * @param playouts
+     *            playouts per decision, or 0 for no limit
+     * @param millis
+     *            wall-clock time per decision, or 0 for no limit
+     * @param threads
+     *            threads to search each decision with
+     * @return the factory
+     */
+    public static AutomatedPlayerFactory factory(final int playouts, final long millis,
+            final int threads) {
+        if (playouts <= 0 && millis <= 0) {
+            throw new IllegalArgumentException("the search needs a playout or time budget");
+        }
+
+        return new AutomatedPlayerFactory() {
+            @Override
+            public Player createPlayer(Board board, int playerNumber, Color color, String name) {
+                MonteCarloAI bot = new MonteCarloAI(board, playerNumber, color, name, playouts, millis);
+                bot.setThreads(threads);
+                return bot;
+            }
+        };
+    }
+
+    public MonteCarloAI(Board board, int index, Color color, String name) {
+        this(board, index, color, name, DEFAULT_PLAYOUTS, 0);
+    }
+
+    /**
+     * Create a bot with a search budget
+     *
+     * A search stops at whichever limit it reaches first, but always runs at
+     * least one playout.
+     *
+     * @param playouts
+     *            playouts per decision, or 0 for no limit
+     * @param millis
+     *            wall-clock time per decision, or 0 for no limit
+     */
+    public MonteCarloAI(Board board, int index, Color color, String name, int playouts, long millis) {
+        super(board, index, color, name);
+        this.playouts = playouts;
+        this.millis = millis;
+    }
+
+    /**
+     * Set how far each playout looks ahead
+     *
+     * @param rounds
+     *            rounds played past the searched moves before scoring
+     */
+    public void setHorizon(int rounds) {
+        horizon = rounds;
+    }
+
+    /**
+     * Set the UCB1 exploration constant
+     *
+     * @param exploration
+     *            weight of the exploration term, for rewards in [0, 1]
+     */
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    /**
+     * Set the number of threads to search with
+     *
+     * Each thread plays out on its own copy of the board and all of them
+     * grow one tree (see TreeSearch). With more than one, searches no longer
+     * replay exactly.
+     *
+     * @param threads
+     *            the number of threads, at least 1
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(threads, 1);
+    }
+
+    /**
+     * Get the number of playouts run so far
+     *
+     * @return the total over every decision
+     */
+    public long getPlayoutCount() {
+        return playoutCount;
+    }
+
+    /**
+     * Get the time spent searching so far
+     *
+     * @return the total wall-clock time in nanoseconds
+     */
+    public long getSearchNanos() {
+        return searchNanos;
+    }
+
+    @Override
+    public int setupSettlement(Vertex[] vertices) {
+        int move = searchMove();
+        if (move == NO_MOVE || MoveGenerator.getType(move) != GameAction.Type.BUILD_SETTLEMENT
+                || !build(vertices[MoveGenerator.getTarget(move)], Vertex.SETTLEMENT)) {
+            return super.setupSettlement(vertices);
+        }
+
+        reachingIds.add(MoveGenerator.getTarget(move));
+        return MoveGenerator.getTarget(move);
+    }
+
+    @Override
+    public int setupCity(Vertex[] vertices) {
+        int move = searchMove();
+        if (move == NO_MOVE || MoveGenerator.getType(move) != GameAction.Type.BUILD_CITY
+                || !build(vertices[MoveGenerator.getTarget(move)], Vertex.CITY)) {
+            return super.setupCity(vertices);
+        }
+
+        reachingIds.add(MoveGenerator.getTarget(move));
+        return MoveGenerator.getTarget(move);
+    }
+
+    @Override
+    public int setupRoad(Edge[] edges) {
+        int move = searchMove();
+        if (move == NO_MOVE || MoveGenerator.getType(move) != GameAction.Type.BUILD_ROAD
+                || !build(edges[MoveGenerator.getTarget(move)])) {
+            return super.setupRoad(edges);
+        }
+
+        return MoveGenerator.getTarget(move);
+    }
+
+    @Override
+    public void buildPhase() {
+        for (int step = 0; step < MAX_BUILD_STEPS; step++) {
+            int move = searchMove();
+            if (move == NO_MOVE) {
+                if (step == 0) {
+                    super.buildPhase();
+                }
+                return;
+            }
+
+            int piece = planPiece(move);
+            if (piece >= 0) {
+                if (!candidates.trade(this, PLAN_COSTS[piece])) {
+                    return;
+                }
+            } else if (MoveGenerator.getType(move) == GameAction.Type.END_PHASE) {
+                super.buildPhase();
+                return;
+            } else if (!play(move)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public int placeRobber(Hexagon[] hexagons, Hexagon exception) {
+        int move = searchMove();
+        if (move == NO_MOVE || MoveGenerator.getType(move) != GameAction.Type.MOVE_ROBBER) {
+            return super.placeRobber(hexagons, exception);
+        }
+
+        return MoveGenerator.getTarget(move);
+    }
+
+    @Override
+    public int steal(Player[] players) {
+        // the robber search also settled who to steal from
+        int target = plannedSteal;
+        plannedSteal = -1;
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].getPlayerNumber() == target) {
+                return i;
+            }
+        }
+
+        return super.steal(players);
+    }
+
+    /**
+     * Make a build move on the real board
+     */
+    private boolean play(int move) {
+        int target = MoveGenerator.getTarget(move);
+        switch (MoveGenerator.getType(move)) {
+            case BUILD_ROAD:
+                return build(board.getEdgeById(target));
+            case BUILD_SETTLEMENT:
+                return build(board.getVertexById(target), Vertex.SETTLEMENT);
+            case BUILD_CITY:
+                return build(board.getVertexById(target), Vertex.CITY);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Search the current decision
+     *
+     * @return the move this bot would make now (without making it): the
+     *         most searched one, the only legal one, or -1 if the board
+     *         can't be copied
+     */
+    public int searchMove() {
+        if (searchRandom == null) {
+            searchRandom = new GameRandom(board.getRandom().getInitialSeed() + getPlayerNumber());
+            candidates = new Candidates(board);
+            tree = new TreeSearch();
+        }
+
+        plannedSteal = -1;
+        int count = candidates.list(board);
+        if (count <= 1) {
+            return count == 1 ? candidates.moves[0] : NO_MOVE;
+        }
+
+        long start = System.nanoTime();
+        Simulation[] simulations = new Simulation[threads];
+        for (int i = 0; i < threads; i++) {
+            Board sim = board.copy(BalancedAI.FACTORY);
+            if (sim == null) {
+                return NO_MOVE;
+            }
+            simulations[i] = new Simulation(sim, searchRandom.split());
+        }
+
+        tree.setExploration(exploration);
+        playoutCount += tree.search(simulations, playouts, millis);
+        searchNanos += System.nanoTime() - start;
+
+        int best = tree.getBestMove();
+        if (best != NO_MOVE && planPiece(best) < 0
+                && MoveGenerator.getType(best) == GameAction.Type.MOVE_ROBBER) {
+            int steal = tree.getBestReply(best);
+            if (steal != NO_MOVE && planPiece(steal) < 0
+                    && MoveGenerator.getType(steal) == GameAction.Type.STEAL) {
+                plannedSteal = MoveGenerator.getTarget(steal);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Replace each opponent's hand with a random one of the same size,
+     * drawn in proportion to what they produce
+     */
+    private void dealHands(Board sim, int[][] pips) {
+        GameRandom random = sim.getRandom();
+        for (int i = 0; i < sim.getNumPlayers(); i++) {
+            Player player = sim.getPlayer(i);
+            int count = player.getResourceCount();
+            if (i == getPlayerNumber() || count == 0) {
+                continue;
+            }
+
+            int weight = 0;
+            for (int type = 0; type < RESOURCES.length; type++) {
+                player.useResources(RESOURCES[type], player.getResources(RESOURCES[type]));
+                weight += pips[i][type] + 1;
+            }
+
+            for (int card = 0; card < count; card++) {
+                int pick = random.nextInt(weight);
+                int type = 0;
+                while (pick >= pips[i][type] + 1) {
+                    pick -= pips[i][type] + 1;
+                    type++;
+                }
+                player.addResources(RESOURCES[type], 1);
+            }
+        }
+    }
+
+    /**
+     * Score a played out game for this player
+     *
+     * @return 1 for a win, 0 for a loss, otherwise this player's share of its
+     *         value and that of the strongest opponent
+     */
+    private double score(Board sim) {
+        Player winner = sim.getWinner();
+        if (winner != null) {
+            return winner.getPlayerNumber() == getPlayerNumber() ? 1 : 0;
+        }
+
+        int[][] pips = new int[sim.getNumPlayers()][RESOURCES.length];
+        countPips(sim, pips);
+
+        double own = 0, best = 0;
+        for (int i = 0; i < sim.getNumPlayers(); i++) {
+            int total = 0;
+            for (int type = 0; type < RESOURCES.length; type++) {
+                total += pips[i][type];
+            }
+
+            double value = sim.getPlayer(i).getVictoryPoints() + total / PIPS_PER_POINT;
+            if (i == getPlayerNumber()) {
+                own = value;
+            } else if (value > best) {
+                best = value;
+            }
+        }
+
+        return own + best > 0 ? own / (own + best) : 0.5;
+    }
+
+    /**
+     * Count the ways each player has to roll each resource
+     */
+    private static void countPips(Board sim, int[][] pips) {
+        BoardTopology topology = sim.getTopology();
+        Vertex[] vertices = sim.getVertices();
+        Hexagon[] hexagons = sim.getHexagons();
+        for (int id = 0; id < vertices.length; id++) {
+            Player owner = vertices[id].getOwner();
+            if (owner == null) {
+                continue;
+            }
+
+            int multiplier = vertices[id].getBuilding() == Vertex.CITY ? 2 : 1;
+            for (int k = topology.vertexHexStart(id); k < topology.vertexHexEnd(id); k++) {
+                Hexagon hexagon = hexagons[topology.vertexHex(k)];
+                Resource.ResourceType type = hexagon.getResourceType();
+                if (type != null && type != Resource.ResourceType.ANY) {
+                    pips[owner.getPlayerNumber()][type.ordinal()] += multiplier
+                            * NumberToken.getTotalWaysToSum(hexagon.getNumberTokenAsInt());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * One thread's copy of the game, played out from the searched position
+     */
+    private final class Simulation implements TreeSearch.Simulator {
+
+        private final Board sim;
+        private final BoardSnapshot root;
+        private final Candidates candidates;
+        private final GameRandom random;
+        private final int[][] pips;
+
+        Simulation(Board sim, GameRandom random) {
+            this.sim = sim;
+            this.random = random;
+            root = sim.snapshot();
+            candidates = new Candidates(sim);
+            pips = new int[sim.getNumPlayers()][RESOURCES.length];
+            countPips(sim, pips);
+        }
+
+        @Override
+        public double playout(TreeSearch.Descent descent) {
+            sim.restore(root);
+            sim.getRandom().copyFrom(random.split());
+            dealHands(sim, pips);
+
+            while (sim.getWinner() == null
+                    && sim.getCurrentPlayer().getPlayerNumber() == getPlayerNumber()) {
+                Board.Phase phase = sim.getPhase();
+                if (phase == Board.Phase.PRODUCTION) {
+                    break;
+                }
+
+                int count = candidates.list(sim);
+                int move;
+                if (count == 0) {
+                    break;
+                } else if (count == 1) {
+                    move = candidates.moves[0];
+                } else if (descent.isInTree()) {
+                    // one new node per playout, then the policy takes over
+                    move = descent.select(candidates.moves, count);
+                } else if (phase == Board.Phase.ROBBER) {
+                    // finish stealing, which the policy can't pick up halfway
+                    move = candidates.moves[sim.getRandom().nextInt(count)];
+                } else {
+                    break;
+                }
+
+                int piece = planPiece(move);
+                if (piece < 0 && phase == Board.Phase.BUILD
+                        && MoveGenerator.getType(move) == GameAction.Type.END_PHASE) {
+                    // played as on the real board: the policy trades and
+                    // builds with what is left, then ends the turn
+                    sim.runTurn();
+                    break;
+                }
+                if (piece >= 0 ? !candidates.trade(sim.getCurrentPlayer(), PLAN_COSTS[piece])
+                        : !sim.makeMove(move)) {
+                    break;
+                }
+
+                // a 7 hands back to production, which the dice roll has already left
+                if (phase == Board.Phase.ROBBER && sim.getPhase() == Board.Phase.PRODUCTION) {
+                    sim.nextPhase();
+                }
+            }
+
+            int end = sim.getTurnNumber() + horizon;
+            while (sim.getWinner() == null && sim.getTurnNumber() < end) {
+                sim.runTurn();
+            }
+
+            return score(sim);
+        }
+    }
+
+    /**
+     * Get the piece a searched move trades for
+     *
+     * @return the index in PLAN_COSTS, or -1 for a packed move (or NO_MOVE)
+     */
+    private static int planPiece(int move) {
+        int piece = NO_MOVE - 1 - move;
+        return piece >= 0 && piece < PLAN_COSTS.length ? piece : -1;
+    }
+
+    /**
+     * The moves worth searching for the current player
+     *
+     * Single bank trades would only spread the playouts thinner, so the
+     * trades are searched the way BalancedAI makes them: one move per piece
+     * that can be built once the cheapest trades (see TradeSolver) have paid
+     * for it. Ending a setup phase is only kept once its piece is placed.
+     */
+    private static final class Candidates {
+
+        final int[] moves;
+        private final MoveList generated;
+        private final TradeSolver solver = new TradeSolver();
+
+        Candidates(Board board) {
+            generated = new MoveList(board);
+            moves = new int[board.getEdges().length + 2 * board.getVertices().length
+                    + board.getHexagons().length + board.getNumPlayers() + PLAN_COSTS.length + 1];
+        }
+
+        /**
+         * Fill in the moves for the current position
+         *
+         * @return the number of moves
+         */
+        int list(Board on) {
+            int count = 0;
+            int total = MoveGenerator.generate(on, generated);
+
+            // a setup phase can't be skipped, so never spend playouts on trying
+            boolean placing = on.isSetupPlacementPending();
+            for (int i = 0; i < total; i++) {
+                int move = generated.get(i);
+                GameAction.Type type = MoveGenerator.getType(move);
+                if (type == GameAction.Type.END_PHASE && placing || type == GameAction.Type.TRADE) {
+                    continue;
+                }
+                moves[count++] = move;
+            }
+
+            if (on.getPhase() == Board.Phase.BUILD) {
+                Player player = on.getCurrentPlayer();
+                for (int piece = 0; piece < PLAN_COSTS.length; piece++) {
+                    if (canPlace(on, player, piece) && solver.solve(player, PLAN_COSTS[piece]) > 0) {
+                        moves[count++] = NO_MOVE - 1 - piece;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Make the cheapest bank trades that pay for a piece
+         *
+         * @return true if the trades were made
+         */
+        boolean trade(Player player, int[] cost) {
+            return solver.solve(player, cost) > 0 && solver.apply(player);
+        }
+
+        private static boolean canPlace(Board on, Player player, int piece) {
+            BuildSites sites = on.getBuildSites();
+            int playerNumber = player.getPlayerNumber();
+            switch (piece) {
+                case 0:
+                    return player.getNumRoads() < MAX_ROADS
+                            && sites.nextRoad(playerNumber, 0) >= 0;
+                case 1:
+                    return player.getNumSettlements() < MAX_SETTLEMENTS
+                            && sites.nextSettlement(playerNumber, 0) >= 0;
+                default:
+                    return player.getNumCities() < MAX_CITIES
+                            && sites.nextCity(playerNumber, 0) >= 0;
+            }
+        }
+    }
+}
@@ -19,17 +19,18 @@ package com.catandroid.app.common.players;
 
 import java.util.Vector;
 
-import android.content.Context;
-
 import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BuildSites;
+import com.catandroid.app.common.components.GameEventListener;
+import com.catandroid.app.common.components.GameLog;
 import com.catandroid.app.common.components.board_pieces.ProgressCard.ProgressCardType;
 import com.catandroid.app.common.components.board_positions.Edge;
 import com.catandroid.app.common.components.board_positions.Hexagon;
 import com.catandroid.app.common.components.board_pieces.Resource.ResourceType;
-import com.catandroid.app.R;
-import com.catandroid.app.CatAndroidApp;
 import com.catandroid.app.common.components.board_pieces.Resource;
 import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.components.utilities.ZobristKeys;
 
 public class Player {
 
@@ -56,7 +57,9 @@ public class Player {
 	private Vector<ProgressCardType> newCards;
 	private boolean usedCard;
 	private int type, lastVertexPieceId;
-	private String actionLog;
+
+	// index in the game log where this player's current (or last) turn starts
+	private int turnLogStart;
 
 	protected Vector<Integer> settlementIds, reachingIds;
 	protected Vector<Edge> roads;
@@ -67,6 +70,14 @@ public class Player {
 		RED, BLUE, GREEN, YELLOW, SELECT, NONE
 	}
 
+	public enum ActionType {
+		ROLL, ENDED_TURN, ROAD, LONGEST_ROAD, SETTLEMENT, CITY,
+		RECEIVED_X_RESOURCES, RECEIVED_RESOURCE, STOLE_FROM, DISCARDED,
+		TRADED_AWAY, TRADED_WITH, TRADED_FOR,
+		// recorded in the game log for replays, but not shown in turn logs
+		MOVED_ROBBER, PHASE
+	}
+
 	public static final int PLAYER_HUMAN = 0;
 	public static final int PLAYER_BOT = 1;
 	public static final int PLAYER_ONLINE = 2;
@@ -96,7 +107,7 @@ public class Player {
 		privateVictoryPointsCount = 0;
 		tradeValue = 4;
 		usedCard = false;
-		actionLog = "";
+		turnLogStart = 0;
 		lastVertexPieceId = -1;
 
 		newCards = new Vector<ProgressCardType>();
@@ -127,7 +138,8 @@ public class Player {
 	 * @return the result of the executeDiceRoll
 	 */
 	public int roll() {
-		return roll((int) (Math.random() * 6) + (int) (Math.random() * 6) + 2);
+		GameRandom random = board.getRandom();
+		return roll(random.nextInt(6) + random.nextInt(6) + 2);
 	}
 
 	/**
@@ -148,7 +160,7 @@ public class Player {
 	 * @return the result of the executeDiceRoll
 	 */
 	public int roll(int roll) {
-		appendAction(R.string.player_roll, Integer.toString(roll));
+		appendAction(ActionType.ROLL, roll, null, 0);
 		board.executeDiceRoll(roll);
 
 		return roll;
@@ -158,8 +170,8 @@ public class Player {
 	 * Function called at the beginning of the turn
 	 */
 	public void beginTurn() {
-		// clear the action log
-		actionLog = "";
+		// start a new turn log
+		turnLogStart = board.getGameLog().size();
 	}
 
 	/**
@@ -176,7 +188,7 @@ public class Player {
 //		newCards.clear();
 //		usedCard = false;
 
-		appendAction(R.string.player_ended_turn);
+		appendAction(ActionType.ENDED_TURN, -1, null, 0);
 	}
 
 	/**
@@ -209,14 +221,14 @@ public class Player {
 			useResources(Resource.ResourceType.LUMBER, 1);
 		}
 
-		appendAction(R.string.player_road);
+		appendAction(ActionType.ROAD, edge.getId(), null, 0);
 
 		boolean hadLongest = (board.getLongestRoadOwner() == this);
-		board.checkLongestRoad();
+		board.checkLongestRoad(edge);
 
 		if (!hadLongest && board.getLongestRoadOwner() == this)
 		{
-			appendAction(R.string.player_longest_road);
+			appendAction(ActionType.LONGEST_ROAD, board.getLongestRoad(), null, 0);
 		}
 
 		roads.add(edge);
@@ -282,7 +294,7 @@ public class Player {
 			}
 			settlements += 1;
 			settlementIds.add(vertex.getId());
-			board.checkLongestRoad();
+			board.checkLongestRoad(vertex);
 		} else { // city
 			if (!setup) {
 				useResources(Resource.ResourceType.GRAIN, 2);
@@ -295,8 +307,8 @@ public class Player {
 			cities += 1;
 		}
 
-		appendAction(type == Vertex.SETTLEMENT ? R.string.player_settlement
-				: R.string.player_city);
+		appendAction(type == Vertex.SETTLEMENT ? ActionType.SETTLEMENT
+				: ActionType.CITY, vertex.getId(), null, 0);
 
 		// TODO: does settlement vs. city matter?
 		// collect resources for city during setup
@@ -312,8 +324,7 @@ public class Player {
 						// collect resource for hex adjacent to city
 						resourceType = curHex.getResourceType();
 						addResources(resourceType, 2);
-						appendAction(R.string.player_received_x_resources,
-								Integer.toString(2) + " " + Resource.toRString(resourceType));
+						appendAction(ActionType.RECEIVED_X_RESOURCES, -1, resourceType, 2);
 					}
 				}
 			}
@@ -348,7 +359,7 @@ public class Player {
 				return false;
 		}
 
-		return edge.canBuild(this);
+		return board.getBuildSites().canBuildRoad(playerNumber, edge.getId());
 	}
 
 	/**
@@ -367,7 +378,18 @@ public class Player {
 			return false;
 		}
 
-		return vertex.canBuild(this, type, board.isSetupPhase());
+		BuildSites sites = board.getBuildSites();
+		if (board.isSetupPhase()) {
+			return sites.isOpen(vertex.getId());
+		}
+		else if (type == Vertex.SETTLEMENT) {
+			return sites.canBuildSettlement(playerNumber, vertex.getId());
+		}
+		else if (type == Vertex.CITY) {
+			return sites.canBuildCity(playerNumber, vertex.getId());
+		}
+
+		return false;
 	}
 
 	/**
@@ -400,7 +422,10 @@ public class Player {
 	 *            number of that resource to add
 	 */
 	public void addResources(Resource.ResourceType resourceType, int count) {
-		countPerResource[resourceType.ordinal()] += count;
+		int type = resourceType.ordinal();
+		board.toggleHashKey(ZobristKeys.resource(playerNumber, type, countPerResource[type])
+				^ ZobristKeys.resource(playerNumber, type, countPerResource[type] + count));
+		countPerResource[type] += count;
 	}
 
 	/**
@@ -437,7 +462,10 @@ public class Player {
 	 *            the number to use
 	 */
 	public void useResources(Resource.ResourceType resourceType, int count) {
-		countPerResource[resourceType.ordinal()] -= count;
+		int type = resourceType.ordinal();
+		board.toggleHashKey(ZobristKeys.resource(playerNumber, type, countPerResource[type])
+				^ ZobristKeys.resource(playerNumber, type, countPerResource[type] - count));
+		countPerResource[type] -= count;
 	}
 
 	/**
@@ -451,7 +479,7 @@ public class Player {
 			return null;
 
 		// pick random card
-		int select = (int) (Math.random() * count);
+		int select = board.getRandom().nextInt(count);
 		for (int i = 0; i < countPerResource.length; i++) {
 			if (select < countPerResource[i]) {
 				useResources(Resource.ResourceType.values()[i], 1);
@@ -488,7 +516,7 @@ public class Player {
 	public Resource.ResourceType steal(Player from, Resource.ResourceType resourceType) {
 		if (resourceType != null) {
 			addResources(resourceType, 1);
-			appendAction(R.string.player_stole_from, from.getName());
+			appendAction(ActionType.STOLE_FROM, from.getPlayerNumber(), resourceType, 1);
 		}
 
 		return resourceType;
@@ -506,7 +534,7 @@ public class Player {
 		// pick random resourceType if none is specified
 		if (choice == null) {
 			while (true) {
-				int pick = (int) (Math.random() * Resource.RESOURCE_TYPES.length);
+				int pick = board.getRandom().nextInt(Resource.RESOURCE_TYPES.length);
 				if (countPerResource[pick] > 0) {
 					choice = Resource.RESOURCE_TYPES[pick];
 					break;
@@ -516,8 +544,7 @@ public class Player {
 
 		useResources(choice, 1);
 
-		int res = Resource.toRString(choice);
-		appendAction(R.string.player_discarded, res);
+		appendAction(ActionType.DISCARDED, -1, choice, 1);
 	}
 
 	/**
@@ -543,15 +570,12 @@ public class Player {
 			useResources(Resource.RESOURCE_TYPES[i], trade[i]);
 			player.addResources(Resource.RESOURCE_TYPES[i], trade[i]);
 
-			for (int j = 0; j < trade[i]; j++) {
-				appendAction(R.string.player_traded_away, Resource
-						.toRString(Resource.RESOURCE_TYPES[i]));
-			}
+			appendAction(ActionType.TRADED_AWAY, player.getPlayerNumber(),
+					Resource.RESOURCE_TYPES[i], trade[i]);
 		}
 
-		appendAction(R.string.player_traded_with, player.getName());
-		appendAction(R.string.player_received_resource, Resource
-				.toRString(resourceType));
+		appendAction(ActionType.TRADED_WITH, player.getPlayerNumber(), null, 0);
+		appendAction(ActionType.RECEIVED_RESOURCE, player.getPlayerNumber(), resourceType, 1);
 	}
 
 	/**
@@ -906,12 +930,16 @@ public class Player {
 					&& getResources(Resource.RESOURCE_TYPES[i]) >= 2 && trade[i] >= 2) {
 				addResources(resourceType, 1);
 				useResources(Resource.RESOURCE_TYPES[i], 2);
+
+				appendAction(ActionType.TRADED_FOR, -1, resourceType, 1);
+				appendAction(ActionType.TRADED_AWAY, -1, Resource.RESOURCE_TYPES[i], 2);
 				return true;
 			}
 		}
 
 		// normal 4:1 or 3:1 trade
 		int value = tradeValue;
+		int[] given = new int[trade.length];
 		for (int i = 0; i < trade.length; i++) {
 
 			int number = getResources(Resource.RESOURCE_TYPES[i]);
@@ -920,18 +948,21 @@ public class Player {
 			if (trade[i] >= value && number >= value) {
 				useResources(Resource.RESOURCE_TYPES[i], value);
 				addResources(resourceType, 1);
+				given[i] += value;
 
-				appendAction(R.string.player_traded_for, Resource
-						.toRString(resourceType));
+				appendAction(ActionType.TRADED_FOR, -1, resourceType, 1);
 
-				for (int j = 0; j < value; j++) {
-					appendAction(R.string.player_traded_away, Resource
-							.toRString(Resource.RESOURCE_TYPES[i]));
+				for (int j = 0; j < given.length; j++) {
+					if (given[j] > 0) {
+						appendAction(ActionType.TRADED_AWAY, -1, Resource.RESOURCE_TYPES[j],
+								given[j]);
+					}
 				}
 
 				return true;
 			} else if (trade[i] > 0 && number >= trade[i]) {
 				useResources(Resource.RESOURCE_TYPES[i], trade[i]);
+				given[i] += trade[i];
 				value -= trade[i];
 			}
 		}
@@ -940,53 +971,6 @@ public class Player {
 		return false;
 	}
 
-	/**
-	 * Find all possible trade combinations
-	 *
-	 * @param want
-	 *            the type of resource to trade for
-	 * @return a Vector of arrays of the number of each card type to offer
-	 */
-	public Vector<int[]> findTrades(Resource.ResourceType want) {
-		Vector<int[]> offers = new Vector<int[]>();
-
-		// generate trades for 2:1 harbors
-		for (int i = 0; i < Resource.RESOURCE_TYPES.length; i++) {
-			if (Resource.RESOURCE_TYPES[i] == want
-					|| !hasHarbor(Resource.RESOURCE_TYPES[i]))
-			{
-				continue;
-			}
-
-			int[] trade = new int[Resource.RESOURCE_TYPES.length];
-			trade[i] = 2;
-
-			if (canTrade(want, trade))
-			{
-				offers.add(trade);
-			}
-		}
-
-		// generate 3:1 or 4:1 trades
-		for (int i = 0; i < Resource.RESOURCE_TYPES.length; i++) {
-			if (Resource.RESOURCE_TYPES[i] == want
-					|| hasHarbor(Resource.RESOURCE_TYPES[i]))
-			{
-				continue;
-			}
-
-			int[] trade = new int[Resource.RESOURCE_TYPES.length];
-			trade[i] = tradeValue;
-
-			if (canTrade(want, trade))
-			{
-				offers.add(trade);
-			}
-		}
-
-		return offers;
-	}
-
 	/**
 	 * Determine if the player is a human player on this device
 	 *
@@ -1102,96 +1086,248 @@ public class Player {
 	}
 
 	/**
-	 * Add an action to the turn log
+	 * Record an action in the game log
 	 *
 	 * @param action
-	 *            a string of the action
+	 *            the type of action
+	 * @param target
+	 *            the edge, vertex, roll or player acted on, or -1
+	 * @param resourceType
+	 *            the resource involved, or null
+	 * @param count
+	 *            the number of resources involved
 	 */
-	private void appendAction(String action) {
-		if (board.isSetupPhase())
-		{
-			return;
-		}
+	private void appendAction(ActionType action, int target,
+			Resource.ResourceType resourceType, int count) {
+		board.getGameLog().append(playerNumber, action, target,
+				resourceType == null ? -1 : resourceType.ordinal(), count,
+				board.isSetupPhase(), board.getTurnNumber());
+	}
 
-		if (actionLog == "")
+	/**
+	 * Describe this player's current (or last) turn, as rendered by the
+	 * board's event listener
+	 *
+	 * @return a String containing the log, or "" if there is nothing to show
+	 */
+	public String getActionLog() {
+		GameEventListener listener = board.getGameEventListener();
+		GameLog log = board.getGameLog();
+		if (listener == null || turnLogStart >= log.size())
 		{
-			actionLog += "→ " + action;
+			return "";
 		}
-		else
-		{
-			actionLog += "\n" + "→ " + action;
+
+		StringBuilder text = new StringBuilder();
+		for (int i = turnLogStart; i < log.size(); i++) {
+			long event = log.get(i);
+			if (GameLog.getPlayerNumber(event) != playerNumber || GameLog.isSetup(event))
+			{
+				continue;
+			}
+
+			ActionType action = GameLog.getType(event);
+			Object argument;
+			int repeat = 1;
+			switch (action) {
+				case ROLL:
+					argument = GameLog.getTarget(event);
+					break;
+				case STOLE_FROM:
+				case TRADED_WITH:
+					argument = board.getPlayer(GameLog.getTarget(event)).getName();
+					break;
+				case TRADED_AWAY:
+					// one line per card given
+					argument = Resource.RESOURCE_TYPES[GameLog.getResourceType(event)];
+					repeat = GameLog.getCount(event);
+					break;
+				case RECEIVED_X_RESOURCES:
+				case RECEIVED_RESOURCE:
+				case DISCARDED:
+				case TRADED_FOR:
+					argument = Resource.RESOURCE_TYPES[GameLog.getResourceType(event)];
+					break;
+				case MOVED_ROBBER:
+				case PHASE:
+					continue;
+				default:
+					argument = null;
+			}
+
+			String description = listener.describeAction(action, argument);
+			if (description == null)
+			{
+				continue;
+			}
+
+			for (int j = 0; j < repeat; j++) {
+				if (text.length() > 0)
+				{
+					text.append('\n');
+				}
+				text.append("→ ").append(description);
+			}
 		}
 
+		return text.toString();
 	}
 
 	/**
-	 * Add an action to the turn log using a resource string
+	 * Apply a move recorded in a game log, as part of a replay
 	 *
-	 * @param action
-	 *            string resource playerNumber for action
-	 */
-	private void appendAction(int action) {
-		Context context = CatAndroidApp.getInstance().getContext();
-		appendAction(context.getString(action));
-	}
-
-	/**
-	 * Add an action to the turn log using a resource string and supplementary
-	 * string
+	 * Outcomes are taken from the log rather than drawn again, and actions
+	 * that follow from other actions (e.g. the longest road, or resources
+	 * for a setup city) are left for the rules to repeat.
 	 *
-	 * @param action
-	 *            string resource playerNumber for action
-	 * @param additional
-	 *            string to substitute into %s in action
+	 * @param event
+	 *            an event of this player from the log
+	 * @return false if the move could not be made
 	 */
-	private void appendAction(int action, String additional) {
-		Context context = CatAndroidApp.getInstance().getContext();
-		appendAction(String.format(context.getString(action), additional));
+	public boolean replay(long event) {
+		int target = GameLog.getTarget(event);
+		int resource = GameLog.getResourceType(event);
+		Resource.ResourceType resourceType = resource >= 0
+				? Resource.ResourceType.values()[resource] : null;
+		int count = GameLog.getCount(event);
+
+		switch (GameLog.getType(event)) {
+			case ROLL:
+				roll(target);
+				return true;
+			case ENDED_TURN:
+				endTurn();
+				return true;
+			case ROAD:
+				return build(board.getEdgeById(target));
+			case SETTLEMENT:
+				return build(board.getVertexById(target), Vertex.SETTLEMENT);
+			case CITY:
+				return build(board.getVertexById(target), Vertex.CITY);
+			case STOLE_FROM:
+				board.getPlayer(target).useResources(resourceType, 1);
+				steal(board.getPlayer(target), resourceType);
+				return true;
+			case DISCARDED:
+				discard(resourceType);
+				return true;
+			case TRADED_FOR:
+				addResources(resourceType, 1);
+				appendAction(ActionType.TRADED_FOR, target, resourceType, count);
+				return true;
+			case TRADED_AWAY:
+				useResources(resourceType, count);
+				if (target >= 0) {
+					board.getPlayer(target).addResources(resourceType, count);
+				}
+				appendAction(ActionType.TRADED_AWAY, target, resourceType, count);
+				return true;
+			case TRADED_WITH:
+				appendAction(ActionType.TRADED_WITH, target, null, 0);
+				return true;
+			case RECEIVED_RESOURCE:
+				addResources(resourceType, 1);
+				board.getPlayer(target).useResources(resourceType, 1);
+				appendAction(ActionType.RECEIVED_RESOURCE, target, resourceType, count);
+				return true;
+			default:
+				// follows from the rules
+				return true;
+		}
 	}
 
 	/**
-	 * Add an action to the turn log using a resource string and supplementary
-	 * string
+	 * Capture this player's mutable state
 	 *
-	 * @param action
-	 *            string resource playerNumber for action
-	 * @param additional
-	 *            string resource to substitute into %s in action
+	 * @param into
+	 *            a snapshot to overwrite, or null to allocate a new one
+	 * @return the snapshot
 	 */
-	private void appendAction(int action, int additional) {
-		Context context = CatAndroidApp.getInstance().getContext();
-		appendAction(String.format(context.getString(action), context
-				.getString(additional)));
-	}
+	public PlayerSnapshot snapshot(PlayerSnapshot into) {
+		PlayerSnapshot snapshot = into != null ? into : new PlayerSnapshot();
+
+		snapshot.settlements = settlements;
+		snapshot.cities = cities;
+		snapshot.knightsCount = knightsCount;
+		snapshot.privateVictoryPointsCount = privateVictoryPointsCount;
+		snapshot.tradeValue = tradeValue;
+		snapshot.roadLength = roadLength;
+		snapshot.lastVertexPieceId = lastVertexPieceId;
+		snapshot.usedCard = usedCard;
+		snapshot.turnLogStart = turnLogStart;
+
+		if (snapshot.countPerResource == null) {
+			snapshot.countPerResource = new int[countPerResource.length];
+			snapshot.harbors = new boolean[harbors.length];
+		}
+		System.arraycopy(countPerResource, 0, snapshot.countPerResource, 0,
+				countPerResource.length);
+		System.arraycopy(harbors, 0, snapshot.harbors, 0, harbors.length);
 
-	/**
-	 * Get the action log
-	 *
-	 * @return a String containing the log
-	 */
-	public String getActionLog() {
-		return actionLog;
+		snapshot.newCards.clear();
+		snapshot.newCards.addAll(newCards);
+
+		int count = settlementIds.size();
+		snapshot.settlementIds = PlayerSnapshot.ensureCapacity(snapshot.settlementIds, count);
+		for (int i = 0; i < count; i++) {
+			snapshot.settlementIds[i] = settlementIds.get(i);
+		}
+		snapshot.settlementCount = count;
+
+		count = reachingIds.size();
+		snapshot.reachingIds = PlayerSnapshot.ensureCapacity(snapshot.reachingIds, count);
+		for (int i = 0; i < count; i++) {
+			snapshot.reachingIds[i] = reachingIds.get(i);
+		}
+		snapshot.reachingCount = count;
+
+		count = roads.size();
+		snapshot.roadIds = PlayerSnapshot.ensureCapacity(snapshot.roadIds, count);
+		for (int i = 0; i < count; i++) {
+			snapshot.roadIds[i] = roads.get(i).getId();
+		}
+		snapshot.roadCount = count;
+
+		return snapshot;
 	}
 
 	/**
-	 * Get the string resource for a color
+	 * Return this player to a previously captured state
 	 *
-	 * @param color
-	 *            the color
-	 * @return the string resource
+	 * @param snapshot
+	 *            a snapshot taken from this player on the same board
 	 */
-	public static int getColorStringResource(Color color) {
-		switch (color) {
-			case RED:
-				return R.string.red;
-			case BLUE:
-				return R.string.blue;
-			case GREEN:
-				return R.string.green;
-			case YELLOW:
-				return R.string.yellow;
-			default:
-				return R.string.empty_string;
+	public void restore(PlayerSnapshot snapshot) {
+		settlements = snapshot.settlements;
+		cities = snapshot.cities;
+		knightsCount = snapshot.knightsCount;
+		privateVictoryPointsCount = snapshot.privateVictoryPointsCount;
+		tradeValue = snapshot.tradeValue;
+		roadLength = snapshot.roadLength;
+		lastVertexPieceId = snapshot.lastVertexPieceId;
+		usedCard = snapshot.usedCard;
+		turnLogStart = snapshot.turnLogStart;
+
+		System.arraycopy(snapshot.countPerResource, 0, countPerResource, 0,
+				countPerResource.length);
+		System.arraycopy(snapshot.harbors, 0, harbors, 0, harbors.length);
+
+		newCards.clear();
+		newCards.addAll(snapshot.newCards);
+
+		settlementIds.clear();
+		for (int i = 0; i < snapshot.settlementCount; i++) {
+			settlementIds.add(snapshot.settlementIds[i]);
+		}
+
+		reachingIds.clear();
+		for (int i = 0; i < snapshot.reachingCount; i++) {
+			reachingIds.add(snapshot.reachingIds[i]);
+		}
+
+		roads.clear();
+		for (int i = 0; i < snapshot.roadCount; i++) {
+			roads.add(board.getEdgeById(snapshot.roadIds[i]));
 		}
 	}
 }
@@ -0,0 +1,163 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.players;
+
+import com.catandroid.app.common.components.board_pieces.ProgressCard.ProgressCardType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * The mutable state of one player, captured by Player.snapshot()
+ *
+ * Settlements, reaching vertices and roads are stored as ids in flat arrays
+ * that grow to fit and are then reused, so repeated snapshots into the same
+ * instance do not allocate.
+ */
+public final class PlayerSnapshot {
+
+	int settlements, cities;
+	int knightsCount, privateVictoryPointsCount, tradeValue, roadLength;
+	int lastVertexPieceId;
+	boolean usedCard;
+	int turnLogStart;
+
+	int[] countPerResource;
+	boolean[] harbors;
+	final ArrayList<ProgressCardType> newCards = new ArrayList<ProgressCardType>();
+
+	int[] settlementIds = new int[Player.MAX_SETTLEMENTS + Player.MAX_CITIES];
+	int settlementCount;
+	int[] reachingIds = new int[2 * Player.MAX_ROADS];
+	int reachingCount;
+	int[] roadIds = new int[Player.MAX_ROADS];
+	int roadCount;
+
+	/**
+	 * Write this snapshot in the compact game state encoding
+	 *
+	 * @param out
+	 *            the buffer to write to
+	 */
+	public void encode(ByteBuffer out) {
+		for (int i = 0; i < countPerResource.length; i++) {
+			out.put((byte) countPerResource[i]);
+		}
+		int harborBits = 0;
+		for (int i = 0; i < harbors.length; i++) {
+			if (harbors[i]) {
+				harborBits |= 1 << i;
+			}
+		}
+		out.put((byte) harborBits);
+		out.put((byte) settlements);
+		out.put((byte) cities);
+		out.put((byte) knightsCount);
+		out.put((byte) privateVictoryPointsCount);
+		out.put((byte) tradeValue);
+		out.put((byte) roadLength);
+		out.putShort((short) lastVertexPieceId);
+		out.put((byte) (usedCard ? 1 : 0));
+
+		out.put((byte) newCards.size());
+		for (int i = 0; i < newCards.size(); i++) {
+			out.put((byte) newCards.get(i).ordinal());
+		}
+		encodeIds(out, settlementIds, settlementCount);
+		encodeIds(out, reachingIds, reachingCount);
+		encodeIds(out, roadIds, roadCount);
+	}
+
+	/**
+	 * Read this snapshot from the compact game state encoding
+	 *
+	 * @param in
+	 *            the buffer to read from
+	 * @param resourceTypes
+	 *            the number of resource types
+	 * @param harborTypes
+	 *            the number of harbor types
+	 */
+	public void decode(ByteBuffer in, int resourceTypes, int harborTypes) {
+		if (countPerResource == null) {
+			countPerResource = new int[resourceTypes];
+			harbors = new boolean[harborTypes];
+		}
+		for (int i = 0; i < countPerResource.length; i++) {
+			countPerResource[i] = in.get() & 0xFF;
+		}
+		int harborBits = in.get() & 0xFF;
+		for (int i = 0; i < harbors.length; i++) {
+			harbors[i] = (harborBits & (1 << i)) != 0;
+		}
+		settlements = in.get();
+		cities = in.get();
+		knightsCount = in.get();
+		privateVictoryPointsCount = in.get();
+		tradeValue = in.get();
+		roadLength = in.get();
+		lastVertexPieceId = in.getShort();
+		usedCard = in.get() != 0;
+		turnLogStart = 0;
+
+		newCards.clear();
+		int count = in.get() & 0xFF;
+		for (int i = 0; i < count; i++) {
+			newCards.add(ProgressCardType.values()[in.get()]);
+		}
+
+		settlementCount = in.get() & 0xFF;
+		settlementIds = decodeIds(in, settlementIds, settlementCount);
+		reachingCount = in.get() & 0xFF;
+		reachingIds = decodeIds(in, reachingIds, reachingCount);
+		roadCount = in.get() & 0xFF;
+		roadIds = decodeIds(in, roadIds, roadCount);
+	}
+
+	/**
+	 * Get an upper bound on the size of the encoding
+	 *
+	 * @return the maximum number of bytes encode() will write
+	 */
+	public int getMaxEncodedSize() {
+		return countPerResource.length + 12 + newCards.size()
+				+ 3 + 2 * (settlementCount + reachingCount + roadCount);
+	}
+
+	private static void encodeIds(ByteBuffer out, int[] ids, int count) {
+		out.put((byte) count);
+		for (int i = 0; i < count; i++) {
+			out.putShort((short) ids[i]);
+		}
+	}
+
+	private static int[] decodeIds(ByteBuffer in, int[] ids, int count) {
+		int[] result = ensureCapacity(ids, count);
+		for (int i = 0; i < count; i++) {
+			result[i] = in.getShort() & 0xFFFF;
+		}
+		return result;
+	}
+
+	static int[] ensureCapacity(int[] array, int size) {
+		if (array.length >= size) {
+			return array;
+		}
+		return new int[Math.max(size, 2 * array.length)];
+	}
+}
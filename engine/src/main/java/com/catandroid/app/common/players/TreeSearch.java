@@ -0,0 +1,364 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.players;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Monte Carlo tree search over packed moves, shared by every core
+ *
+ * The caller supplies one Simulator per thread, each with its own copy of
+ * the game. They all play out from the same root and grow the same tree:
+ * nodes are added with a compare-and-set on the parent's child list and
+ * their statistics are updated with compare-and-set as well, so no thread
+ * ever waits on a lock. A thread counts its visit on the way down and adds
+ * the reward on the way back up; until then the visit reads as a loss
+ * (a "virtual loss"), which steers the other threads to other branches.
+ *
+ * Moves are selected by UCB1, which expects rewards in [0, 1]. With one
+ * simulator the search runs on the calling thread and replays exactly;
+ * with more, the order in which threads reach the tree makes every search
+ * a little different.
+ */
+public final class TreeSearch {
+
+	/**
+	 * Plays a game out from the root of the search
+	 */
+	public interface Simulator {
+
+		/**
+		 * Play one game from the root
+		 *
+		 * Moves are picked with descent.select() while descent.isInTree(),
+		 * and by any policy after that.
+		 *
+		 * @param descent
+		 *            the path of this playout through the tree
+		 * @return the reward, in [0, 1]
+		 */
+		double playout(Descent descent);
+	}
+
+	public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+
+	// shared by every search, with one worker per core
+	private static ForkJoinPool pool;
+
+	private double exploration = DEFAULT_EXPLORATION;
+	private Node root;
+
+	/**
+	 * Set the UCB1 exploration constant
+	 *
+	 * @param exploration
+	 *            weight of the exploration term
+	 */
+	public void setExploration(double exploration) {
+		this.exploration = exploration;
+	}
+
+	/**
+	 * Search from a new root
+	 *
+	 * The search stops at whichever budget it reaches first, but always
+	 * runs at least one playout.
+	 *
+	 * @param simulators
+	 *            one per thread to search with, all at the same position
+	 * @param playouts
+	 *            playouts in total, or 0 for no limit
+	 * @param millis
+	 *            wall-clock time, or 0 for no limit
+	 * @return the number of playouts run
+	 */
+	public int search(Simulator[] simulators, int playouts, long millis) {
+		if (playouts <= 0 && millis <= 0) {
+			throw new IllegalArgumentException("the search needs a playout or time budget");
+		}
+
+		root = new Node(-1);
+		AtomicInteger claimed = new AtomicInteger();
+		AtomicInteger done = new AtomicInteger();
+		long deadline = millis > 0 ? System.nanoTime() + millis * 1000000L : 0;
+
+		ArrayList<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+		for (int i = 1; i < simulators.length; i++) {
+			tasks.add(getPool().submit(new Worker(simulators[i], claimed, done, playouts, deadline)));
+		}
+		new Worker(simulators[0], claimed, done, playouts, deadline).run();
+		for (int i = 0; i < tasks.size(); i++) {
+			tasks.get(i).join();
+		}
+
+		if (done.get() == 0) {
+			new Worker(simulators[0], claimed, done, 0, 0).playout();
+		}
+		return done.get();
+	}
+
+	/**
+	 * Get the move at the root that was played out most often
+	 *
+	 * @return the move, or -1 if no move was searched
+	 */
+	public int getBestMove() {
+		Node best = root != null ? root.mostVisited() : null;
+		return best != null ? best.move : -1;
+	}
+
+	/**
+	 * Get the move most often played out after a move at the root
+	 *
+	 * @param move
+	 *            the move at the root
+	 * @return the move that followed, or -1 if none was searched
+	 */
+	public int getBestReply(int move) {
+		Node node = root != null ? root.find(root.child, move) : null;
+		Node best = node != null ? node.mostVisited() : null;
+		return best != null ? best.move : -1;
+	}
+
+	/**
+	 * Get the number of times a move at the root was played out
+	 *
+	 * @param move
+	 *            the move at the root
+	 * @return the visit count
+	 */
+	public int getVisits(int move) {
+		Node node = root != null ? root.find(root.child, move) : null;
+		return node != null ? node.visits : 0;
+	}
+
+	private static synchronized ForkJoinPool getPool() {
+		if (pool == null) {
+			pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		}
+		return pool;
+	}
+
+	/**
+	 * Runs playouts on one simulator until the budget is spent
+	 */
+	private final class Worker implements Runnable {
+
+		private final Simulator simulator;
+		private final AtomicInteger claimed, done;
+		private final int playouts;
+		private final long deadline;
+		private final Descent descent;
+
+		Worker(Simulator simulator, AtomicInteger claimed, AtomicInteger done, int playouts, long deadline) {
+			this.simulator = simulator;
+			this.claimed = claimed;
+			this.done = done;
+			this.playouts = playouts;
+			this.deadline = deadline;
+			this.descent = new Descent(exploration);
+		}
+
+		@Override
+		public void run() {
+			while ((deadline == 0 || System.nanoTime() < deadline)
+					&& (playouts <= 0 || claimed.getAndIncrement() < playouts)) {
+				playout();
+			}
+		}
+
+		void playout() {
+			descent.start(root);
+			descent.backUp(simulator.playout(descent));
+			done.incrementAndGet();
+		}
+	}
+
+	/**
+	 * The path of one playout through the tree
+	 */
+	public static final class Descent {
+
+		private final double exploration;
+		private final ArrayList<Node> path = new ArrayList<Node>();
+		private Node node;
+
+		Descent(double exploration) {
+			this.exploration = exploration;
+		}
+
+		/**
+		 * Check whether the playout is still in the tree
+		 *
+		 * It leaves the tree after the first move that had never been
+		 * played out, or when the simulator decides moves on its own.
+		 *
+		 * @return true if the next move should come from select()
+		 */
+		public boolean isInTree() {
+			return node != null;
+		}
+
+		/**
+		 * Pick the next move from the legal ones and follow it in the tree
+		 *
+		 * @param moves
+		 *            the legal moves
+		 * @param count
+		 *            the number of legal moves
+		 * @return the move to make
+		 */
+		public int select(int[] moves, int count) {
+			Node child = node.select(moves, count, exploration, this);
+			path.add(child);
+			return child.move;
+		}
+
+		void start(Node root) {
+			path.clear();
+			path.add(root);
+			root.addVisit();
+			node = root;
+		}
+
+		void leave(Node child, boolean expanded) {
+			node = expanded ? null : child;
+		}
+
+		void backUp(double reward) {
+			for (int i = 0; i < path.size(); i++) {
+				path.get(i).addReward(reward);
+			}
+			node = null;
+		}
+	}
+
+	/**
+	 * A sequence of moves from the root, with the playouts that followed it
+	 */
+	private static final class Node {
+
+		private static final AtomicIntegerFieldUpdater<Node> VISITS =
+				AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+		private static final AtomicLongFieldUpdater<Node> REWARD =
+				AtomicLongFieldUpdater.newUpdater(Node.class, "rewardBits");
+		private static final AtomicReferenceFieldUpdater<Node, Node> CHILD =
+				AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "child");
+
+		final int move;
+		volatile int visits;
+		volatile long rewardBits;
+		volatile Node child;
+		Node sibling;
+
+		Node(int move) {
+			this.move = move;
+		}
+
+		void addVisit() {
+			VISITS.incrementAndGet(this);
+		}
+
+		double getReward() {
+			return Double.longBitsToDouble(rewardBits);
+		}
+
+		void addReward(double reward) {
+			long bits;
+			do {
+				bits = rewardBits;
+			} while (!REWARD.compareAndSet(this, bits,
+					Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + reward)));
+		}
+
+		/**
+		 * Pick a child by UCB1, trying every legal move once first, and
+		 * count the visit
+		 */
+		Node select(int[] moves, int count, double exploration, Descent descent) {
+			while (true) {
+				Node head = child;
+				double logVisits = Math.log(Math.max(visits, 1));
+				Node best = null;
+				double highest = Double.NEGATIVE_INFINITY;
+				boolean missing = false;
+				int move = 0;
+
+				for (int i = 0; i < count; i++) {
+					move = moves[i];
+					Node node = find(head, move);
+					if (node == null) {
+						missing = true;
+						break;
+					}
+
+					// nodes are born visited, so this is never 0
+					int n = node.visits;
+					double value = node.getReward() / n
+							+ exploration * Math.sqrt(logVisits / n);
+					if (value > highest) {
+						highest = value;
+						best = node;
+					}
+				}
+
+				if (missing) {
+					Node node = new Node(move);
+					node.visits = 1;
+					node.sibling = head;
+					if (CHILD.compareAndSet(this, head, node)) {
+						descent.leave(node, true);
+						return node;
+					}
+					// another thread added a child first; look again
+					continue;
+				}
+
+				best.addVisit();
+				descent.leave(best, false);
+				return best;
+			}
+		}
+
+		Node find(Node head, int move) {
+			for (Node node = head; node != null; node = node.sibling) {
+				if (node.move == move) {
+					return node;
+				}
+			}
+			return null;
+		}
+
+		Node mostVisited() {
+			Node best = null;
+			for (Node node = child; node != null; node = node.sibling) {
+				if (best == null || node.visits > best.visits
+						|| node.visits == best.visits && node.getReward() > best.getReward()) {
+					best = node;
+				}
+			}
+			return best;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.simulation;
+
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardGeometry;
+import com.catandroid.app.common.components.utilities.GameRandom;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Supplies freshly generated bot-only boards, one after the other
+ *
+ * Board i is seeded the same way as game i of a TournamentRunner with the
+ * same seed and board size, so a stream replays the layouts a tournament
+ * is played on. Layout generation takes bounded time on any map, which
+ * makes the stream usable for benchmarking generation and for picking
+ * boards to seed tournaments with.
+ */
+public class BoardStream implements Iterator<Board> {
+
+	private final int mapRadius, numPlayers, count;
+	private final GameRandom master;
+	private int produced;
+
+	/**
+	 * Stream boards on a hexagonal map
+	 *
+	 * @param mapRadius
+	 *            the map radius (3 and 4 give the boards of size 0 and 1)
+	 * @param numPlayers
+	 *            the number of seats per board
+	 * @param seed
+	 *            the seed every board's randomness is derived from
+	 * @param count
+	 *            the number of boards to supply
+	 */
+	public BoardStream(int mapRadius, int numPlayers, long seed, int count) {
+		this.mapRadius = mapRadius;
+		this.numPlayers = numPlayers;
+		this.count = count;
+		this.master = new GameRandom(seed);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return produced < count;
+	}
+
+	@Override
+	public Board next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		ArrayList<String> participantIds = new ArrayList<String>(numPlayers);
+		String[] names = new String[numPlayers];
+		for (int seat = 0; seat < numPlayers; seat++) {
+			participantIds.add("seat" + seat);
+			names[seat] = "BalancedAI";
+		}
+
+		produced++;
+		return new Board(participantIds, names, new boolean[numPlayers], 10,
+				BoardGeometry.withRadius(mapRadius), false, null, null,
+				new GameRandom(master.nextLong()));
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Time board generation from the command line
+	 *
+	 * @param args
+	 *            [boards] [map radius] [players] [seed]
+	 */
+	public static void main(String[] args) {
+		int boards = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int mapRadius = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		int numPlayers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		long seed = args.length > 3 ? Long.parseLong(args[3]) : new GameRandom().getInitialSeed();
+
+		BoardStream stream = new BoardStream(mapRadius, numPlayers, seed, boards);
+		long start = System.nanoTime();
+		long hexagons = 0;
+		while (stream.hasNext()) {
+			hexagons += stream.next().getHexagons().length;
+		}
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println("seed: " + seed);
+		System.out.printf("%d boards, %d hexagons, %.1f us per board%n",
+				boards, hexagons, elapsed / 1000.0 / Math.max(1, boards));
+	}
+}
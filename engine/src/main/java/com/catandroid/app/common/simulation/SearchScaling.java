@@ -0,0 +1,92 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.simulation;
+
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardGeometry;
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.players.MonteCarloAI;
+import com.catandroid.app.common.players.Player;
+
+import java.util.ArrayList;
+
+/**
+ * Measures how MonteCarloAI's search throughput scales with threads
+ *
+ * Every run searches the same position, the first settlement of a seeded
+ * game, for the same wall-clock time, so the playout rates compare
+ * directly.
+ */
+public class SearchScaling {
+
+	private static final int WARM_UP_MILLIS = 8000;
+
+	/**
+	 * Print playouts per second for 1 to N threads
+	 *
+	 * @param args
+	 *            [max threads] [millis per search] [searches per run]
+	 *            [board size] [seed]
+	 */
+	public static void main(String[] args) {
+		int maxThreads = args.length > 0 ? Integer.parseInt(args[0])
+				: Runtime.getRuntime().availableProcessors();
+		int millis = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int searches = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+		int boardSize = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+		long seed = args.length > 4 ? Long.parseLong(args[4]) : 1;
+
+		int numPlayers = 4;
+		ArrayList<String> participantIds = new ArrayList<String>(numPlayers);
+		String[] names = new String[numPlayers];
+		for (int seat = 0; seat < numPlayers; seat++) {
+			participantIds.add("seat" + seat);
+			names[seat] = "BalancedAI";
+		}
+		Board board = new Board(participantIds, names, new boolean[numPlayers], 10,
+				new BoardGeometry(boardSize), false, null, null, new GameRandom(seed));
+		Player seat = board.getCurrentPlayer();
+
+		System.out.println("cores: " + Runtime.getRuntime().availableProcessors()
+				+ ", " + millis + " ms per search, " + searches + " searches per run");
+		// let the JIT settle (it takes a few seconds) before anything is timed
+		MonteCarloAI warmUp = new MonteCarloAI(board, seat.getPlayerNumber(), seat.getColor(),
+				seat.getName(), 0, millis);
+		warmUp.setThreads(maxThreads);
+		for (int i = 0; i < Math.max(1, WARM_UP_MILLIS / millis); i++) {
+			warmUp.searchMove();
+		}
+
+		double base = 0;
+		for (int threads = 1; threads <= maxThreads; threads++) {
+			MonteCarloAI bot = new MonteCarloAI(board, seat.getPlayerNumber(), seat.getColor(),
+					seat.getName(), 0, millis);
+			bot.setThreads(threads);
+			for (int i = 0; i < searches; i++) {
+				bot.searchMove();
+			}
+
+			double rate = bot.getPlayoutCount() * 1e9 / bot.getSearchNanos();
+			if (threads == 1) {
+				base = rate;
+			}
+			System.out.println(String.format("%3d threads %10.0f playouts/s %6.2fx",
+					threads, rate, rate / base));
+		}
+	}
+}
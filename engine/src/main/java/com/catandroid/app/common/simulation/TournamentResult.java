@@ -0,0 +1,177 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.simulation;
+
+import com.catandroid.app.common.components.Board;
+
+import java.util.Locale;
+
+/**
+ * Aggregated statistics for a batch of simulated games
+ */
+public class TournamentResult {
+
+	private final String[] entrantNames;
+	private final int[] winsPerEntrant;
+	private final int[] winsPerSeat;
+	private final long[] cpuNanosPerPhase;
+	private final long[] stepsPerPhase;
+	private int games, draws;
+	private long totalTurns, elapsedNanos;
+
+	public TournamentResult(String[] entrantNames, int numPlayers) {
+		this.entrantNames = entrantNames;
+		this.winsPerEntrant = new int[entrantNames.length];
+		this.winsPerSeat = new int[numPlayers];
+		this.cpuNanosPerPhase = new long[Board.Phase.values().length];
+		this.stepsPerPhase = new long[Board.Phase.values().length];
+	}
+
+	/**
+	 * Record the outcome of a game
+	 *
+	 * @param winningEntrant
+	 *            index of the winning entrant, or -1 for a draw
+	 * @param winningSeat
+	 *            seat of the winner, or -1 for a draw
+	 * @param turns
+	 *            the number of turns played
+	 */
+	void recordGame(int winningEntrant, int winningSeat, int turns) {
+		games += 1;
+		totalTurns += turns;
+		if (winningEntrant < 0) {
+			draws += 1;
+		} else {
+			winsPerEntrant[winningEntrant] += 1;
+			winsPerSeat[winningSeat] += 1;
+		}
+	}
+
+	/**
+	 * Record the CPU time spent on one Board.runTurn() step
+	 *
+	 * @param phase
+	 *            the phase the step started in
+	 * @param cpuNanos
+	 *            CPU time spent in nanoseconds
+	 */
+	void recordStep(Board.Phase phase, long cpuNanos) {
+		cpuNanosPerPhase[phase.ordinal()] += cpuNanos;
+		stepsPerPhase[phase.ordinal()] += 1;
+	}
+
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Fold another partial result into this one
+	 *
+	 * @param other
+	 *            the result to merge
+	 */
+	void merge(TournamentResult other) {
+		games += other.games;
+		draws += other.draws;
+		totalTurns += other.totalTurns;
+		for (int i = 0; i < winsPerEntrant.length; i++) {
+			winsPerEntrant[i] += other.winsPerEntrant[i];
+		}
+		for (int i = 0; i < winsPerSeat.length; i++) {
+			winsPerSeat[i] += other.winsPerSeat[i];
+		}
+		for (int i = 0; i < cpuNanosPerPhase.length; i++) {
+			cpuNanosPerPhase[i] += other.cpuNanosPerPhase[i];
+			stepsPerPhase[i] += other.stepsPerPhase[i];
+		}
+	}
+
+	public int getGames() {
+		return games;
+	}
+
+	public int getDraws() {
+		return draws;
+	}
+
+	public int getWins(int entrant) {
+		return winsPerEntrant[entrant];
+	}
+
+	public double getWinRate(int entrant) {
+		return games == 0 ? 0 : (double) winsPerEntrant[entrant] / games;
+	}
+
+	public double getSeatWinRate(int seat) {
+		return games == 0 ? 0 : (double) winsPerSeat[seat] / games;
+	}
+
+	public double getAverageTurns() {
+		return games == 0 ? 0 : (double) totalTurns / games;
+	}
+
+	public double getGamesPerSecond() {
+		return elapsedNanos == 0 ? 0 : games / (elapsedNanos / 1e9);
+	}
+
+	public long getPhaseCpuNanos(Board.Phase phase) {
+		return cpuNanosPerPhase[phase.ordinal()];
+	}
+
+	public long getPhaseSteps(Board.Phase phase) {
+		return stepsPerPhase[phase.ordinal()];
+	}
+
+	/**
+	 * Format a human readable report
+	 *
+	 * @return the report
+	 */
+	public String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(String.format(Locale.US,
+				"%d games in %.2f s (%.1f games/s), %d draws, %.1f turns/game\n",
+				games, elapsedNanos / 1e9, getGamesPerSecond(), draws, getAverageTurns()));
+
+		summary.append("win rate by entrant:\n");
+		for (int i = 0; i < entrantNames.length; i++) {
+			summary.append(String.format(Locale.US, "  %-16s %6d  %5.1f%%\n",
+					entrantNames[i], winsPerEntrant[i], 100 * getWinRate(i)));
+		}
+
+		summary.append("win rate by seat:\n");
+		for (int i = 0; i < winsPerSeat.length; i++) {
+			summary.append(String.format(Locale.US, "  seat %d           %6d  %5.1f%%\n",
+					i, winsPerSeat[i], 100 * getSeatWinRate(i)));
+		}
+
+		summary.append("cpu time by phase:\n");
+		for (Board.Phase phase : Board.Phase.values()) {
+			long steps = stepsPerPhase[phase.ordinal()];
+			if (steps == 0) {
+				continue;
+			}
+			long nanos = cpuNanosPerPhase[phase.ordinal()];
+			summary.append(String.format(Locale.US, "  %-16s %9.1f ms  %8.2f us/step\n",
+					phase.name(), nanos / 1e6, nanos / 1e3 / steps));
+		}
+
+		return summary.toString();
+	}
+}
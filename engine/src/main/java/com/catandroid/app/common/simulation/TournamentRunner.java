@@ -0,0 +1,278 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.simulation;
+
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardGeometry;
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.players.AutomatedPlayerFactory;
+import com.catandroid.app.common.players.BalancedAI;
+import com.catandroid.app.common.players.MonteCarloAI;
+import com.catandroid.app.common.players.Player;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays batches of bot-only games as fast as the hardware allows
+ *
+ * Games are driven through Board.runTurn() exactly as the in-app TurnThread
+ * does, minus the delays, and spread over a fork-join pool. Seats are rotated
+ * between entrants from one game to the next so that no entrant keeps the
+ * first-player advantage. Every game draws on its own generator, seeded up
+ * front from the tournament seed, so a run replays exactly regardless of how
+ * the games are scheduled across threads.
+ */
+public class TournamentRunner {
+
+	public static final int DEFAULT_MAX_TURNS = 500;
+
+	// games per leaf task; small enough to balance, large enough to amortize forking
+	private static final int GAMES_PER_TASK = 8;
+
+	private final int games, boardSize, numPlayers;
+	private int maxPoints, maxTurns, parallelism;
+	private long seed;
+	private long[] gameSeeds;
+
+	private final ArrayList<String> entrantNames;
+	private final ArrayList<AutomatedPlayerFactory> entrantFactories;
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Configure a tournament
+	 *
+	 * @param games
+	 *            the number of games to play
+	 * @param boardSize
+	 *            the board size passed to BoardGeometry
+	 * @param numPlayers
+	 *            the number of seats per game
+	 */
+	public TournamentRunner(int games, int boardSize, int numPlayers) {
+		this.games = games;
+		this.boardSize = boardSize;
+		this.numPlayers = numPlayers;
+		this.maxPoints = 10;
+		this.maxTurns = DEFAULT_MAX_TURNS;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.seed = new GameRandom().getInitialSeed();
+		this.entrantNames = new ArrayList<String>();
+		this.entrantFactories = new ArrayList<AutomatedPlayerFactory>();
+	}
+
+	/**
+	 * Add a bot implementation to the tournament
+	 *
+	 * @param name
+	 *            the name to report results under
+	 * @param factory
+	 *            creates the bot for a seat
+	 */
+	public void addEntrant(String name, AutomatedPlayerFactory factory) {
+		entrantNames.add(name);
+		entrantFactories.add(factory);
+	}
+
+	public void setMaxPoints(int maxPoints) {
+		this.maxPoints = maxPoints;
+	}
+
+	/**
+	 * Set the turn limit after which a game is scored as a draw
+	 *
+	 * @param maxTurns
+	 *            the turn limit
+	 */
+	public void setMaxTurns(int maxTurns) {
+		this.maxTurns = maxTurns;
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Set the seed from which every game's randomness is derived
+	 *
+	 * @param seed
+	 *            the tournament seed
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Play all games and gather the statistics
+	 *
+	 * @return the aggregated result
+	 */
+	public TournamentResult run() {
+		if (entrantFactories.isEmpty()) {
+			addEntrant("BalancedAI", BalancedAI.FACTORY);
+		}
+
+		GameRandom master = new GameRandom(seed);
+		gameSeeds = new long[games];
+		for (int i = 0; i < games; i++) {
+			gameSeeds[i] = master.nextLong();
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			long start = System.nanoTime();
+			TournamentResult result = pool.invoke(new GameRangeTask(0, games));
+			result.setElapsedNanos(System.nanoTime() - start);
+			return result;
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private TournamentResult newResult() {
+		return new TournamentResult(entrantNames.toArray(new String[entrantNames.size()]),
+				numPlayers);
+	}
+
+	/**
+	 * Play a single game and record it
+	 *
+	 * @param gameIndex
+	 *            the index of the game, used to rotate the seating
+	 * @param result
+	 *            the result to record into
+	 */
+	private void playGame(int gameIndex, TournamentResult result) {
+		final int entrants = entrantFactories.size();
+		final int[] seatEntrant = new int[numPlayers];
+		ArrayList<String> participantIds = new ArrayList<String>(numPlayers);
+		String[] names = new String[numPlayers];
+		for (int seat = 0; seat < numPlayers; seat++) {
+			seatEntrant[seat] = (seat + gameIndex) % entrants;
+			participantIds.add("seat" + seat);
+			names[seat] = entrantNames.get(seatEntrant[seat]);
+		}
+
+		AutomatedPlayerFactory seating = new AutomatedPlayerFactory() {
+			@Override
+			public Player createPlayer(Board board, int playerNumber, Player.Color color, String name) {
+				return entrantFactories.get(seatEntrant[playerNumber])
+						.createPlayer(board, playerNumber, color, name);
+			}
+		};
+
+		// bots do their own discarding so autoDiscard stays off
+		Board board = new Board(participantIds, names, new boolean[numPlayers], maxPoints,
+				new BoardGeometry(boardSize), false, null, seating,
+				new GameRandom(gameSeeds[gameIndex]));
+
+		while (board.getWinner() == null && board.getTurnNumber() <= maxTurns) {
+			Board.Phase phase = board.getPhase();
+			long start = cpuTime();
+			board.runTurn();
+			result.recordStep(phase, cpuTime() - start);
+		}
+
+		Player winner = board.getWinner();
+		if (winner == null) {
+			result.recordGame(-1, -1, board.getTurnNumber());
+		} else {
+			int seat = winner.getPlayerNumber();
+			result.recordGame(seatEntrant[seat], seat, board.getTurnNumber());
+		}
+	}
+
+	private static long cpuTime() {
+		if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+			return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+		}
+		return System.nanoTime();
+	}
+
+	/**
+	 * Plays the games in [from, to), splitting the range across the pool
+	 */
+	private class GameRangeTask extends RecursiveTask<TournamentResult> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from, to;
+
+		GameRangeTask(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected TournamentResult compute() {
+			if (to - from <= GAMES_PER_TASK) {
+				TournamentResult result = newResult();
+				for (int i = from; i < to; i++) {
+					playGame(i, result);
+				}
+				return result;
+			}
+
+			int mid = (from + to) >>> 1;
+			GameRangeTask left = new GameRangeTask(from, mid);
+			GameRangeTask right = new GameRangeTask(mid, to);
+			left.fork();
+			TournamentResult result = right.compute();
+			result.merge(left.join());
+			return result;
+		}
+	}
+
+	/**
+	 * Run a BalancedAI self-play tournament from the command line, or pit
+	 * MonteCarloAI against BalancedAI
+	 *
+	 * @param args
+	 *            [games] [board size] [players] [threads] [seed]
+	 *            [MonteCarloAI playouts per decision]
+	 */
+	public static void main(String[] args) {
+		int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int boardSize = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+		int numPlayers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+		TournamentRunner runner = new TournamentRunner(games, boardSize, numPlayers);
+		if (args.length > 3) {
+			runner.setParallelism(Integer.parseInt(args[3]));
+		}
+		if (args.length > 4) {
+			runner.setSeed(Long.parseLong(args[4]));
+		}
+		runner.addEntrant("BalancedAI", BalancedAI.FACTORY);
+		if (args.length > 5) {
+			runner.addEntrant("MonteCarloAI",
+					MonteCarloAI.factory(Integer.parseInt(args[5]), 0));
+		}
+
+		System.out.println("seed: " + runner.getSeed());
+		System.out.print(runner.run().getSummary());
+	}
+}
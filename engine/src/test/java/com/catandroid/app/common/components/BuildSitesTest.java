@@ -0,0 +1,96 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the build site index against the Edge.canBuild and Vertex.canBuild
+ * rules it stands in for, at every site and for every player
+ */
+public class BuildSitesTest {
+
+	@Test
+	public void selfPlaySitesMatchRules() {
+		for (int boardSize = 0; boardSize < 2; boardSize++) {
+			for (long seed = 1; seed <= 8; seed++) {
+				Board board = TestGames.newGame(boardSize, seed);
+				board.getBuildSites();
+				while (board.getWinner() == null && board.getTurnNumber() < 300) {
+					board.runTurn();
+					check(board, "game " + seed + " turn " + board.getTurnNumber());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sitesFollowMovesUndoAndRestore() {
+		Random random = new Random(11);
+		for (long seed = 1; seed <= 8; seed++) {
+			Board board = TestGames.newGame((int) (seed % 2), seed);
+			board.getBuildSites();
+			TestGames.playUntil(board, 10);
+			BoardSnapshot snapshot = board.snapshot();
+
+			for (int i = 0; i < 500; i++) {
+				GameAction action = TestGames.randomAction(board, random);
+				board.makeMove(action);
+				if (random.nextInt(3) == 0 && board.getUndoDepth() > 0) {
+					board.unmakeMove();
+				}
+				check(board, "after " + action);
+			}
+
+			board.restore(snapshot);
+			check(board, "restored game " + seed);
+		}
+	}
+
+	private static void check(Board board, String when) {
+		BuildSites sites = board.getBuildSites();
+		for (Vertex vertex : board.getVertices()) {
+			int id = vertex.getId();
+			assertEquals(when + ", open vertex " + id,
+					vertex.canBuild(null, Vertex.SETTLEMENT, true), sites.isOpen(id));
+			for (int p = 0; p < board.getNumPlayers(); p++) {
+				Player player = board.getPlayer(p);
+				assertEquals(when + ", settlement " + id + " for " + p,
+						vertex.canBuild(player, Vertex.SETTLEMENT, false),
+						sites.canBuildSettlement(p, id));
+				assertEquals(when + ", city " + id + " for " + p,
+						vertex.canBuild(player, Vertex.CITY, false), sites.canBuildCity(p, id));
+			}
+		}
+
+		for (Edge edge : board.getEdges()) {
+			for (int p = 0; p < board.getNumPlayers(); p++) {
+				assertEquals(when + ", road " + edge.getId() + " for " + p,
+						edge.canBuild(board.getPlayer(p)), sites.canBuildRoad(p, edge.getId()));
+			}
+		}
+	}
+}
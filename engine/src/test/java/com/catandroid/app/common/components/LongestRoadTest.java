@@ -0,0 +1,124 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Checks each player's road length and the longest road award against an
+ * exhaustive search over every trail of roads
+ */
+public class LongestRoadTest {
+
+	// shortest road that earns the award
+	private static final int MIN_AWARD = 5;
+
+	@Test
+	public void selfPlayRoadLengthsAreExact() {
+		for (int boardSize = 0; boardSize < 2; boardSize++) {
+			for (long seed = 1; seed <= 10; seed++) {
+				Board board = TestGames.newGame(boardSize, seed);
+				while (board.getWinner() == null && board.getTurnNumber() < 300) {
+					board.runTurn();
+					check(board, "game " + seed + " turn " + board.getTurnNumber());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void randomRoadsAndUndoAreExact() {
+		Random random = new Random(9);
+		for (long seed = 1; seed <= 8; seed++) {
+			Board board = TestGames.newGame((int) (seed % 2), seed);
+			TestGames.playUntil(board, 8);
+			for (int i = 0; i < 1500; i++) {
+				GameAction action;
+				if (random.nextBoolean()) {
+					action = GameAction.buildRoad(random.nextInt(board.getEdges().length));
+				} else if (random.nextInt(4) == 0) {
+					action = GameAction.buildSettlement(random.nextInt(board.getVertices().length));
+				} else {
+					action = TestGames.randomAction(board, random);
+				}
+
+				if (board.makeMove(action)) {
+					check(board, action.toString());
+				}
+				if (random.nextInt(5) == 0 && board.getUndoDepth() > 0) {
+					check(board, "undoing " + board.unmakeMove());
+				}
+			}
+		}
+	}
+
+	private static void check(Board board, String when) {
+		int longest = MIN_AWARD - 1;
+		for (int i = 0; i < board.getNumPlayers(); i++) {
+			int length = bruteForce(board, i);
+			assertEquals(when + ", player " + i, length, board.getPlayer(i).getRoadLength());
+			longest = Math.max(longest, length);
+		}
+
+		Player owner = board.getLongestRoadOwner();
+		assertEquals(when, longest, board.getLongestRoad());
+		if (longest < MIN_AWARD) {
+			assertNull(when, owner);
+		} else {
+			assertEquals(when, longest, owner.getRoadLength());
+		}
+	}
+
+	private static int bruteForce(Board board, int playerNumber) {
+		int best = 0;
+		for (Vertex vertex : board.getVertices()) {
+			best = Math.max(best, longestTrail(vertex, playerNumber, new HashSet<Edge>(), 0));
+		}
+		return best;
+	}
+
+	private static int longestTrail(Vertex vertex, int playerNumber, Set<Edge> used, int length) {
+		// another player's building cuts the road, except where it starts
+		if (length > 0 && vertex.getOwner() != null
+				&& vertex.getOwner().getPlayerNumber() != playerNumber) {
+			return length;
+		}
+
+		int best = length;
+		for (int i = 0; i < 3; i++) {
+			Edge edge = vertex.getEdge(i);
+			if (edge == null || edge.getOwnerPlayerNumber() != playerNumber || !used.add(edge)) {
+				continue;
+			}
+			best = Math.max(best, longestTrail(edge.getAdjacent(vertex), playerNumber, used, length + 1));
+			used.remove(edge);
+		}
+		return best;
+	}
+}
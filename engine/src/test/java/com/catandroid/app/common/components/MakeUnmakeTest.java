@@ -0,0 +1,228 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+import com.catandroid.app.common.components.utilities.GameRandom;
+import com.catandroid.app.common.players.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that every move made through Board.makeMove can be taken back
+ * exactly, by comparing the whole encoded game state before and after
+ */
+public class MakeUnmakeTest {
+
+	private static final int MOVES_PER_GAME = 400;
+
+	@Test
+	public void unmakeRestoresEveryPosition() {
+		Random random = new Random(5);
+		for (int boardSize = 0; boardSize < 2; boardSize++) {
+			for (long seed = 1; seed <= 12; seed++) {
+				Board board = TestGames.newGame(boardSize, seed);
+				TestGames.playUntil(board, seed % 3 == 0 ? 1 : (int) (8 + seed % 5));
+				String start = TestGames.state(board);
+
+				List<String> before = new ArrayList<String>();
+				for (int i = 0; i < MOVES_PER_GAME; i++) {
+					String state = TestGames.state(board);
+					GameAction action = TestGames.randomAction(board, random);
+					boolean inPhase = inPhase(board, action);
+					if (!board.makeMove(action)) {
+						assertEquals("rejected " + action + " changed the position", state,
+								TestGames.state(board));
+						continue;
+					}
+
+					assertTrue("made " + action + " out of its phase", inPhase);
+					before.add(state);
+					if (random.nextInt(3) == 0) {
+						board.unmakeMove();
+						assertEquals("undoing " + action, before.remove(before.size() - 1),
+								TestGames.state(board));
+					}
+				}
+
+				// then take back everything still on the stack, newest first
+				while (board.getUndoDepth() > 0) {
+					GameAction action = board.unmakeMove();
+					assertEquals("undoing " + action, before.remove(before.size() - 1),
+							TestGames.state(board));
+				}
+				assertEquals(start, TestGames.state(board));
+				assertNull(board.unmakeMove());
+			}
+		}
+	}
+
+	@Test
+	public void outOfPhaseMovesAreRejected() {
+		for (long seed = 1; seed <= 10; seed++) {
+			Board board = TestGames.newGame(0, seed);
+			int robber = board.getCurRobberHex().getId();
+			int other = (robber + 1) % board.getHexagons().length;
+
+			// during setup
+			assertRejected(board, GameAction.roll(0));
+			assertRejected(board, GameAction.roll(6));
+			assertRejected(board, GameAction.moveRobber(other));
+			assertRejected(board, GameAction.steal(1));
+
+			// before and once the dice are rolled, and in the build phase
+			TestGames.playUntil(board, 3);
+			assertEquals(Board.Phase.PRODUCTION, board.getPhase());
+			int[] offer = new int[Resource.RESOURCE_TYPES.length];
+			offer[1] = 4;
+			board.getCurrentPlayer().addResources(Resource.RESOURCE_TYPES[1], 4);
+			GameAction trade = GameAction.trade(Resource.RESOURCE_TYPES[0], offer);
+			assertRejected(board, trade);
+			assertTrue(board.makeMove(GameAction.roll(6)));
+			assertRejected(board, GameAction.roll(0));
+			assertTrue(board.makeMove(GameAction.endPhase()));
+			assertEquals(Board.Phase.BUILD, board.getPhase());
+			assertTrue(board.makeMove(trade));
+			board.unmakeMove();
+
+			// no 7 was rolled, so nobody owes a discard
+			for (int i = 0; i < board.getNumPlayers(); i++) {
+				assertTrue(board.getPlayer(i).getResourceCount() > 0);
+				assertRejected(board, GameAction.discard(i, null));
+			}
+
+			robber = board.getCurRobberHex().getId();
+			assertRejected(board, GameAction.roll(0));
+			assertRejected(board, GameAction.moveRobber(robber));
+			assertRejected(board, GameAction.moveRobber((robber + 1) % board.getHexagons().length));
+			for (int i = 0; i < board.getNumPlayers(); i++) {
+				assertRejected(board, GameAction.steal(i));
+			}
+		}
+	}
+
+	private static void assertRejected(Board board, GameAction action) {
+		String state = TestGames.state(board);
+		int depth = board.getUndoDepth();
+		assertFalse(board.getPhase() + " accepted " + action, board.makeMove(action));
+		assertEquals("rejected " + action + " changed the position", state,
+				TestGames.state(board));
+		assertEquals(depth, board.getUndoDepth());
+	}
+
+	@Test
+	public void onlyQueuedPlayersDiscard() {
+		// a human seat, so the robber phase waits for its moves
+		boolean[] human = { true, false, false, false };
+		Board board = new Board(TestGames.participants(), TestGames.NAMES, human, 10,
+				new BoardGeometry(0), false, null, null,
+				new GameRandom(3));
+		MoveList moves = new MoveList(board);
+		while (board.getPhase() != Board.Phase.PRODUCTION) {
+			if (board.getCurrentPlayer().isHuman()) {
+				MoveGenerator.generate(board, moves);
+				assertTrue(board.makeMove(moves.get(0)));
+			} else {
+				board.runTurn();
+			}
+		}
+
+		Player player = board.getCurrentPlayer();
+		assertTrue(player.isHuman());
+		player.addResources(Resource.RESOURCE_TYPES[1], 10);
+		board.getPlayer(1).addResources(Resource.RESOURCE_TYPES[1], 1);
+		assertTrue(board.makeMove(GameAction.roll(7)));
+		assertEquals(Board.Phase.ROBBER, board.getPhase());
+
+		int cards = player.getResourceCount();
+		assertRejected(board, GameAction.discard(1, null));
+		assertTrue(board.makeMove(GameAction.discard(0, null)));
+		assertEquals(cards - 1, player.getResourceCount());
+		assertRejected(board, GameAction.discard(0, null));
+
+		// taking it back queues the player again
+		board.unmakeMove();
+		assertTrue(board.checkPlayerToDiscard());
+		assertTrue(board.makeMove(GameAction.discard(0, null)));
+	}
+
+	/**
+	 * Determine if a roll, robber move, steal, trade or discard is made in
+	 * its phase
+	 *
+	 * @return false for any of them the game would not allow in the
+	 *         position, true otherwise
+	 */
+	private static boolean inPhase(Board board, GameAction action) {
+		Hexagon robber = board.getCurRobberHex();
+		switch (action.getType()) {
+			case ROLL:
+				return board.isProduction() && board.getLastDiceRollNumber() == 0;
+			case MOVE_ROBBER:
+				return board.isRobberPhase() && robber == null
+						&& board.getHexagons()[action.getTarget()] != board.getPrevRobberHex();
+			case TRADE:
+				return board.isBuild();
+			case DISCARD:
+				return board.isRobberPhase() && board.checkPlayerToDiscard();
+			case STEAL:
+				Player from = board.getPlayer(action.getTarget());
+				return board.isRobberPhase() && robber != null
+						&& from != board.getCurrentPlayer() && from.getResourceCount() > 0
+						&& robber.adjacentToPlayer(from);
+			default:
+				return true;
+		}
+	}
+
+	@Test
+	public void packedMovesMatchActions() {
+		for (long seed = 1; seed <= 10; seed++) {
+			Board board = TestGames.newGame(0, seed);
+			MoveList moves = new MoveList(board);
+			while (board.getWinner() == null && board.getTurnNumber() < 60) {
+				int count = MoveGenerator.generate(board, moves);
+				if (count == 0) {
+					board.runTurn();
+					continue;
+				}
+
+				// every listed move is legal, and undoes to where it started
+				String state = TestGames.state(board);
+				for (int i = 0; i < count; i++) {
+					int move = moves.get(i);
+					assertTrue(MoveGenerator.toAction(move).toString(), board.makeMove(move));
+					assertEquals(MoveGenerator.toAction(move).toString(),
+							MoveGenerator.toAction(move).toString(), board.unmakeMove().toString());
+					assertEquals(state, TestGames.state(board));
+				}
+				board.runTurn();
+			}
+		}
+	}
+}
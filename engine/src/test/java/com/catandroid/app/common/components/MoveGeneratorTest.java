@@ -0,0 +1,86 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks that the generated moves are exactly the ones the game allows
+ */
+public class MoveGeneratorTest {
+
+	@Test
+	public void setupPlacementsCannotBeSkipped() {
+		Board board = TestGames.newGame(0, 1);
+		MoveList moves = new MoveList(board);
+		while (board.getPhase() != Board.Phase.PRODUCTION) {
+			Board.Phase phase = board.getPhase();
+			int count = MoveGenerator.generate(board, moves);
+			for (int i = 0; i < count; i++) {
+				assertFalse(phase + " offers to end before placing",
+						MoveGenerator.getType(moves.get(i)) == GameAction.Type.END_PHASE);
+			}
+			assertFalse(board.makeMove(GameAction.endPhase()));
+			assertFalse(board.nextPhase());
+			assertEquals(phase, board.getPhase());
+
+			// once placed, ending the phase is the only move
+			assertTrue(board.makeMove(moves.get(0)));
+			assertEquals(1, MoveGenerator.generate(board, moves));
+			assertEquals(GameAction.Type.END_PHASE, MoveGenerator.getType(moves.get(0)));
+			assertTrue(board.makeMove(moves.get(0)));
+		}
+	}
+
+	@Test
+	public void targetsPastSixteenBitsSurvivePacking() {
+		// radius 90 has 74256 edges
+		Board board = TestGames.newGame(BoardGeometry.withRadius(90), 1);
+		assertTrue(board.getEdges().length > 0xFFFF);
+
+		// settle on the vertex with the largest id, then end the phase
+		MoveList moves = new MoveList(board);
+		int count = MoveGenerator.generate(board, moves);
+		assertTrue(board.makeMove(moves.get(count - 1)));
+		MoveGenerator.generate(board, moves);
+		assertTrue(board.makeMove(moves.get(0)));
+
+		// the first road of the player, with the largest edge id listed
+		count = MoveGenerator.generate(board, moves);
+		int road = -1;
+		for (int i = 0; i < count; i++) {
+			road = Math.max(road, MoveGenerator.getTarget(moves.get(i)));
+		}
+		assertTrue(road > 0xFFFF);
+		assertTrue(board.makeMove(GameAction.buildRoad(road)));
+		assertEquals(board.getPlayer(0).getPlayerNumber(), board.getEdges()[road].getOwnerPlayerNumber());
+
+		GameLog log = board.getGameLog();
+		long event = log.get(log.size() - 1);
+		assertEquals(road, GameLog.getTarget(event));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void mapsTooLargeToAddressAreRejected() {
+		BoardGeometry.withRadius(BoardGeometry.MAX_RADIUS + 1);
+	}
+}
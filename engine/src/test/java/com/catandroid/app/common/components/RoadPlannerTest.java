@@ -0,0 +1,186 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the road planner against a brute-force relaxation over the board's
+ * edges, and that every first road it plans can be built
+ *
+ * The planner is kept between checks, so a build, undo or restore that
+ * failed to invalidate it would show up as a stale distance.
+ */
+public class RoadPlannerTest {
+
+	@Test
+	public void selfPlayPlansMatchRelaxation() {
+		for (int boardSize = 0; boardSize < 2; boardSize++) {
+			for (long seed = 1; seed <= 4; seed++) {
+				Board board = TestGames.newGame(boardSize, seed);
+				board.getRoadPlanner();
+				while (board.getWinner() == null && board.getTurnNumber() < 300) {
+					board.runTurn();
+					check(board, "game " + seed + " turn " + board.getTurnNumber());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void plansFollowMovesUndoAndRestore() {
+		Random random = new Random(17);
+		for (long seed = 1; seed <= 6; seed++) {
+			Board board = TestGames.newGame((int) (seed % 2), seed);
+			board.getRoadPlanner();
+			TestGames.playUntil(board, 10);
+			check(board, "game " + seed);
+			BoardSnapshot snapshot = board.snapshot();
+
+			for (int i = 0; i < 300; i++) {
+				GameAction action = TestGames.randomAction(board, random);
+				board.makeMove(action);
+				if (random.nextInt(3) == 0 && board.getUndoDepth() > 0) {
+					check(board, "before undoing " + board.unmakeMove());
+				}
+				check(board, "after " + action);
+			}
+
+			board.restore(snapshot);
+			check(board, "restored game " + seed);
+		}
+	}
+
+	private static void check(Board board, String when) {
+		RoadPlanner planner = board.getRoadPlanner();
+		Vertex[] vertices = board.getVertices();
+		for (int p = 0; p < board.getNumPlayers(); p++) {
+			Player player = board.getPlayer(p);
+			boolean[] network = network(board, p);
+			int[] distance = relax(board, p, network);
+
+			// distances from the far end of each first road, worked out once
+			Map<Integer, int[]> fromRoad = new HashMap<Integer, int[]>();
+			for (Vertex vertex : vertices) {
+				int id = vertex.getId();
+				String where = when + ", vertex " + id + " for " + p;
+				assertEquals(where, distance[id], planner.getDistance(p, id));
+
+				int road = planner.nextRoad(p, id);
+				if (distance[id] == 0 || distance[id] == RoadPlanner.UNREACHABLE) {
+					assertEquals(where, -1, road);
+					continue;
+				}
+
+				assertTrue(where + ", no road planned", road >= 0);
+				Edge edge = board.getEdges()[road];
+				assertTrue(where + ", road " + road + " can't be built", edge.canBuild(player));
+
+				// the road leaves the network, and the rest of the way is shortest
+				int near = edge.getV0Clockwise().getId();
+				int far = edge.getV1Clockwise().getId();
+				if (!network[near]) {
+					int swap = near;
+					near = far;
+					far = swap;
+				}
+				assertTrue(where + ", road " + road + " is off the network", network[near]);
+				assertEquals(where + ", road " + road + " leads into the network", 1, distance[far]);
+
+				int[] rest = fromRoad.get(far);
+				if (rest == null) {
+					boolean[] start = new boolean[vertices.length];
+					start[far] = true;
+					rest = relax(board, p, start);
+					fromRoad.put(far, rest);
+				}
+				assertEquals(where + ", road " + road + " is off a shortest route",
+						distance[id] - 1, rest[id]);
+			}
+		}
+	}
+
+	/**
+	 * Find the vertices a player's roads may be extended from: its own
+	 * buildings and the ends of its roads no other player has built on
+	 */
+	private static boolean[] network(Board board, int playerNumber) {
+		Vertex[] vertices = board.getVertices();
+		boolean[] network = new boolean[vertices.length];
+		for (Edge edge : board.getEdges()) {
+			if (edge.getOwnerPlayerNumber() == playerNumber) {
+				network[edge.getV0Clockwise().getId()] = true;
+				network[edge.getV1Clockwise().getId()] = true;
+			}
+		}
+
+		for (Vertex vertex : vertices) {
+			if (vertex.hasBuilding()) {
+				network[vertex.getId()] = vertex.getOwner().getPlayerNumber() == playerNumber;
+			}
+		}
+		return network;
+	}
+
+	/**
+	 * Relax every empty edge until no distance changes, never going on past
+	 * another player's building
+	 */
+	private static int[] relax(Board board, int playerNumber, boolean[] start) {
+		Vertex[] vertices = board.getVertices();
+		int[] distance = new int[vertices.length];
+		for (int id = 0; id < vertices.length; id++) {
+			distance[id] = start[id] ? 0 : RoadPlanner.UNREACHABLE;
+		}
+
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (Edge edge : board.getEdges()) {
+				if (edge.hasRoad()) {
+					continue;
+				}
+
+				Vertex[] ends = { edge.getV0Clockwise(), edge.getV1Clockwise() };
+				for (int i = 0; i < 2; i++) {
+					Vertex from = ends[i];
+					Vertex to = ends[1 - i];
+					int d = distance[from.getId()];
+					boolean passable = !from.hasBuilding()
+							|| from.getOwner().getPlayerNumber() == playerNumber;
+					if (d != RoadPlanner.UNREACHABLE && passable && d + 1 < distance[to.getId()]) {
+						distance[to.getId()] = d + 1;
+						changed = true;
+					}
+				}
+			}
+		}
+		return distance;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+
+import com.catandroid.app.common.components.board_positions.Edge;
+import com.catandroid.app.common.components.board_positions.Vertex;
+import com.catandroid.app.common.players.Player;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Runs games with Board.RuleEngine.CHECKED, so that every placement rule is
+ * answered by the bitboards and the object model and any disagreement throws
+ */
+public class RuleEngineTest {
+
+	@Test
+	public void selfPlayAgreesOnStandardMaps() {
+		for (int boardSize = 0; boardSize < 2; boardSize++) {
+			for (long seed = 1; seed <= 4; seed++) {
+				selfPlay(checked(TestGames.newGame(boardSize, seed)));
+			}
+		}
+	}
+
+	@Test
+	public void selfPlayAgreesOnLargeMap() {
+		for (long seed = 1; seed <= 2; seed++) {
+			selfPlay(checked(TestGames.newGame(BoardGeometry.withRadius(6), seed)));
+		}
+	}
+
+	@Test
+	public void movesAndUndoAgree() {
+		Random random = new Random(14);
+		for (long seed = 1; seed <= 6; seed++) {
+			BoardGeometry geometry = seed <= 4
+					? new BoardGeometry((int) (seed % 2)) : BoardGeometry.withRadius(6);
+			Board board = checked(TestGames.newGame(geometry, seed));
+			TestGames.playUntil(board, 10);
+			BoardSnapshot snapshot = board.snapshot();
+
+			for (int i = 0; i < 400; i++) {
+				board.makeMove(TestGames.randomAction(board, random));
+				if (random.nextInt(3) == 0 && board.getUndoDepth() > 0) {
+					board.unmakeMove();
+				}
+				if (i % 20 == 0) {
+					sweep(board);
+				}
+			}
+
+			while (board.getUndoDepth() > 0) {
+				board.unmakeMove();
+			}
+			sweep(board);
+
+			board.restore(snapshot);
+			sweep(board);
+
+			// copies made for search keep the engine
+			Board copy = board.copy(null);
+			if (copy != null) {
+				assertEquals(Board.RuleEngine.CHECKED, copy.getRuleEngine());
+				sweep(copy);
+			}
+		}
+	}
+
+	private static Board checked(Board board) {
+		board.setRuleEngine(Board.RuleEngine.CHECKED);
+		return board;
+	}
+
+	private static void selfPlay(Board board) {
+		while (board.getWinner() == null && board.getTurnNumber() < 200) {
+			board.runTurn();
+			sweep(board);
+		}
+	}
+
+	/**
+	 * Ask every rule at every site for every player
+	 */
+	private static void sweep(Board board) {
+		for (Vertex vertex : board.getVertices()) {
+			vertex.couldBuild();
+			for (int p = 0; p < board.getNumPlayers(); p++) {
+				Player player = board.getPlayer(p);
+				vertex.hasRoad(player);
+				vertex.canBuild(player, Vertex.SETTLEMENT, true);
+				vertex.canBuild(player, Vertex.SETTLEMENT, false);
+				vertex.canBuild(player, Vertex.CITY, false);
+			}
+		}
+
+		for (Edge edge : board.getEdges()) {
+			for (int p = 0; p < board.getNumPlayers(); p++) {
+				edge.canBuild(board.getPlayer(p));
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.components.utilities.GameRandom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Boards and moves shared by the engine tests
+ *
+ * Every seat is a bot, so a board can play itself with runTurn(), and random
+ * moves are drawn from the whole range of each action, legal or not, so that
+ * rejected moves get checked as well.
+ */
+final class TestGames {
+
+	static final String[] NAMES = { "a", "b", "c", "d" };
+
+	private TestGames() {
+	}
+
+	/**
+	 * Create a four player bot game on one of the standard boards
+	 *
+	 * @param boardSize
+	 *            0 for the 37 hexagon map, 1 for the 61 hexagon map
+	 * @param seed
+	 *            the seed of the layout and the dice
+	 * @return the board, in its first setup phase
+	 */
+	static Board newGame(int boardSize, long seed) {
+		return newGame(new BoardGeometry(boardSize), seed);
+	}
+
+	/**
+	 * Create a four player bot game on any map
+	 *
+	 * @param geometry
+	 *            the map
+	 * @param seed
+	 *            the seed of the layout and the dice
+	 * @return the board, in its first setup phase
+	 */
+	static Board newGame(BoardGeometry geometry, long seed) {
+		return new Board(participants(), NAMES, new boolean[NAMES.length], 10, geometry,
+				false, null, null, new GameRandom(seed));
+	}
+
+	static ArrayList<String> participants() {
+		return new ArrayList<String>(Arrays.asList(NAMES));
+	}
+
+	/**
+	 * Play a game on until a turn or until someone wins
+	 *
+	 * @param board
+	 *            the board
+	 * @param turnNumber
+	 *            the turn to stop at
+	 */
+	static void playUntil(Board board, int turnNumber) {
+		while (board.getWinner() == null && board.getTurnNumber() < turnNumber) {
+			board.runTurn();
+		}
+	}
+
+	/**
+	 * Draw any kind of move for any target, whether or not it is legal
+	 *
+	 * @param board
+	 *            the board the move is for
+	 * @param random
+	 *            the source of the move
+	 * @return the move
+	 */
+	static GameAction randomAction(Board board, Random random) {
+		Resource.ResourceType[] resources = Resource.RESOURCE_TYPES;
+		switch (random.nextInt(9)) {
+			case 0:
+				return GameAction.buildRoad(random.nextInt(board.getEdges().length));
+			case 1:
+				return GameAction.buildSettlement(random.nextInt(board.getVertices().length));
+			case 2:
+				return GameAction.buildCity(random.nextInt(board.getVertices().length));
+			case 3:
+				return GameAction.moveRobber(random.nextInt(board.getHexagons().length));
+			case 4:
+				return GameAction.steal(random.nextInt(board.getNumPlayers()));
+			case 5:
+				int[] offer = new int[resources.length];
+				offer[random.nextInt(resources.length)] = 2 + random.nextInt(3);
+				return GameAction.trade(resources[random.nextInt(resources.length)], offer);
+			case 6:
+				return GameAction.discard(random.nextInt(board.getNumPlayers()),
+						random.nextBoolean() ? null : resources[random.nextInt(resources.length)]);
+			case 7:
+				return GameAction.roll(random.nextInt(3) == 0 ? 0 : 2 + random.nextInt(11));
+			default:
+				return GameAction.endPhase();
+		}
+	}
+
+	/**
+	 * Capture everything about a position that a move could change
+	 *
+	 * @param board
+	 *            a board on one of the standard maps
+	 * @return the encoded game state and the position hash
+	 */
+	static String state(Board board) {
+		return Arrays.toString(GameStateCodec.encode(board)) + "|" + board.getZobristHash();
+	}
+}
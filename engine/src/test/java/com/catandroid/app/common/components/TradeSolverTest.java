@@ -0,0 +1,169 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.catandroid.app.common.components.board_pieces.Resource;
+import com.catandroid.app.common.players.Player;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the trade solver against a search over every order of bank and
+ * harbor trades
+ */
+public class TradeSolverTest {
+
+	private static final Resource.ResourceType[] RESOURCES = Resource.RESOURCE_TYPES;
+
+	private static final int[][] COSTS = { Player.ROAD_COST, Player.SETTLEMENT_COST,
+			Player.CITY_COST, Player.CARD_COST };
+
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	@Test
+	public void solutionsAreCheapest() {
+		Random random = new Random(1);
+		TradeSolver solver = new TradeSolver();
+		for (int game = 0; game < 2000; game++) {
+			Player player = randomHand(TestGames.newGame(0, game).getPlayer(0), random);
+			int[] hand = hand(player);
+			int[] ratio = ratios(player);
+
+			for (int[] cost : COSTS) {
+				int cheapest = cheapest(hand, cost, ratio);
+				int trades = solver.solve(player, cost);
+				String what = Arrays.toString(hand) + " for " + Arrays.toString(cost);
+				if (cheapest == UNREACHABLE) {
+					assertEquals(what, -1, trades);
+				} else {
+					assertTrue(what, trades >= 0);
+					assertEquals(what, cheapest, solver.getCardsGiven());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void appliedTradesPayTheCost() {
+		Random random = new Random(2);
+		TradeSolver solver = new TradeSolver();
+		for (int game = 0; game < 2000; game++) {
+			Player player = randomHand(TestGames.newGame(0, game).getPlayer(0), random);
+			int[] cost = COSTS[random.nextInt(COSTS.length)];
+			int[] before = hand(player);
+			if (solver.solve(player, cost) < 0) {
+				continue;
+			}
+
+			assertTrue(solver.apply(player));
+			int[] after = hand(player);
+			int given = 0;
+			for (int i = 0; i < RESOURCES.length; i++) {
+				assertTrue(Arrays.toString(after), after[i] >= cost[i]);
+				given += Math.max(before[i] - after[i], 0);
+			}
+			assertEquals(solver.getCardsGiven(), given);
+		}
+	}
+
+	@Test
+	public void applyMakesNoTradeUnlessAllFit() {
+		Board board = TestGames.newGame(0, 1);
+		Player rich = board.getPlayer(0);
+		Player poor = board.getPlayer(1);
+		rich.addResources(Resource.ResourceType.ORE, 8);
+		poor.addResources(Resource.ResourceType.ORE, 5);
+
+		TradeSolver solver = new TradeSolver();
+		assertEquals(2, solver.solve(rich, Player.ROAD_COST));
+
+		// the second 4:1 trade doesn't fit the smaller hand, so neither is made
+		int[] before = hand(poor);
+		assertFalse(solver.apply(poor));
+		assertTrue(Arrays.equals(before, hand(poor)));
+	}
+
+	private static Player randomHand(Player player, Random random) {
+		if (random.nextInt(3) == 0) {
+			player.setTradeValue(Resource.ResourceType.ANY);
+		}
+		for (int i = 0; i < RESOURCES.length - 1; i++) {
+			if (random.nextInt(4) == 0) {
+				player.setTradeValue(RESOURCES[i]);
+			}
+			player.addResources(RESOURCES[i], random.nextInt(8));
+		}
+		return player;
+	}
+
+	private static int[] hand(Player player) {
+		int[] hand = new int[RESOURCES.length];
+		for (int i = 0; i < hand.length; i++) {
+			hand[i] = player.getResources(RESOURCES[i]);
+		}
+		return hand;
+	}
+
+	private static int[] ratios(Player player) {
+		int[] ratio = new int[RESOURCES.length];
+		for (int i = 0; i < ratio.length; i++) {
+			ratio[i] = player.hasHarbor(RESOURCES[i]) ? 2 : player.getTradeValue();
+		}
+		return ratio;
+	}
+
+	/**
+	 * Try every trade for the first missing resource, then recurse
+	 *
+	 * @return the fewest cards given to pay the cost, or UNREACHABLE
+	 */
+	private static int cheapest(int[] hand, int[] cost, int[] ratio) {
+		int want = 0;
+		while (want < hand.length && hand[want] >= cost[want]) {
+			want++;
+		}
+		if (want == hand.length) {
+			return 0;
+		}
+
+		int best = UNREACHABLE;
+		for (int give = 0; give < hand.length; give++) {
+			if (give == want || hand[give] < ratio[give]) {
+				continue;
+			}
+
+			hand[give] -= ratio[give];
+			hand[want]++;
+			int rest = cheapest(hand, cost, ratio);
+			hand[give] += ratio[give];
+			hand[want]--;
+
+			if (rest != UNREACHABLE) {
+				best = Math.min(best, rest + ratio[give]);
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the incrementally updated position hash against one worked out
+ * from scratch
+ *
+ * A board decoded by GameStateCodec has no hash yet, so asking it for one
+ * hashes every piece afresh.
+ */
+public class ZobristHashTest {
+
+	@Test
+	public void incrementalHashMatchesRecompute() {
+		for (int boardSize = 0; boardSize < 2; boardSize++) {
+			for (long seed = 1; seed <= 10; seed++) {
+				Board board = TestGames.newGame(boardSize, seed);
+				board.getZobristHash();
+				while (board.getWinner() == null && board.getTurnNumber() < 300) {
+					board.runTurn();
+					assertEquals("turn " + board.getTurnNumber() + " of game " + seed,
+							recompute(board), board.getZobristHash());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void movesAndUndoKeepHashExact() {
+		Random random = new Random(7);
+		for (long seed = 1; seed <= 10; seed++) {
+			Board board = TestGames.newGame(1, seed);
+			TestGames.playUntil(board, 6);
+			for (int i = 0; i < 300; i++) {
+				if (board.makeMove(TestGames.randomAction(board, random))
+						&& random.nextInt(3) == 0) {
+					board.unmakeMove();
+				}
+				assertEquals(recompute(board), board.getZobristHash());
+			}
+		}
+	}
+
+	@Test
+	public void restoreBringsBackHash() {
+		Board board = TestGames.newGame(0, 3);
+		TestGames.playUntil(board, 10);
+		BoardSnapshot snapshot = board.snapshot();
+		long hash = board.getZobristHash();
+
+		TestGames.playUntil(board, 20);
+		assertNotEquals(hash, board.getZobristHash());
+
+		board.restore(snapshot);
+		assertEquals(hash, board.getZobristHash());
+		assertEquals(recompute(board), board.getZobristHash());
+	}
+
+	private static long recompute(Board board) {
+		return GameStateCodec.decodeBoard(GameStateCodec.encode(board),
+				TestGames.participants(), TestGames.NAMES, null, null).getZobristHash();
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * hexagonal-experiments-in-android
+ * Copyright (C) 2017, Logan Martel, Frederick Parsons
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.catandroid.app.common.components.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.catandroid.app.common.components.Board;
+import com.catandroid.app.common.components.BoardGeometry;
+import com.catandroid.app.common.components.BoardTopology;
+import com.catandroid.app.common.components.board_positions.Hexagon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Checks the number token layout: exactly one robber, every token dealt
+ * out, and no six or eight next to another one wherever they fit
+ */
+public class BoardUtilsTest {
+
+	private static final String[] NAMES = { "a", "b", "c", "d" };
+
+	@Test
+	public void layoutsKeepHighRollersApart() {
+		int[] radii = { 3, 4, 6, 10 };
+		for (int radius : radii) {
+			for (long seed = 1; seed <= 30; seed++) {
+				Board board = newGame(BoardGeometry.withRadius(radius), seed);
+				String where = "radius " + radius + " seed " + seed;
+
+				int robbers = 0;
+				for (Hexagon hexagon : board.getHexagons()) {
+					if (hexagon.hasRobber()) {
+						robbers++;
+					}
+				}
+				assertEquals(where + ", robbers", 1, robbers);
+
+				assertEquals(where + ", adjacent 6/8", 0, adjacentHighRollers(board));
+				checkTokens(board, board.getTokenCounts(), where);
+			}
+		}
+	}
+
+	@Test
+	public void crowdedHighRollersAreAllPlaced() {
+		for (long seed = 1; seed <= 10; seed++) {
+			Board board = newGame(BoardGeometry.withRadius(10), seed);
+			int producing = clearTokens(board);
+
+			// half the map can't be spread out, so the search runs out of
+			// steps, keeps the deepest spread and places the rest anywhere
+			int[] counts = new int[Board.COUNT_PER_DICE_SUM.length];
+			counts[6] = producing / 4;
+			counts[8] = producing / 4;
+			counts[5] = producing - counts[6] - counts[8];
+			BoardUtils.assignRandomNumTokens(board, counts);
+			checkTokens(board, counts, "seed " + seed);
+			assertTrue(adjacentHighRollers(board) > 0);
+
+			// with more high rollers than hexagons (the search runs out of
+			// steps here too), every hexagon gets one
+			clearTokens(board);
+			counts = new int[Board.COUNT_PER_DICE_SUM.length];
+			counts[6] = producing;
+			counts[8] = producing;
+			BoardUtils.assignRandomNumTokens(board, counts);
+			for (Hexagon hexagon : board.getHexagons()) {
+				if (isProducing(hexagon)) {
+					assertEquals("seed " + seed + ", hexagon " + hexagon.getId(), 6,
+							hexagon.getNumberTokenAsInt());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check that every producing hexagon has a token, and that the tokens
+	 * add up to the counts wherever there are enough hexagons for them
+	 */
+	private static void checkTokens(Board board, int[] countPerDiceSum, String where) {
+		int[] counts = new int[countPerDiceSum.length];
+		int producing = 0;
+		for (Hexagon hexagon : board.getHexagons()) {
+			if (!isProducing(hexagon)) {
+				continue;
+			}
+
+			int token = hexagon.getNumberTokenAsInt();
+			assertFalse(where + ", hexagon " + hexagon.getId() + " has token " + token,
+					token < 2 || token == 7);
+			counts[token]++;
+			producing++;
+		}
+
+		int total = 0;
+		for (int count : countPerDiceSum) {
+			total += count;
+		}
+		if (total == producing) {
+			assertEquals(where + ", token counts", Arrays.toString(countPerDiceSum),
+					Arrays.toString(counts));
+		}
+	}
+
+	private static int adjacentHighRollers(Board board) {
+		Hexagon[] hexagons = board.getHexagons();
+		BoardTopology topology = board.getTopology();
+		int pairs = 0;
+		for (Hexagon hexagon : hexagons) {
+			if (!isHighRoller(hexagon)) {
+				continue;
+			}
+
+			int id = hexagon.getId();
+			for (int k = topology.hexNeighborStart(id); k < topology.hexNeighborEnd(id); k++) {
+				if (topology.hexNeighbor(k) > id && isHighRoller(hexagons[topology.hexNeighbor(k)])) {
+					pairs++;
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static int clearTokens(Board board) {
+		int producing = 0;
+		for (Hexagon hexagon : board.getHexagons()) {
+			if (isProducing(hexagon)) {
+				hexagon.placeNumberToken(0);
+				producing++;
+			}
+		}
+		return producing;
+	}
+
+	private static boolean isHighRoller(Hexagon hexagon) {
+		int token = hexagon.getNumberTokenAsInt();
+		return token == 6 || token == 8;
+	}
+
+	private static boolean isProducing(Hexagon hexagon) {
+		Hexagon.TerrainType terrainType = hexagon.getTerrainType();
+		return terrainType != Hexagon.TerrainType.DESERT && terrainType != Hexagon.TerrainType.SEA;
+	}
+
+	private static Board newGame(BoardGeometry geometry, long seed) {
+		return new Board(new ArrayList<String>(Arrays.asList(NAMES)), NAMES,
+				new boolean[NAMES.length], 10, geometry, false, null, null, new GameRandom(seed));
+	}
+}